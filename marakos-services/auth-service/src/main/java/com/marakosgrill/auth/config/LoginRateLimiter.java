@@ -0,0 +1,90 @@
+package com.marakosgrill.auth.config;
+
+import com.marakosgrill.auth.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+import static com.marakosgrill.auth.util.constant.TOO_MANY_LOGIN_ATTEMPTS;
+
+// Límite de intentos de login por IP y por email, en memoria y antes de cualquier consulta o BCrypt.
+// Un login exitoso limpia la ventana del email; la de la IP sigue contando.
+// Si la tabla de emails está llena, un email nuevo solo queda limitado por su IP.
+@Slf4j
+@Component
+public class LoginRateLimiter {
+    private final SlidingWindowLimiter byIp;
+    private final SlidingWindowLimiter byEmail;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-rate-limit.ip.max-attempts:30}") int ipMaxAttempts,
+                            @Value("${auth.login-rate-limit.ip.window-seconds:60}") long ipWindowSeconds,
+                            @Value("${auth.login-rate-limit.ip.lockout-seconds:300}") long ipLockoutSeconds,
+                            @Value("${auth.login-rate-limit.email.max-attempts:10}") int emailMaxAttempts,
+                            @Value("${auth.login-rate-limit.email.window-seconds:900}") long emailWindowSeconds,
+                            @Value("${auth.login-rate-limit.email.lockout-seconds:900}") long emailLockoutSeconds,
+                            @Value("${auth.login-rate-limit.max-keys:100000}") int maxKeys) {
+        this.byIp = new SlidingWindowLimiter(ipMaxAttempts, ipWindowSeconds * 1000, ipLockoutSeconds * 1000, maxKeys);
+        this.byEmail = new SlidingWindowLimiter(emailMaxAttempts, emailWindowSeconds * 1000, emailLockoutSeconds * 1000, maxKeys);
+        this.ipRejections = Counter.builder("auth.login.rate_limited")
+                .description("Intentos de login rechazados con 429")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.login.rate_limited")
+                .description("Intentos de login rechazados con 429")
+                .tag("key", "email")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.rate_limit.keys", this, limiter -> limiter.byIp.size() + limiter.byEmail.size())
+                .description("IPs y emails con ventana de intentos en memoria")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.login.rate_limit.untracked", this,
+                        limiter -> limiter.byIp.untracked() + limiter.byEmail.untracked())
+                .description("Intentos sin ventana propia porque se alcanzó max-keys")
+                .register(meterRegistry);
+    }
+
+    // La IP se revisa primero: una IP bloqueada no suma intentos (ni bloqueos) a los emails que prueba
+    public void acquire(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        long waitMillis = byIp.acquire(clientIp, now);
+        if (waitMillis > 0) {
+            ipRejections.increment();
+            throw new TooManyLoginAttemptsException(TOO_MANY_LOGIN_ATTEMPTS, toSeconds(waitMillis));
+        }
+        waitMillis = byEmail.acquire(normalize(email), now);
+        if (waitMillis > 0) {
+            emailRejections.increment();
+            throw new TooManyLoginAttemptsException(TOO_MANY_LOGIN_ATTEMPTS, toSeconds(waitMillis));
+        }
+    }
+
+    public void onSuccess(String email) {
+        byEmail.reset(normalize(email));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        int evicted = byIp.evictIdle(now) + byEmail.evictIdle(now);
+        if (evicted > 0) {
+            log.debug("🧹 {} ventana(s) de intentos de login inactivas desalojadas", evicted);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
@@ -0,0 +1,122 @@
+package com.marakosgrill.auth.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ventana deslizante por clave (email o IP) dividida en SLICES tramos; cada tramo es un long con
+// (número de tramo << 24 | intentos) que se actualiza con CAS, sin locks en el camino de cada login.
+// Las claves inactivas se desalojan. Con maxKeys ventanas en memoria, una clave nueva primero fuerza el
+// desalojo de las vencidas; si aun así no hay lugar, el intento no se cuenta para esa clave (solo se
+// registra en untracked) y queda limitado por el otro limitador: nunca comparte ventana con otras claves,
+// así una ráfaga de emails aleatorios no bloquea a usuarios reales ni hace crecer la memoria.
+final class SlidingWindowLimiter {
+    private static final int SLICES = 10;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final long sliceMillis;
+    private final long lockoutMillis;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong();
+    private final LongAdder untracked = new LongAdder();
+
+    SlidingWindowLimiter(int maxAttempts, long windowMillis, long lockoutMillis, int maxKeys) {
+        this.maxAttempts = maxAttempts;
+        this.sliceMillis = Math.max(1, windowMillis / SLICES);
+        this.windowMillis = sliceMillis * SLICES;
+        this.lockoutMillis = lockoutMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    // Registra un intento; 0 si pasa, o los milisegundos que faltan para que la clave se desbloquee
+    long acquire(String key, long now) {
+        Window window = window(key, now);
+        if (window == null) {
+            untracked.increment();
+            return 0;
+        }
+        window.lastSeen = now;
+        long lockedUntil = window.lockedUntil;
+        if (lockedUntil > now) {
+            return lockedUntil - now;
+        }
+        if (window.increment(now / sliceMillis) > maxAttempts) {
+            window.lockedUntil = now + lockoutMillis;
+            return lockoutMillis;
+        }
+        return 0;
+    }
+
+    void reset(String key) {
+        windows.remove(key);
+    }
+
+    int evictIdle(long now) {
+        int before = windows.size();
+        windows.values().removeIf(window -> window.lastSeen <= now - windowMillis && window.lockedUntil <= now);
+        return before - windows.size();
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    // Intentos que no se contaron por clave porque no había lugar para una ventana nueva
+    long untracked() {
+        return untracked.sum();
+    }
+
+    // null si la clave no tiene ventana y no cabe una más
+    private Window window(String key, long now) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxKeys) {
+            // El recorrido completo se hace como mucho una vez por tramo, no en cada clave nueva
+            long due = nextEviction.get();
+            if (now >= due && nextEviction.compareAndSet(due, now + sliceMillis)) {
+                evictIdle(now);
+            }
+            if (windows.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return windows.computeIfAbsent(key, k -> new Window());
+    }
+
+    private static final class Window {
+        private final AtomicLongArray slices = new AtomicLongArray(SLICES);
+        private volatile long lockedUntil;
+        private volatile long lastSeen;
+
+        // Suma el intento al tramo actual y devuelve el total de los últimos SLICES tramos
+        int increment(long slice) {
+            int index = (int) (slice % SLICES);
+            while (true) {
+                long current = slices.get(index);
+                long next;
+                if ((current >>> COUNT_BITS) == slice) {
+                    next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+                } else {
+                    next = (slice << COUNT_BITS) | 1;
+                }
+                if (slices.compareAndSet(index, current, next)) break;
+            }
+            long total = 0;
+            for (int i = 0; i < SLICES; i++) {
+                long value = slices.get(i);
+                long age = slice - (value >>> COUNT_BITS);
+                if (age >= 0 && age < SLICES) {
+                    total += value & COUNT_MASK;
+                }
+            }
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        }
+    }
+}
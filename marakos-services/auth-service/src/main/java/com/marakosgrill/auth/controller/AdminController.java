@@ -1,6 +1,7 @@
 package com.marakosgrill.auth.controller;
 
 import com.marakosgrill.auth.dto.*;
+import com.marakosgrill.auth.exception.ServiceBusyException;
 import com.marakosgrill.auth.service.AdminService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +49,8 @@ public class AdminController {
         try {
             CreateUserResponse response = adminService.createUser(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServiceBusyException e) {
+            throw e; // 503 + Retry-After desde GlobalExceptionHandler
         } catch (RuntimeException e) {
             e.printStackTrace(); // Para debugging
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -1,12 +1,15 @@
 package com.marakosgrill.auth.controller;
 
+import com.marakosgrill.auth.config.LoginRateLimiter;
 import com.marakosgrill.auth.dto.*;
 import com.marakosgrill.auth.service.AuthService;
+import com.marakosgrill.auth.service.SessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -15,10 +18,42 @@ import jakarta.validation.Valid;
 public class AuthController {
     @Autowired
     private AuthService authService;
+    @Autowired
+    private SessionService sessionService;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthLoginResponse> login(@Valid @RequestBody AuthLoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthLoginResponse> login(@Valid @RequestBody AuthLoginRequest request,
+                                                   HttpServletRequest httpRequest) {
+        // Antes de tocar la base o BCrypt
+        loginRateLimiter.acquire(request.getEmail(), httpRequest.getRemoteAddr());
+        AuthLoginResponse response = authService.login(request);
+        loginRateLimiter.onSuccess(request.getEmail());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthTokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(sessionService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        sessionService.logout(request.getRefreshToken());
+        return ResponseEntity.ok().build();
+    }
+
+    // Los demás servicios lo descargan periódicamente para rechazar tokens de sesiones revocadas
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationListResponse> getRevocationList() {
+        return ResponseEntity.ok(sessionService.getRevocationList());
+    }
+
+    // Confirmación exacta de un positivo del filtro
+    @GetMapping("/revocations/{sessionId}")
+    public ResponseEntity<Boolean> isRevoked(@PathVariable String sessionId) {
+        return ResponseEntity.ok(sessionService.isRevoked(sessionId));
     }
 
     @PostMapping("/register")
@@ -7,6 +7,8 @@ import lombok.Setter;
 @Setter
 public class AuthLoginResponse {
     private String token;
+    private String refreshToken;
+    private Long expiresIn; // Segundos de vida del token de acceso
     private Integer idUsuario;
     private String tipoUsuario;
     private Integer idPersona;
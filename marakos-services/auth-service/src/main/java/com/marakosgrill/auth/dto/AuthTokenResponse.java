@@ -0,0 +1,12 @@
+package com.marakosgrill.auth.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AuthTokenResponse {
+    private String token;
+    private String refreshToken;
+    private Long expiresIn; // Segundos de vida del token de acceso
+}
@@ -0,0 +1,12 @@
+package com.marakosgrill.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshTokenRequest {
+    @NotBlank
+    private String refreshToken;
+}
@@ -0,0 +1,16 @@
+package com.marakosgrill.auth.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Filtro bloom con los sid de las sesiones revocadas cuyos tokens de acceso aún no vencen
+@Getter
+@Setter
+public class RevocationListResponse {
+    private String bits; // long[] en Base64 (big-endian)
+    private Integer hashFunctions;
+    private Integer count;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,33 @@
+package com.marakosgrill.auth.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sesion_usuario")
+@Getter
+@Setter
+public class UserSession {
+    @Id
+    @Column(name = "id_sesion", length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario", nullable = false)
+    private User user;
+
+    @Column(name = "id_token_refresco", nullable = false, length = 36)
+    private String refreshTokenId;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "fecha_revocacion")
+    private LocalDateTime revokedAt;
+}
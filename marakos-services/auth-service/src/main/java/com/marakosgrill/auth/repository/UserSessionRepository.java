@@ -0,0 +1,37 @@
+package com.marakosgrill.auth.repository;
+
+import com.marakosgrill.auth.model.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+    boolean existsByIdAndRevokedAtIsNotNull(String id);
+
+    // Rotación atómica: solo gana quien presenta el token de refresco vigente
+    @Modifying
+    @Query("UPDATE UserSession s SET s.refreshTokenId = :nextTokenId, s.expiresAt = :expiresAt " +
+           "WHERE s.id = :id AND s.refreshTokenId = :currentTokenId AND s.revokedAt IS NULL")
+    int rotate(@Param("id") String id,
+               @Param("currentTokenId") String currentTokenId,
+               @Param("nextTokenId") String nextTokenId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.revokedAt = :now WHERE s.id = :id AND s.revokedAt IS NULL")
+    int revoke(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserSession s SET s.revokedAt = :now " +
+           "WHERE s.user.id = :userId AND s.revokedAt IS NULL AND s.expiresAt > :now")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.id FROM UserSession s WHERE s.revokedAt > :since")
+    List<String> findIdsRevokedSince(@Param("since") LocalDateTime since);
+}
@@ -1,7 +1,14 @@
 package com.marakosgrill.auth.service;
 
 import com.marakosgrill.auth.model.User;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
 
 public interface JwtService {
-    String generateToken(User user);
+    String generateAccessToken(User user, String sessionId);
+    String generateRefreshToken(User user, String sessionId, String refreshTokenId, Date expiresAt);
+    Claims parseRefreshToken(String token);
+    long getAccessTtlSeconds();
+    long getRefreshTtlSeconds();
 }
@@ -0,0 +1,14 @@
+package com.marakosgrill.auth.service;
+
+import com.marakosgrill.auth.dto.AuthTokenResponse;
+import com.marakosgrill.auth.dto.RevocationListResponse;
+import com.marakosgrill.auth.model.User;
+
+public interface SessionService {
+    AuthTokenResponse startSession(User user);
+    AuthTokenResponse refresh(String refreshToken);
+    void logout(String refreshToken);
+    void revokeAllForUser(Long userId);
+    RevocationListResponse getRevocationList();
+    boolean isRevoked(String sessionId);
+}
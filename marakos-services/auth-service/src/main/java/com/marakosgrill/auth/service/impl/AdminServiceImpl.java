@@ -4,6 +4,7 @@ import com.marakosgrill.auth.dto.*;
 import com.marakosgrill.auth.model.*;
 import com.marakosgrill.auth.repository.*;
 import com.marakosgrill.auth.service.AdminService;
+import com.marakosgrill.auth.service.SessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +39,9 @@ public class AdminServiceImpl implements AdminService {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private SessionService sessionService;
 
     @Override
     public List<UserTypeResponse> getAllUserTypes() {
@@ -56,12 +60,18 @@ public class AdminServiceImpl implements AdminService {
     @Override
     @Transactional
     public CreateUserResponse createUser(CreateUserRequest request) {
-        try {
-            // Validate email doesn't exist
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                throw new RuntimeException("El correo electrónico ya está registrado");
-            }
+        // Validate email doesn't exist: consulta barata antes de ocupar el pool de BCrypt
+        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+            throw new RuntimeException("Error creating user: El correo electrónico ya está registrado");
+        }
 
+        // Asignar contraseña por defecto si no se proporciona desde el frontend.
+        // El hash va antes del try para que un 503 por cola de hashing llena no termine envuelto como error genérico
+        String password = (request.getPassword() != null && !request.getPassword().trim().isEmpty()) 
+            ? request.getPassword() 
+            : "user123";
+        String passwordHash = passwordEncoder.encode(password);
+        try {
             // Get user type
             UserType userType = userTypeRepository.findById(request.getUserTypeId())
                     .orElseThrow(() -> new RuntimeException("Tipo de usuario no encontrado"));
@@ -70,12 +80,7 @@ public class AdminServiceImpl implements AdminService {
             User user = new User();
             user.setUserType(userType);
             user.setEmail(request.getEmail());
-            
-            // Asignar contraseña por defecto si no se proporciona desde el frontend
-            String password = (request.getPassword() != null && !request.getPassword().trim().isEmpty()) 
-                ? request.getPassword() 
-                : "user123";
-            user.setPassword(passwordEncoder.encode(password));
+            user.setPassword(passwordHash);
             
             // Estado activo por defecto
             user.setStatus("ACTIVE");
@@ -318,6 +323,7 @@ public class AdminServiceImpl implements AdminService {
             user.setUpdatedBy(1L); // Temporal - usar ID del admin actual
             
             userRepository.save(user);
+            sessionService.revokeAllForUser(userId);
             
             System.out.println("Usuario eliminado lógicamente: " + userId);
         } catch (Exception e) {
@@ -11,7 +11,7 @@ import com.marakosgrill.auth.repository.UserRepository;
 import com.marakosgrill.auth.repository.UserTypeRepository;
 import com.marakosgrill.auth.service.AuthService;
 import com.marakosgrill.auth.service.EmailService;
-import com.marakosgrill.auth.service.JwtService;
+import com.marakosgrill.auth.service.SessionService;
 import com.marakosgrill.auth.exception.InvalidCredentialsException;
 import com.marakosgrill.auth.exception.EmailAlreadyExistsException;
 import jakarta.mail.MessagingException;
@@ -39,7 +39,7 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
-    private JwtService jwtService;
+    private SessionService sessionService;
     @Autowired
     private EmailService emailService;
 
@@ -54,9 +54,11 @@ public class AuthServiceImpl implements AuthService {
             throw new InvalidCredentialsException(INVALID_CREDENTIALS_PASSWORD_INCORRECT);
         }
 
-        String token = jwtService.generateToken(user);
+        AuthTokenResponse tokens = sessionService.startSession(user);
         AuthLoginResponse response = new AuthLoginResponse();
-        response.setToken(token);
+        response.setToken(tokens.getToken());
+        response.setRefreshToken(tokens.getRefreshToken());
+        response.setExpiresIn(tokens.getExpiresIn());
         response.setIdUsuario(user.getId().intValue());
         response.setTipoUsuario(user.getUserType().getName());
         response.setEmail(user.getEmail());
@@ -226,6 +228,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setVerificationCode(null);
         userRepository.save(user);
+        sessionService.revokeAllForUser(user.getId());
     }
 
     @Override
@@ -234,6 +237,7 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        sessionService.revokeAllForUser(user.getId());
     }
 
     private String loadWelcomeTemplate(String firstName, String lastName, String email) {
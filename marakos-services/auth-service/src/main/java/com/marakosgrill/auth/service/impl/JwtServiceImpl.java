@@ -1,28 +1,93 @@
 package com.marakosgrill.auth.service.impl;
 
+import com.marakosgrill.auth.exception.AuthException;
 import com.marakosgrill.auth.model.User;
 import com.marakosgrill.auth.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.marakosgrill.auth.util.constant.*;
 
 @Service
 public class JwtServiceImpl implements JwtService {
     private final SecretKey SECRET_KEY;
+    private final JwtParser parser;
+    private final long accessTtlSeconds;
+    private final long refreshTtlSeconds;
 
-    public JwtServiceImpl(@Value("${jwt.secret}") String secret) {
+    public JwtServiceImpl(@Value("${jwt.secret}") String secret,
+                          @Value("${jwt.access-ttl-seconds:900}") long accessTtlSeconds,
+                          @Value("${jwt.refresh-ttl-seconds:1209600}") long refreshTtlSeconds) {
         this.SECRET_KEY = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
+        this.accessTtlSeconds = accessTtlSeconds;
+        this.refreshTtlSeconds = refreshTtlSeconds;
+    }
+
+    @Override
+    public String generateAccessToken(User user, String sessionId) {
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
+                .claim("userId", user.getId())
+                .claim(CLAIM_SESSION_ID, sessionId)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTtlSeconds * 1000));
+        // Los demás servicios arman las authorities desde este claim, sin consultar la base
+        if (user.getUserType() != null && user.getUserType().getName() != null) {
+            builder.claim("roles", List.of(user.getUserType().getName()));
+        }
+        return builder.signWith(SECRET_KEY).compact();
     }
 
     @Override
-    public String generateToken(User user) {
+    public String generateRefreshToken(User user, String sessionId, String refreshTokenId, Date expiresAt) {
         return Jwts.builder()
+                .setId(refreshTokenId)
                 .setSubject(user.getEmail())
                 .claim("userId", user.getId())
+                .claim(CLAIM_SESSION_ID, sessionId)
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .setIssuedAt(new Date())
+                .setExpiration(expiresAt)
                 .signWith(SECRET_KEY)
                 .compact();
     }
+
+    @Override
+    public Claims parseRefreshToken(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthException(INVALID_REFRESH_TOKEN);
+        }
+        if (!TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE))
+                || claims.getId() == null || claims.get(CLAIM_SESSION_ID) == null) {
+            throw new AuthException(INVALID_REFRESH_TOKEN);
+        }
+        return claims;
+    }
+
+    @Override
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    @Override
+    public long getRefreshTtlSeconds() {
+        return refreshTtlSeconds;
+    }
 }
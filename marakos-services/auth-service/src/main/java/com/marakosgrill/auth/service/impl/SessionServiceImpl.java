@@ -0,0 +1,145 @@
+package com.marakosgrill.auth.service.impl;
+
+import com.marakosgrill.auth.dto.AuthTokenResponse;
+import com.marakosgrill.auth.dto.RevocationListResponse;
+import com.marakosgrill.auth.exception.AuthException;
+import com.marakosgrill.auth.model.User;
+import com.marakosgrill.auth.model.UserSession;
+import com.marakosgrill.auth.repository.UserSessionRepository;
+import com.marakosgrill.auth.service.JwtService;
+import com.marakosgrill.auth.service.SessionService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.marakosgrill.auth.util.constant.*;
+
+@Slf4j
+@Service
+public class SessionServiceImpl implements SessionService {
+    // Con la confirmación exacta de los positivos, 0.1% solo cuesta una consulta extra de vez en cuando
+    private static final double REVOCATION_FALSE_POSITIVE_RATE = 0.001;
+
+    @Autowired
+    private UserSessionRepository sessionRepository;
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.revocation.snapshot-ttl-ms:5000}")
+    private long snapshotTtlMillis;
+
+    // Filtro ya serializado; se rearma al vencer o cuando este nodo revoca una sesión
+    private volatile RevocationSnapshot snapshot;
+
+    @Override
+    @Transactional
+    public AuthTokenResponse startSession(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        UserSession session = new UserSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUser(user);
+        session.setRefreshTokenId(UUID.randomUUID().toString());
+        session.setCreatedAt(now);
+        session.setExpiresAt(now.plusSeconds(jwtService.getRefreshTtlSeconds()));
+        sessionRepository.save(session);
+        return tokens(user, session.getId(), session.getRefreshTokenId(), session.getExpiresAt());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = AuthException.class)
+    public AuthTokenResponse refresh(String refreshToken) {
+        Claims claims = jwtService.parseRefreshToken(refreshToken);
+        String sessionId = claims.get(CLAIM_SESSION_ID, String.class);
+        UserSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new AuthException(INVALID_REFRESH_TOKEN));
+        LocalDateTime now = LocalDateTime.now();
+        User user = session.getUser();
+        if (session.getRevokedAt() != null || !session.getExpiresAt().isAfter(now)
+                || !Boolean.TRUE.equals(user.getActive())) {
+            throw new AuthException(INVALID_REFRESH_TOKEN);
+        }
+        if (!session.getRefreshTokenId().equals(claims.getId())) {
+            // Reuso de un token ya rotado: alguien más lo tiene, se corta la sesión completa
+            log.warn("⚠️ Token de refresco reutilizado en la sesión {}; se revoca", sessionId);
+            revoke(sessionId, now);
+            throw new AuthException(INVALID_REFRESH_TOKEN);
+        }
+        String nextTokenId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = now.plusSeconds(jwtService.getRefreshTtlSeconds());
+        if (sessionRepository.rotate(sessionId, claims.getId(), nextTokenId, expiresAt) == 0) {
+            // Otra solicitud rotó el mismo token primero
+            throw new AuthException(INVALID_REFRESH_TOKEN);
+        }
+        return tokens(user, sessionId, nextTokenId, expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void logout(String refreshToken) {
+        Claims claims = jwtService.parseRefreshToken(refreshToken);
+        revoke(claims.get(CLAIM_SESSION_ID, String.class), LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        int revoked = sessionRepository.revokeAllForUser(userId, LocalDateTime.now());
+        if (revoked > 0) {
+            snapshot = null;
+            log.info("🔒 {} sesión(es) revocada(s) del usuario {}", revoked, userId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RevocationListResponse getRevocationList() {
+        RevocationSnapshot current = snapshot;
+        long nowMillis = System.currentTimeMillis();
+        if (current != null && nowMillis - current.builtAt() < snapshotTtlMillis) {
+            return current.response();
+        }
+        // Solo hace falta recordar una sesión revocada mientras sus tokens de acceso sigan vigentes
+        LocalDateTime now = LocalDateTime.now();
+        List<String> sessionIds = sessionRepository.findIdsRevokedSince(now.minusSeconds(jwtService.getAccessTtlSeconds()));
+        RevocationBloomFilter filter = RevocationBloomFilter.of(sessionIds, REVOCATION_FALSE_POSITIVE_RATE);
+
+        RevocationListResponse response = new RevocationListResponse();
+        response.setBits(filter.encode());
+        response.setHashFunctions(filter.hashFunctions());
+        response.setCount(sessionIds.size());
+        response.setGeneratedAt(now);
+        snapshot = new RevocationSnapshot(response, nowMillis);
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isRevoked(String sessionId) {
+        return sessionRepository.existsByIdAndRevokedAtIsNotNull(sessionId);
+    }
+
+    private void revoke(String sessionId, LocalDateTime now) {
+        if (sessionRepository.revoke(sessionId, now) > 0) {
+            snapshot = null;
+        }
+    }
+
+    private AuthTokenResponse tokens(User user, String sessionId, String refreshTokenId, LocalDateTime expiresAt) {
+        AuthTokenResponse response = new AuthTokenResponse();
+        response.setToken(jwtService.generateAccessToken(user, sessionId));
+        response.setRefreshToken(jwtService.generateRefreshToken(user, sessionId, refreshTokenId, Timestamp.valueOf(expiresAt)));
+        response.setExpiresIn(jwtService.getAccessTtlSeconds());
+        return response;
+    }
+
+    private record RevocationSnapshot(RevocationListResponse response, long builtAt) {
+    }
+}
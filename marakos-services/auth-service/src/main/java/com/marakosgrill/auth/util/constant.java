@@ -6,6 +6,9 @@ public class constant {
     public static final String INVALID_CREDENTIALS_PASSWORD_INCORRECT = "Contraseña incorrecta";
     public static final String EMAIL_ALREADY_EXISTS = "Correo electrónico ya registrado";
     public static final String INVALID_VERIFICATION_CODE = "Código de verificación inválido";
+    public static final String TOO_MANY_LOGIN_ATTEMPTS = "Demasiados intentos de inicio de sesión, intente más tarde";
+    public static final String PASSWORD_HASHING_BUSY = "Servicio ocupado, intente nuevamente en unos segundos";
+    public static final String INVALID_REFRESH_TOKEN = "Token de refresco inválido o vencido";
     public static final String EMAIL_TEMPLATE_LOAD_ERROR = "No se pudo cargar la plantilla de correo";
     public static final String PASSWORD_RESET_SUBJECT = "Restablecimiento de contraseña - Marakos Grill";
     public static final String WELCOME_EMAIL_SUBJECT = "¡Bienvenido a " + COMPANY_NAME + "!";
@@ -15,6 +18,9 @@ public class constant {
     public static final Integer DEFAULT_USER_TYPE_ID = 1;
     public static final String USER_TYPE_NOT_FOUND = "Tipo de usuario no encontrado";
     public static final String DEFAULT_STATUS_ACTIVE = "ACTIVO";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+    public static final String CLAIM_SESSION_ID = "sid";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
     public static final Long DEFAULT_CREATED_BY_USER_ID = 1L; // ID del usuario de creación, por defecto 1 (admin)
 
     //add more constants as needed. Tipo de usuario (0: Admin, 1: Empleado, 3: Cliente)
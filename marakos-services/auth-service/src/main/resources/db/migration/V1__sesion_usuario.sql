@@ -0,0 +1,25 @@
+-- Migración para los tokens de refresco de auth-service
+-- Cada login abre una sesión; el token de refresco rota en cada uso y solo el último (id_token_refresco) es válido
+
+CREATE TABLE IF NOT EXISTS sesion_usuario (
+    id_sesion VARCHAR(36) PRIMARY KEY,
+    id_usuario BIGINT NOT NULL REFERENCES usuario (id_usuario),
+    id_token_refresco VARCHAR(36) NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    fecha_expiracion TIMESTAMP NOT NULL,
+    fecha_revocacion TIMESTAMP
+);
+
+COMMENT ON COLUMN sesion_usuario.id_sesion IS 'Claim sid de los tokens de acceso; los servicios lo buscan en el filtro bloom de revocados';
+COMMENT ON COLUMN sesion_usuario.fecha_revocacion IS 'Logout, cambio de contraseña, baja del usuario o reuso de un token de refresco ya rotado';
+
+CREATE INDEX IF NOT EXISTS ix_sesion_usuario_usuario
+ON sesion_usuario (id_usuario)
+WHERE fecha_revocacion IS NULL;
+
+-- Sesiones revocadas cuyos tokens de acceso aún pueden estar vigentes (las que entran al filtro)
+CREATE INDEX IF NOT EXISTS ix_sesion_usuario_revocacion
+ON sesion_usuario (fecha_revocacion)
+WHERE fecha_revocacion IS NOT NULL;
+
+COMMIT;
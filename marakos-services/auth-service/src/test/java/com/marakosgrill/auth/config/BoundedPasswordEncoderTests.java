@@ -0,0 +1,81 @@
+package com.marakosgrill.auth.config;
+
+import com.marakosgrill.auth.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+	@Test
+	void hashesOnTheDedicatedPool() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 8, registry);
+
+		String hash = encoder.encode("secreto123");
+
+		assertTrue(encoder.matches("secreto123", hash));
+		assertFalse(encoder.matches("otraClave", hash));
+		assertEquals(2, registry.get("auth.password.hash.duration").tag("operation", "matches").timer().count());
+		encoder.destroy();
+	}
+
+	@Test
+	void shedsLoadWhenTheQueueIsFull() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new SlowEncoder(started, release), 1, 1, registry);
+
+		// Uno ocupa el único hilo y otro la única posición de la cola
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+		waitForQueueDepth(registry, 1);
+
+		ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+		assertTrue(busy.getRetryAfterSeconds() >= 1);
+		assertEquals(1, registry.get("auth.password.rejected").counter().count());
+
+		release.countDown();
+		assertEquals("hash-a", running.get(5, TimeUnit.SECONDS));
+		assertEquals("hash-b", queued.get(5, TimeUnit.SECONDS));
+		encoder.destroy();
+	}
+
+	private static void waitForQueueDepth(SimpleMeterRegistry registry, int depth) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (registry.get("auth.password.queue.depth").gauge().value() < depth) {
+			assertTrue(System.currentTimeMillis() < deadline, "La solicitud nunca llegó a la cola");
+			Thread.sleep(5);
+		}
+	}
+
+	private record SlowEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "hash-" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
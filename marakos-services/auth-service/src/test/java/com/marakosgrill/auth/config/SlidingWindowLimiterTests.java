@@ -0,0 +1,112 @@
+package com.marakosgrill.auth.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowLimiterTests {
+	private static final long MINUTE = 60_000;
+
+	@Test
+	void locksTheKeyAfterTooManyAttemptsAndReleasesItLater() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(3, MINUTE, 5 * MINUTE, 1000);
+
+		for (int i = 0; i < 3; i++) assertEquals(0, limiter.acquire("cliente@marakos.pe", 1_000));
+		assertEquals(5 * MINUTE, limiter.acquire("cliente@marakos.pe", 2_000));
+		// Otra clave no se ve afectada
+		assertEquals(0, limiter.acquire("otro@marakos.pe", 2_000));
+
+		assertEquals(5 * MINUTE - 1_000, limiter.acquire("cliente@marakos.pe", 3_000));
+		assertEquals(0, limiter.acquire("cliente@marakos.pe", 2_000 + 5 * MINUTE));
+	}
+
+	@Test
+	void oldAttemptsSlideOutOfTheWindow() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(3, MINUTE, MINUTE, 1000);
+
+		limiter.acquire("ip", 0);
+		limiter.acquire("ip", 0);
+		limiter.acquire("ip", 30_000);
+		// A los 61 s los dos primeros ya salieron de la ventana
+		assertEquals(0, limiter.acquire("ip", 61_000));
+		assertEquals(0, limiter.acquire("ip", 61_000));
+		assertTrue(limiter.acquire("ip", 61_000) > 0);
+	}
+
+	@Test
+	void successfulLoginClearsTheKey() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(2, MINUTE, MINUTE, 1000);
+
+		limiter.acquire("cliente@marakos.pe", 0);
+		limiter.acquire("cliente@marakos.pe", 0);
+		limiter.reset("cliente@marakos.pe");
+
+		assertEquals(0, limiter.acquire("cliente@marakos.pe", 0));
+		assertEquals(0, limiter.acquire("cliente@marakos.pe", 0));
+	}
+
+	@Test
+	void staysBoundedUnderARandomEmailSpray() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(5, MINUTE, MINUTE, 1000);
+
+		for (int i = 0; i < 50_000; i++) limiter.acquire(UUID.randomUUID() + "@spam.pe", 0);
+		assertEquals(1000, limiter.size());
+		assertEquals(49_000, limiter.untracked());
+
+		// Las claves inactivas salen
+		assertEquals(1000, limiter.evictIdle(MINUTE));
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void aFullTableNeverLocksOutKeysThatDoNotFit() {
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(3, MINUTE, MINUTE, 2);
+		limiter.acquire("spam-1@spam.pe", 0);
+		limiter.acquire("spam-2@spam.pe", 0);
+
+		// Sin ventanas vencidas la clave nueva no se cuenta ni comparte ventana: nunca se bloquea
+		for (int i = 0; i < 10; i++) assertEquals(0, limiter.acquire("cliente@marakos.pe", 1_000));
+		assertEquals(10, limiter.untracked());
+		assertEquals(2, limiter.size());
+
+		// Vencida la ventana, la siguiente clave nueva desaloja a las inactivas y recibe la suya
+		for (int i = 0; i < 3; i++) assertEquals(0, limiter.acquire("cliente@marakos.pe", MINUTE + 1_000));
+		assertTrue(limiter.acquire("cliente@marakos.pe", MINUTE + 1_000) > 0);
+		assertEquals(1, limiter.size());
+		assertEquals(10, limiter.untracked());
+	}
+
+	@Test
+	void countsEveryConcurrentAttemptWithoutLocks() throws Exception {
+		int threads = 8;
+		int attemptsPerThread = 5_000;
+		SlidingWindowLimiter limiter = new SlidingWindowLimiter(threads * attemptsPerThread, MINUTE, MINUTE, 1000);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger rejected = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < attemptsPerThread; i++) {
+					if (limiter.acquire("10.0.0.1", 0) > 0) rejected.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+		// Exactamente el máximo pasó; el siguiente bloquea
+		assertEquals(0, rejected.get());
+		assertTrue(limiter.acquire("10.0.0.1", 0) > 0);
+	}
+}
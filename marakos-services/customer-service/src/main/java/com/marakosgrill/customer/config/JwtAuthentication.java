@@ -0,0 +1,56 @@
+package com.marakosgrill.customer.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+// Authentication del filtro JWT: envuelve el principal ya armado en el caché, así cada
+// solicitud solo crea este objeto (sin UserDetailsService ni copias de authorities)
+public final class JwtAuthentication implements Authentication {
+    private final JwtPrincipal principal;
+    private boolean authenticated = true;
+
+    JwtAuthentication(JwtPrincipal principal) {
+        this.principal = principal;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.authorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public JwtPrincipal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    // Solo se puede invalidar: la autenticación la da la firma del token
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated && !authenticated) {
+            throw new IllegalArgumentException("A JWT authentication cannot be re-authenticated");
+        }
+        authenticated = isAuthenticated;
+    }
+
+    @Override
+    public String getName() {
+        return principal.username();
+    }
+}
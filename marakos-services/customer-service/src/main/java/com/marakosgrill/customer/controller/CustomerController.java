@@ -1,5 +1,6 @@
 package com.marakosgrill.customer.controller;
 
+import com.marakosgrill.customer.config.JwtPrincipal;
 import com.marakosgrill.customer.dto.CustomerRequest;
 import com.marakosgrill.customer.dto.CustomerResponse;
 import com.marakosgrill.customer.service.CustomerService;
@@ -7,6 +8,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -34,13 +36,17 @@ public class CustomerController {
     }
 
     @PostMapping
-    public ResponseEntity<CustomerResponse> createCustomer(@Valid @RequestBody CustomerRequest request) {
+    public ResponseEntity<CustomerResponse> createCustomer(@Valid @RequestBody CustomerRequest request,
+                                                           @AuthenticationPrincipal JwtPrincipal principal) {
+        request.setCreatedByUserId(JwtPrincipal.auditUserId(principal, request.getCreatedByUserId()));
         CustomerResponse created = customerService.createCustomer(request);
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerRequest request) {
+    public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerRequest request,
+                                                           @AuthenticationPrincipal JwtPrincipal principal) {
+        request.setCreatedByUserId(JwtPrincipal.auditUserId(principal, request.getCreatedByUserId()));
         CustomerResponse updated = customerService.updateCustomer(id, request);
         return ResponseEntity.ok(updated);
     }
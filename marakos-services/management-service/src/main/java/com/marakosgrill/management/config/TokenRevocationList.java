@@ -0,0 +1,78 @@
+package com.marakosgrill.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sesiones revocadas en auth-service (logout, cambio de contraseña, baja del usuario).
+// En cada solicitud solo se prueba el filtro bloom en memoria; los positivos (revocados de verdad
+// o falsos positivos) se confirman una vez con auth-service y la respuesta se recuerda mientras el filtro no cambie.
+@Slf4j
+@Component
+public class TokenRevocationList {
+    private final RestTemplate restTemplate;
+    private final String authServiceUrl;
+    private volatile Snapshot snapshot = new Snapshot(null, null, new ConcurrentHashMap<>());
+
+    public TokenRevocationList(@Value("${auth.service.url:http://localhost:8080}") String authServiceUrl) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(2000);
+        factory.setReadTimeout(3000);
+        this.restTemplate = new RestTemplate(factory);
+        this.authServiceUrl = authServiceUrl;
+    }
+
+    public boolean isRevoked(String sessionId) {
+        Snapshot current = snapshot;
+        if (sessionId == null || current.filter() == null || !current.filter().mightContain(sessionId)) {
+            return false;
+        }
+        Boolean revoked = current.confirmed().get(sessionId);
+        if (revoked == null) {
+            revoked = confirm(sessionId);
+            if (revoked == null) {
+                // Sin respuesta de auth-service: ante la duda, el token no pasa
+                return true;
+            }
+            current.confirmed().put(sessionId, revoked);
+        }
+        return revoked;
+    }
+
+    // Si auth-service no responde se sigue con el último filtro; los tokens de acceso vencen solos a los pocos minutos
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            RevocationList list = restTemplate.getForObject(authServiceUrl + "/api/auth/revocations", RevocationList.class);
+            if (list == null || list.bits() == null || list.hashFunctions() == null) return;
+            if (list.bits().equals(snapshot.bits())) return;
+            snapshot = new Snapshot(RevocationBloomFilter.decode(list.bits(), list.hashFunctions()), list.bits(),
+                    new ConcurrentHashMap<>());
+            log.info("🔒 Filtro de sesiones revocadas actualizado: {} sesión(es)", list.count());
+        } catch (RestClientException | IllegalArgumentException e) {
+            log.warn("⚠️ No se pudo actualizar el filtro de sesiones revocadas: {}", e.getMessage());
+        }
+    }
+
+    private Boolean confirm(String sessionId) {
+        try {
+            return restTemplate.getForObject(authServiceUrl + "/api/auth/revocations/{sessionId}", Boolean.class, sessionId);
+        } catch (RestClientException e) {
+            log.warn("⚠️ No se pudo confirmar la revocación de la sesión {}: {}", sessionId, e.getMessage());
+            return null;
+        }
+    }
+
+    record RevocationList(String bits, Integer hashFunctions, Integer count) {
+    }
+
+    private record Snapshot(RevocationBloomFilter filter, String bits, Map<String, Boolean> confirmed) {
+    }
+}
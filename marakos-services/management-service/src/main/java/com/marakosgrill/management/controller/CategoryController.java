@@ -1,9 +1,11 @@
 package com.marakosgrill.management.controller;
 
+import com.marakosgrill.management.config.JwtPrincipal;
 import com.marakosgrill.management.dto.CategoryDTO;
 import com.marakosgrill.management.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,12 +31,16 @@ public class CategoryController {
     }
 
     @PostMapping
-    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto) {
+    public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setCreatedBy(JwtPrincipal.auditUserId(principal, dto.getCreatedBy()));
         return ResponseEntity.ok(categoryService.create(dto));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<CategoryDTO> update(@PathVariable Integer id, @Valid @RequestBody CategoryDTO dto) {
+    public ResponseEntity<CategoryDTO> update(@PathVariable Integer id, @Valid @RequestBody CategoryDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setUpdatedBy(JwtPrincipal.auditUserId(principal, dto.getUpdatedBy()));
         return ResponseEntity.ok(categoryService.update(id, dto));
     }
 
@@ -1,10 +1,12 @@
 package com.marakosgrill.management.controller;
 
+import com.marakosgrill.management.config.JwtPrincipal;
 import com.marakosgrill.management.dto.ProductDTO;
 import com.marakosgrill.management.dto.ProductPublicDTO;
 import com.marakosgrill.management.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
@@ -30,12 +32,16 @@ public class ProductController {
     }
 
     @PostMapping
-    public ResponseEntity<ProductDTO> create(@Valid @RequestBody ProductDTO dto) {
+    public ResponseEntity<ProductDTO> create(@Valid @RequestBody ProductDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setCreatedBy(JwtPrincipal.auditUserId(principal, dto.getCreatedBy()));
         return ResponseEntity.ok(productService.create(dto));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<ProductDTO> update(@PathVariable Integer id, @Valid @RequestBody ProductDTO dto) {
+    public ResponseEntity<ProductDTO> update(@PathVariable Integer id, @Valid @RequestBody ProductDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setUpdatedBy(JwtPrincipal.auditUserId(principal, dto.getUpdatedBy()));
         return ResponseEntity.ok(productService.update(id, dto));
     }
 
@@ -1,9 +1,11 @@
 package com.marakosgrill.management.controller;
 
+import com.marakosgrill.management.config.JwtPrincipal;
 import com.marakosgrill.management.dto.ServiceDTO;
 import com.marakosgrill.management.service.ServiceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
@@ -28,12 +30,16 @@ public class ServiceController {
     }
 
     @PostMapping
-    public ResponseEntity<ServiceDTO> create(@Valid @RequestBody ServiceDTO dto) {
+    public ResponseEntity<ServiceDTO> create(@Valid @RequestBody ServiceDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setCreatedBy(JwtPrincipal.auditUserId(principal, dto.getCreatedBy()));
         return ResponseEntity.ok(serviceService.create(dto));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<ServiceDTO> update(@PathVariable Integer id, @Valid @RequestBody ServiceDTO dto) {
+    public ResponseEntity<ServiceDTO> update(@PathVariable Integer id, @Valid @RequestBody ServiceDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setUpdatedBy(JwtPrincipal.auditUserId(principal, dto.getUpdatedBy()));
         return ResponseEntity.ok(serviceService.update(id, dto));
     }
 
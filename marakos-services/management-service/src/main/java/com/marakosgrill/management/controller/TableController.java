@@ -1,9 +1,11 @@
 package com.marakosgrill.management.controller;
 
+import com.marakosgrill.management.config.JwtPrincipal;
 import com.marakosgrill.management.dto.TableDTO;
 import com.marakosgrill.management.service.TableService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,12 +31,16 @@ public class TableController {
     }
 
     @PostMapping
-    public ResponseEntity<TableDTO> create(@Valid @RequestBody TableDTO dto) {
+    public ResponseEntity<TableDTO> create(@Valid @RequestBody TableDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setCreatedBy(JwtPrincipal.auditUserId(principal, dto.getCreatedBy()));
         return ResponseEntity.ok(tableService.create(dto));
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<TableDTO> update(@PathVariable Integer id, @Valid @RequestBody TableDTO dto) {
+    public ResponseEntity<TableDTO> update(@PathVariable Integer id, @Valid @RequestBody TableDTO dto,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        dto.setUpdatedBy(JwtPrincipal.auditUserId(principal, dto.getUpdatedBy()));
         return ResponseEntity.ok(tableService.update(id, dto));
     }
 
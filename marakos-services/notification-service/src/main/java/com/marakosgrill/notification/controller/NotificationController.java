@@ -1,5 +1,6 @@
 package com.marakosgrill.notification.controller;
 
+import com.marakosgrill.notification.service.IdempotencyRegistry;
 import com.marakosgrill.notification.service.NotificationService;
 import com.marakosgrill.notification.service.ReservationNotificationData;
 import lombok.RequiredArgsConstructor;
@@ -13,13 +14,21 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class NotificationController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final NotificationService notificationService;
+    private final IdempotencyRegistry idempotencyRegistry;
 
     /**
      * Endpoint para enviar notificación de reserva confirmada
      */
     @PostMapping("/reservation/confirmed")
-    public ResponseEntity<?> sendReservationConfirmation(@RequestBody ReservationNotificationData data) {
+    public ResponseEntity<?> sendReservationConfirmation(@RequestBody ReservationNotificationData data,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (!idempotencyRegistry.tryStart(idempotencyKey)) {
+            return duplicateResponse(idempotencyKey, data);
+        }
+        boolean sent = false;
         try {
             log.info("╔═══════════════════════════════════════════════════════════════════╗");
             log.info("║  🔔 PETICIÓN RECIBIDA EN NOTIFICATION CONTROLLER                ║");
@@ -35,7 +44,7 @@ public class NotificationController {
             log.info("   • Comensales: {}", data.getGuestCount());
             log.info("Enviando notificación de reserva confirmada para: {}", data.getCustomerName());
             
-            boolean sent = notificationService.sendReservationConfirmation(data);
+            sent = notificationService.sendReservationConfirmation(data);
             
             if (sent) {
                 log.info("✅ Notificación enviada exitosamente para reserva: {}", data.getReservationCode());
@@ -61,6 +70,7 @@ public class NotificationController {
                 data.getReservationCode()
             ));
         } finally {
+            idempotencyRegistry.finish(idempotencyKey, sent);
             log.info("=== FIN NotificationController.sendReservationConfirmation ===");
         }
     }
@@ -103,11 +113,16 @@ public class NotificationController {
      * Endpoint para enviar notificación de cancelación
      */
     @PostMapping("/reservation/cancelled")
-    public ResponseEntity<?> sendCancellationNotification(@RequestBody ReservationNotificationData data) {
+    public ResponseEntity<?> sendCancellationNotification(@RequestBody ReservationNotificationData data,
+                                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (!idempotencyRegistry.tryStart(idempotencyKey)) {
+            return duplicateResponse(idempotencyKey, data);
+        }
+        boolean sent = false;
         try {
             log.info("Enviando notificación de cancelación para: {}", data.getCustomerName());
             
-            boolean sent = notificationService.sendCancellationNotification(data);
+            sent = notificationService.sendCancellationNotification(data);
             
             if (sent) {
                 return ResponseEntity.ok().body(new NotificationResponse(
@@ -130,7 +145,30 @@ public class NotificationController {
                 "Error interno del servidor: " + e.getMessage(), 
                 data.getReservationCode()
             ));
+        } finally {
+            idempotencyRegistry.finish(idempotencyKey, sent);
+        }
+    }
+
+    /**
+     * Respuesta para un reintento cuya clave de idempotencia ya se entregó (200, sin reenviar)
+     * o sigue en curso en otra petición (409, el outbox lo reintentará más tarde)
+     */
+    private ResponseEntity<?> duplicateResponse(String idempotencyKey, ReservationNotificationData data) {
+        if (idempotencyRegistry.isDelivered(idempotencyKey)) {
+            log.info("♻️ Notificación {} ya enviada, se omite el reenvío para reserva: {}", idempotencyKey, data.getReservationCode());
+            return ResponseEntity.ok().body(new NotificationResponse(
+                true, 
+                "Notificación ya enviada anteriormente", 
+                data.getReservationCode()
+            ));
         }
+        log.warn("⏳ Notificación {} en curso, se rechaza el duplicado para reserva: {}", idempotencyKey, data.getReservationCode());
+        return ResponseEntity.status(409).body(new NotificationResponse(
+            false, 
+            "Notificación en curso", 
+            data.getReservationCode()
+        ));
     }
 
     /**
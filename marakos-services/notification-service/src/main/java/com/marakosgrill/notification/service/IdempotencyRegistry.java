@@ -0,0 +1,52 @@
+package com.marakosgrill.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recuerda las últimas claves de idempotencia (id de la fila del outbox de reservation-service)
+ * para no reenviar WhatsApp/Email cuando el despachador reintenta un envío que sí llegó.
+ * Vive en memoria y con tamaño acotado: tras un reinicio, o con varias instancias, la entrega
+ * sigue siendo "al menos una vez".
+ */
+@Component
+public class IdempotencyRegistry {
+    private enum State { IN_PROGRESS, DELIVERED }
+
+    private final Map<String, State> keys;
+
+    public IdempotencyRegistry(@Value("${notification.idempotency.max-keys:10000}") int maxKeys) {
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, State> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Marca la clave como en curso. Devuelve false si ya se entregó o si otro envío con la misma
+     * clave sigue en curso; sin clave siempre se envía.
+     */
+    public synchronized boolean tryStart(String key) {
+        if (key == null || key.isBlank()) return true;
+        return keys.putIfAbsent(key, State.IN_PROGRESS) == null;
+    }
+
+    public synchronized boolean isDelivered(String key) {
+        return key != null && keys.get(key) == State.DELIVERED;
+    }
+
+    // Si el envío falló se olvida la clave para que el siguiente reintento vuelva a enviar
+    public synchronized void finish(String key, boolean delivered) {
+        if (key == null || key.isBlank()) return;
+        if (delivered) {
+            keys.put(key, State.DELIVERED);
+        } else {
+            keys.remove(key);
+        }
+    }
+}
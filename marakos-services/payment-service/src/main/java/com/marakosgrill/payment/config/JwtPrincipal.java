@@ -0,0 +1,45 @@
+package com.marakosgrill.payment.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Usuario autenticado tomado de los claims del JWT (sub, userId, sid, roles), sin consultar a nadie.
+// Se arma una sola vez por token verificado y se reutiliza desde el caché de claims.
+public record JwtPrincipal(Claims claims, Long userId, String username, String sessionId,
+                           List<GrantedAuthority> authorities)
+        implements Principal {
+    private static final List<GrantedAuthority> DEFAULT_AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
+
+    static JwtPrincipal from(Claims claims) {
+        Object userId = claims.get("userId");
+        return new JwtPrincipal(claims, userId != null ? Long.valueOf(userId.toString()) : null,
+                claims.getSubject(), claims.get("sid", String.class), authorities(claims.get("roles")));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    // Usuario de auditoría: el del token; el del cuerpo solo cuenta en endpoints públicos (sin token)
+    public static Integer auditUserId(JwtPrincipal principal, Integer fromRequest) {
+        return principal != null && principal.userId() != null ? principal.userId().intValue() : fromRequest;
+    }
+
+    private static List<GrantedAuthority> authorities(Object roles) {
+        if (!(roles instanceof Collection<?> names) || names.isEmpty()) {
+            return DEFAULT_AUTHORITIES;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        for (Object name : names) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + name.toString().trim().toUpperCase()));
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -1,6 +1,8 @@
 package com.marakosgrill.payment.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,11 +14,20 @@ import javax.crypto.SecretKey;
 @Component
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    // Un solo parser (inmutable y thread-safe) para todas las solicitudes
+    private final JwtParser parser;
+    private final JwtClaimsCache claimsCache;
+    private final TokenRevocationList revocations;
 
-    public JwtTokenProvider(@Value("${jwt.secret:defaultSecretKeyForHS256}") String secret) {
+    public JwtTokenProvider(@Value("${jwt.secret:defaultSecretKeyForHS256}") String secret,
+                            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+                            @Value("${jwt.cache.ttl-seconds:300}") long cacheTtlSeconds,
+                            TokenRevocationList revocations) {
         // Usar la misma clave secreta que auth-service
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.claimsCache = new JwtClaimsCache(cacheMaxEntries, cacheTtlSeconds * 1000);
+        this.revocations = revocations;
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -27,24 +38,53 @@ public class JwtTokenProvider {
         return null;
     }
 
+    // Authentication para el SecurityContext; null si el token falta o no es válido
+    public JwtAuthentication authenticate(String token) {
+        JwtPrincipal principal = parsePrincipal(token);
+        return principal != null ? new JwtAuthentication(principal) : null;
+    }
+
+    // Claims del token, verificando la firma una sola vez por TTL en este nodo; null si no es válido
+    public Claims parseClaims(String token) {
+        JwtPrincipal principal = parsePrincipal(token);
+        return principal != null ? principal.claims() : null;
+    }
+
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parsePrincipal(token) != null;
     }
 
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
-        return claims.getSubject();
+        return verify(token).username();
     }
 
     public Long getUserId(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
-        Object userId = claims.get("userId");
-        return userId != null ? Long.valueOf(userId.toString()) : null;
+        return verify(token).userId();
     }
-}
 
+    // La revocación no se guarda en el caché: se prueba en cada solicitud contra el filtro bloom en memoria
+    private JwtPrincipal parsePrincipal(String token) {
+        if (token == null) return null;
+        try {
+            JwtPrincipal principal = verify(token);
+            return revocations.isRevoked(principal.sessionId()) ? null : principal;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private JwtPrincipal verify(String token) {
+        long now = System.currentTimeMillis();
+        JwtPrincipal principal = claimsCache.get(token, now);
+        if (principal == null) {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            // Solo tokens de acceso con vencimiento; el de refresco solo sirve en auth-service
+            if (claims.getExpiration() == null || "refresh".equals(claims.get("typ"))) {
+                throw new JwtException("Token sin vencimiento o de refresco");
+            }
+            principal = JwtPrincipal.from(claims);
+            claimsCache.put(token, principal, now);
+        }
+        return principal;
+    }
+}
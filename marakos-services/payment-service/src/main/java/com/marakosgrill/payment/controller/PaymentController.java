@@ -1,5 +1,6 @@
 package com.marakosgrill.payment.controller;
 
+import com.marakosgrill.payment.config.JwtPrincipal;
 import com.marakosgrill.payment.dto.PaymentRequest;
 import com.marakosgrill.payment.dto.PaymentResponse;
 import com.marakosgrill.payment.service.CulqiService;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -30,12 +32,16 @@ public class PaymentController {
     private CulqiService culqiService;
 
     @PostMapping("/send")
-    public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest request) {
+    public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest request,
+                                                          @AuthenticationPrincipal JwtPrincipal principal) {
+        request.setCreatedBy(JwtPrincipal.auditUserId(principal, request.getCreatedBy()));
         return ResponseEntity.ok(paymentService.processPayment(request));
     }
     
     @PostMapping("/culqi")
-    public Mono<ResponseEntity<PaymentResponse>> processPaymentWithCulqi(@Valid @RequestBody PaymentRequest paymentRequest) {
+    public Mono<ResponseEntity<PaymentResponse>> processPaymentWithCulqi(@Valid @RequestBody PaymentRequest paymentRequest,
+                                                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        paymentRequest.setCreatedBy(JwtPrincipal.auditUserId(principal, paymentRequest.getCreatedBy()));
         log.info("Received Culqi payment request for reservation: {}", paymentRequest.getReservationId());
         
         return culqiService.processPayment(paymentRequest)
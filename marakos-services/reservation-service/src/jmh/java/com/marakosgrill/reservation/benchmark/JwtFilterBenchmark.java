@@ -0,0 +1,65 @@
+package com.marakosgrill.reservation.benchmark;
+
+import com.marakosgrill.reservation.config.JwtTokenProvider;
+import com.marakosgrill.reservation.config.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Costo del filtro JWT por solicitud (solo la parte del token):
+// antes validateToken + getUsername, cada uno con un parser nuevo y verificación HMAC;
+// ahora un parser reutilizable y los claims verificados en caché.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+    private static final String SECRET = "miClaveSuperSecreta1234567890abcdefg123456";
+
+    private SecretKey secretKey;
+    private String token;
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        // Mismo formato que genera auth-service
+        token = Jwts.builder().setSubject("cliente@marakos.pe").claim("userId", 42)
+                .claim("sid", UUID.randomUUID().toString())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(secretKey).compact();
+        cachedProvider = new JwtTokenProvider(SECRET, 10_000, 300, new TokenRevocationList("http://localhost:0"));
+        uncachedProvider = new JwtTokenProvider(SECRET, 0, 300, new TokenRevocationList("http://localhost:0"));
+        cachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public String before() {
+        // JwtAuthenticationFilter anterior: dos parsers y dos verificaciones por solicitud
+        Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String reusedParserOnly() {
+        return uncachedProvider.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String after() {
+        return cachedProvider.parseClaims(token).getSubject();
+    }
+}
@@ -0,0 +1,117 @@
+package com.marakosgrill.reservation.benchmark;
+
+import com.marakosgrill.reservation.config.ReservationScheduleConfig;
+import com.marakosgrill.reservation.dto.ScheduleAvailabilityResponse;
+import com.marakosgrill.reservation.dto.TableAvailabilityResponse;
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.TableEntity;
+import com.marakosgrill.reservation.repository.ReservationTableRepository;
+import com.marakosgrill.reservation.service.impl.ReservationDuration;
+import com.marakosgrill.reservation.service.impl.ReservationSchedule;
+import com.marakosgrill.reservation.service.impl.TableOccupancyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Disponibilidad por horario con 100 mesas y 1000 reservas en el día:
+// recorrido anterior (anyMatch + LocalTime.parse por mesa) vs. bitset por hora.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleAvailabilityBenchmark {
+    private static final int TABLES = 100;
+    private static final int RESERVATIONS = 1000;
+    private static final LocalDate DATE = LocalDate.of(2099, 3, 14);
+    private static final String[][] SCHEDULES = {
+            {"08:00:00", "Mañana"}, {"09:00:00", "Mañana"}, {"10:00:00", "Mañana"}, {"11:00:00", "Mañana"}, {"12:00:00", "Mañana"},
+            {"13:00:00", "Tarde"}, {"14:00:00", "Tarde"}, {"15:00:00", "Tarde"}, {"16:00:00", "Tarde"}, {"17:00:00", "Tarde"}, {"18:00:00", "Tarde"},
+            {"19:00:00", "Noche"}, {"20:00:00", "Noche"}, {"21:00:00", "Noche"}, {"22:00:00", "Noche"}, {"23:00:00", "Noche"}
+    };
+
+    private List<TableEntity> activeTables;
+    private List<ReservationTable> reservationTables;
+    private ReservationSchedule schedule;
+    private TableOccupancyIndex index;
+    private List<LocalTime> slotTimes;
+
+    @Setup
+    public void setUp() {
+        activeTables = new ArrayList<>();
+        for (int i = 1; i <= TABLES; i++) {
+            TableEntity table = new TableEntity();
+            table.setId(i);
+            table.setCode("M" + i);
+            activeTables.add(table);
+        }
+
+        Random random = new Random(42);
+        reservationTables = new ArrayList<>();
+        for (int i = 1; i <= RESERVATIONS; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setId(i);
+            reservation.setReservationDate(DATE);
+            reservation.setActive(true);
+            reservation.setReservationTime(LocalTime.of(8 + random.nextInt(16), 0));
+            ReservationTable reservationTable = new ReservationTable();
+            reservationTable.setReservation(reservation);
+            reservationTable.setTableId(1 + random.nextInt(TABLES));
+            reservationTables.add(reservationTable);
+        }
+
+        schedule = new ReservationSchedule(new ReservationScheduleConfig());
+        index = new TableOccupancyIndex(repositoryReturning(reservationTables), new ReservationDuration(60));
+        slotTimes = schedule.slotsFor(DATE.getDayOfWeek()).stream().map(ReservationSchedule.Slot::time).toList();
+        index.snapshot(DATE, slotTimes);
+    }
+
+    @Benchmark
+    public List<ScheduleAvailabilityResponse> linearScan() {
+        List<ScheduleAvailabilityResponse> result = new ArrayList<>();
+        for (String[] s : SCHEDULES) {
+            String time = s[0];
+            List<TableAvailabilityResponse> tables = new ArrayList<>();
+            int reservedTables = 0;
+            for (TableEntity table : activeTables) {
+                int tableId = table.getId();
+                boolean isReserved = reservationTables.stream().anyMatch(rt ->
+                        rt.getTableId() == tableId &&
+                        rt.getReservation().getReservationTime().equals(LocalTime.parse(time)));
+                if (isReserved) reservedTables++;
+                tables.add(new TableAvailabilityResponse(tableId, table.getCode(), !isReserved));
+            }
+            result.add(new ScheduleAvailabilityResponse(time, s[1], reservedTables < activeTables.size(), tables));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ScheduleAvailabilityResponse> bitsetLookup() {
+        return schedule.availability(DATE.getDayOfWeek(), activeTables, index.snapshot(DATE, slotTimes));
+    }
+
+    // Repositorio mínimo sin Mockito: solo responde la consulta de carga del día
+    private static ReservationTableRepository repositoryReturning(List<ReservationTable> rows) {
+        return (ReservationTableRepository) Proxy.newProxyInstance(
+                ReservationTableRepository.class.getClassLoader(),
+                new Class<?>[]{ReservationTableRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot")) {
+                        return rows;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,18 @@
+package com.marakosgrill.reservation.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class HttpConfig {
+
+    @Bean
+    public RestTemplate restTemplate() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(5000); // 5 segundos timeout de conexión
+        factory.setReadTimeout(10000);   // 10 segundos timeout de lectura (el envío de WhatsApp/correo es lento)
+        return new RestTemplate(factory);
+    }
+}
@@ -0,0 +1,74 @@
+package com.marakosgrill.reservation.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Claims ya verificados (con su principal armado), indexados por el SHA-256 del token
+// (el token no queda en memoria). LRU acotado: cada entrada vence con el token (exp) o a los pocos minutos si no trae exp.
+final class JwtClaimsCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    JwtClaimsCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > JwtClaimsCache.this.maxEntries;
+            }
+        };
+    }
+
+    JwtPrincipal get(String token, long now) {
+        if (maxEntries == 0) return null;
+        String key = key(token);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAt() <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.principal();
+        }
+    }
+
+    void put(String token, JwtPrincipal principal, long now) {
+        if (maxEntries == 0 || ttlMillis <= 0) return;
+        long expiresAt = now + ttlMillis;
+        Date expiration = principal.claims().getExpiration();
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        if (expiresAt <= now) return;
+        String key = key(token);
+        synchronized (entries) {
+            entries.put(key, new Entry(principal, expiresAt));
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(JwtPrincipal principal, long expiresAt) {
+    }
+}
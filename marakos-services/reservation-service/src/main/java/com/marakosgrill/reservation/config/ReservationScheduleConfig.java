@@ -0,0 +1,22 @@
+package com.marakosgrill.reservation.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Horarios de reserva: lista "HH:mm|Turno" separada por comas.
+// "days" permite sobrescribir el horario de un día (MONDAY, SATURDAY, ...).
+@Configuration
+@ConfigurationProperties(prefix = "reservation.schedule")
+@Getter
+@Setter
+public class ReservationScheduleConfig {
+    private String defaultSlots = "08:00|Mañana,09:00|Mañana,10:00|Mañana,11:00|Mañana,12:00|Mañana,"
+            + "13:00|Tarde,14:00|Tarde,15:00|Tarde,16:00|Tarde,17:00|Tarde,18:00|Tarde,"
+            + "19:00|Noche,20:00|Noche,21:00|Noche,22:00|Noche,23:00|Noche";
+    private Map<String, String> days = new HashMap<>();
+}
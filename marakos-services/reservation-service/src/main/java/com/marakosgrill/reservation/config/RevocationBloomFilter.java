@@ -0,0 +1,94 @@
+package com.marakosgrill.reservation.config;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Collection;
+
+// Filtro bloom de ids de sesión revocados. Mismo formato y mismas funciones hash en auth-service
+// (que lo arma) y en los demás servicios (que lo consultan): long[] en Base64 + número de funciones hash.
+// Sin falsos negativos; un positivo puede ser falso y se confirma aparte.
+final class RevocationBloomFilter {
+    private static final int MIN_CAPACITY = 1024;
+    private static final double LN2 = Math.log(2);
+
+    private final long[] words;
+    private final int hashFunctions;
+
+    private RevocationBloomFilter(long[] words, int hashFunctions) {
+        if (words.length == 0 || hashFunctions < 1) {
+            throw new IllegalArgumentException("Filtro de revocación inválido");
+        }
+        this.words = words;
+        this.hashFunctions = hashFunctions;
+    }
+
+    static RevocationBloomFilter of(Collection<String> ids, double falsePositiveRate) {
+        int capacity = Math.max(MIN_CAPACITY, ids.size());
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        RevocationBloomFilter filter = new RevocationBloomFilter(new long[(int) ((bits + 63) / 64)], hashFunctions);
+        for (String id : ids) {
+            filter.add(id);
+        }
+        return filter;
+    }
+
+    static RevocationBloomFilter decode(String bits, int hashFunctions) {
+        byte[] bytes = Base64.getDecoder().decode(bits);
+        if (bytes.length % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Filtro de revocación inválido");
+        }
+        long[] words = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(words);
+        return new RevocationBloomFilter(words, hashFunctions);
+    }
+
+    String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        buffer.asLongBuffer().put(words);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    boolean mightContain(String id) {
+        long h1 = mix(fnv1a(id));
+        long h2 = mix(h1) | 1;
+        long size = words.length * 64L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String id) {
+        long h1 = mix(fnv1a(id));
+        long h2 = mix(h1) | 1;
+        long size = words.length * 64L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static long fnv1a(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador de SplitMix64: reparte bien los bits de FNV antes del doble hashing
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,10 +1,12 @@
 package com.marakosgrill.reservation.controller;
 
+import com.marakosgrill.reservation.config.JwtPrincipal;
 import com.marakosgrill.reservation.dto.NotificationRequest;
 import com.marakosgrill.reservation.dto.NotificationResponse;
 import com.marakosgrill.reservation.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,7 +21,9 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @PostMapping
-    public ResponseEntity<NotificationResponse> createNotification(@Valid @RequestBody NotificationRequest request) {
+    public ResponseEntity<NotificationResponse> createNotification(@Valid @RequestBody NotificationRequest request,
+                                                                   @AuthenticationPrincipal JwtPrincipal principal) {
+        request.setCreatedBy(JwtPrincipal.auditUserId(principal, request.getCreatedBy()));
         return ResponseEntity.ok(notificationService.createNotification(request));
     }
 
@@ -1,11 +1,18 @@
 package com.marakosgrill.reservation.controller;
 
+import com.marakosgrill.reservation.config.JwtPrincipal;
 import com.marakosgrill.reservation.dto.*;
+import com.marakosgrill.reservation.service.IdempotencyStore;
 import com.marakosgrill.reservation.service.ReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
@@ -18,10 +25,19 @@ import java.util.List;
 @Validated
 public class ReservationController {
     private final ReservationService reservationService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    public ResponseEntity<ReservationResponse> createReservation(@Valid @RequestBody ReservationRequest request) {
-        return ResponseEntity.ok(reservationService.createReservation(request));
+    public ResponseEntity<ReservationResponse> createReservation(@Valid @RequestBody ReservationRequest request,
+                                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                                 @AuthenticationPrincipal JwtPrincipal principal) {
+        setAuditUser(request, principal);
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(reservationService.createReservation(request));
+        }
+        // Los reintentos con la misma clave devuelven la respuesta de la primera ejecución
+        return ResponseEntity.ok(idempotencyStore.execute(idempotencyKey, request, ReservationResponse.class,
+                () -> reservationService.createReservation(request)));
     }
 
     @GetMapping("/{id}")
@@ -29,6 +45,11 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getReservationById(id));
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ReservationResponse>> getReservationsByIds(@RequestParam List<Integer> ids) {
+        return ResponseEntity.ok(reservationService.getReservationsByIds(ids));
+    }
+
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<ReservationResponse>> getReservationsByCustomer(@PathVariable Integer customerId) {
         return ResponseEntity.ok(reservationService.findReservationsByCustomer(customerId));
@@ -40,6 +61,21 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.findReservationsByDateAndStatus(date, status));
     }
 
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<ReservationPageResponse> getReservationsByCustomerPage(@PathVariable Integer customerId,
+                                                                                 @RequestParam(required = false) String cursor,
+                                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reservationService.findReservationsByCustomerPage(customerId, cursor, size));
+    }
+
+    @GetMapping("/date/{date}/status/{status}/page")
+    public ResponseEntity<ReservationPageResponse> getReservationsByDateAndStatusPage(@PathVariable LocalDate date,
+                                                                                      @PathVariable String status,
+                                                                                      @RequestParam(required = false) String cursor,
+                                                                                      @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reservationService.findReservationsByDateAndStatusPage(date, status, cursor, size));
+    }
+
     @GetMapping("/table-availability")
     public ResponseEntity<Boolean> isTableAvailable(@RequestParam Integer tableId,
                                                    @RequestParam LocalDate date,
@@ -47,6 +83,18 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.isTableAvailable(tableId, date, time));
     }
 
+    @GetMapping("/suggest-tables")
+    public ResponseEntity<TableSuggestionResponse> suggestTables(@RequestParam LocalDate date,
+                                                                 @RequestParam LocalTime time,
+                                                                 @RequestParam Integer peopleCount) {
+        return ResponseEntity.ok(reservationService.suggestTables(date, time, peopleCount));
+    }
+
+    @GetMapping("/kitchen-forecast")
+    public ResponseEntity<KitchenForecastResponse> getKitchenForecast(@RequestParam LocalDate date) {
+        return ResponseEntity.ok(reservationService.getKitchenForecast(date));
+    }
+
     @GetMapping("/event-availability")
     public ResponseEntity<Boolean> isEventAvailable(@RequestParam Integer eventTypeId,
                                                    @RequestParam LocalDate date,
@@ -54,14 +102,49 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.isEventAvailable(eventTypeId, date, shift));
     }
 
+    @PostMapping("/hold")
+    public ResponseEntity<TableHoldResponse> holdTables(@Valid @RequestBody TableHoldRequest request) {
+        return ResponseEntity.ok(reservationService.holdTables(request));
+    }
+
+    @DeleteMapping("/hold/{token}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String token) {
+        reservationService.releaseHold(token);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/availability")
     public ResponseEntity<List<ScheduleAvailabilityResponse>> getScheduleAvailability(@RequestParam LocalDate date) {
         return ResponseEntity.ok(reservationService.getScheduleAvailability(date));
     }
 
+    @GetMapping("/availability/calendar")
+    public ResponseEntity<List<CalendarDayAvailabilityResponse>> getAvailabilityCalendar(@RequestParam LocalDate from,
+                                                                                         @RequestParam LocalDate to) {
+        return ResponseEntity.ok(reservationService.getAvailabilityCalendar(from, to));
+    }
+
+    // Se transmite fila por fila desde un cursor de la base de datos (CSV o NDJSON)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(@RequestParam LocalDate from,
+                                                                    @RequestParam LocalDate to,
+                                                                    @RequestParam(defaultValue = "csv") String format) {
+        ReservationExportFormat exportFormat = ReservationExportFormat.from(format);
+        reservationService.validateExportRange(from, to);
+        StreamingResponseBody body = out -> reservationService.exportReservations(from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reservas_" + from + "_" + to + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ReservationResponse> updateReservation(@PathVariable Integer id,
-                                                                 @Valid @RequestBody ReservationRequest request) {
+                                                                 @Valid @RequestBody ReservationRequest request,
+                                                                 @AuthenticationPrincipal JwtPrincipal principal) {
+        setAuditUser(request, principal);
         return ResponseEntity.ok(reservationService.updateReservation(id, request));
     }
 
@@ -95,4 +178,13 @@ public class ReservationController {
     public ResponseEntity<EventShiftAvailabilityResponse> getEventShiftAvailability(@RequestParam LocalDate date) {
         return ResponseEntity.ok(reservationService.getEventShiftAvailability(date));
     }
+
+    // El usuario de auditoría sale del token, no del cuerpo de la solicitud
+    private static void setAuditUser(ReservationRequest request, JwtPrincipal principal) {
+        request.setCreatedBy(JwtPrincipal.auditUserId(principal, request.getCreatedBy()));
+        if (request.getPayments() != null) {
+            request.getPayments().forEach(payment ->
+                    payment.setCreatedBy(JwtPrincipal.auditUserId(principal, payment.getCreatedBy())));
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.marakosgrill.reservation.controller;
+
+import com.marakosgrill.reservation.config.JwtPrincipal;
+import com.marakosgrill.reservation.dto.WaitlistRequest;
+import com.marakosgrill.reservation.dto.WaitlistResponse;
+import com.marakosgrill.reservation.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservation/waitlist")
+@RequiredArgsConstructor
+@Validated
+public class WaitlistController {
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<WaitlistResponse> joinWaitlist(@Valid @RequestBody WaitlistRequest request,
+                                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        request.setCreatedBy(JwtPrincipal.auditUserId(principal, request.getCreatedBy()));
+        return ResponseEntity.ok(waitlistService.joinWaitlist(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistResponse> getWaitlistEntry(@PathVariable Integer id) {
+        return ResponseEntity.ok(waitlistService.getWaitlistEntry(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WaitlistResponse>> findWaitingByDate(@RequestParam LocalDate date) {
+        return ResponseEntity.ok(waitlistService.findWaitingByDate(date));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<WaitlistResponse> leaveWaitlist(@PathVariable Integer id) {
+        return ResponseEntity.ok(waitlistService.leaveWaitlist(id));
+    }
+}
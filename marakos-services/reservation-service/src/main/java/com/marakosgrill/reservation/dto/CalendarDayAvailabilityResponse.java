@@ -0,0 +1,21 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CalendarDayAvailabilityResponse {
+    private LocalDate date;
+    // Proporción de franjas mesa-hora reservadas (0 = libre, 1 = lleno)
+    private double fillRatio;
+    private boolean tablesAvailable;
+    private List<Integer> availableShifts;
+}
@@ -0,0 +1,21 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenForecastResponse {
+    private LocalDate date;
+    // Momento del último cambio aplicado al día
+    private LocalDateTime updatedAt;
+    private List<KitchenSlotForecastResponse> slots;
+}
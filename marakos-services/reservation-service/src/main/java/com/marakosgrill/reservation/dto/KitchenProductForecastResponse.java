@@ -0,0 +1,16 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenProductForecastResponse {
+    private Integer productId;
+    private String productName;
+    private Integer quantity;
+}
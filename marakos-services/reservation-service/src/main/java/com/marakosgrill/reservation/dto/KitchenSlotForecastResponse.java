@@ -0,0 +1,20 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KitchenSlotForecastResponse {
+    private LocalTime time; // null para eventos reservados solo por turno
+    private String shift;
+    private Integer reservationCount;
+    private List<KitchenProductForecastResponse> products;
+}
@@ -0,0 +1,30 @@
+package com.marakosgrill.reservation.dto;
+
+// Formatos de GET /api/reservation/export
+public enum ReservationExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ReservationExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ReservationExportFormat from(String format) {
+        for (ReservationExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) return value;
+        }
+        throw new RuntimeException("Unsupported export format: " + format + " (use csv or ndjson)");
+    }
+}
@@ -0,0 +1,63 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Cuerpo que espera notification-service en /api/notification/reservation/*
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationNotificationData {
+    private String customerName;
+    private String customerPhone;
+    private String customerEmail;
+    private String reservationCode;
+    private String reservationDate;
+    private String reservationTime;
+    private Integer guestCount;
+    private String tableInfo;
+    private String specialRequests;
+    private String paymentType;
+    private String paymentStatus;
+    private Double totalAmount;
+    private String reservationStatus;
+    private String reservationType;
+    private Long reservationId;
+    private Boolean hasPreOrder;
+    private List<OrderItem> orderItems;
+
+    // Campos específicos de eventos
+    private String eventType;
+    private String eventShift;
+    private String tableDistribution;
+    private String linenColor;
+    private List<AdditionalServiceItem> additionalServices;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderItem {
+        private String productName;
+        private Integer quantity;
+        private Double unitPrice;
+        private Double subtotal;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AdditionalServiceItem {
+        private Long serviceId;
+        private String serviceName;
+        private Integer quantity;
+        private Double subtotal;
+        private String observation;
+    }
+}
@@ -0,0 +1,19 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationPageResponse {
+    private List<ReservationResponse> items;
+    // Cursor para pedir la siguiente página (null si no hay más)
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -40,6 +40,8 @@ public class ReservationRequest {
     private Integer termsAccepted; // 0 = No aceptado, 1 = Aceptado
     private Integer employeeId;
     private Integer createdBy;
+    private String holdToken; // Opcional: token de POST /api/reservation/hold
+    private Boolean autoAssignTables; // true + sin mesas: se asignan según peopleCount
     private List<ReservationProductRequest> products;
     private List<ReservationTableRequest> tables;
     private List<ReservationEventRequest> events;
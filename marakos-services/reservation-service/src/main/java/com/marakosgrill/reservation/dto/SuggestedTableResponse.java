@@ -0,0 +1,17 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestedTableResponse {
+    private Integer tableId;
+    private String code;
+    private Integer capacity;
+    private String location;
+}
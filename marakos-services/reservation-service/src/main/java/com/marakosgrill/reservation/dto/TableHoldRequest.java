@@ -0,0 +1,25 @@
+package com.marakosgrill.reservation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableHoldRequest {
+    @NotEmpty
+    private List<Integer> tableIds;
+    @NotNull
+    private LocalDate reservationDate;
+    @NotNull
+    private LocalTime reservationTime;
+}
@@ -0,0 +1,24 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableHoldResponse {
+    // Se envía como holdToken al crear la reserva
+    private String token;
+    private List<Integer> tableIds;
+    private LocalDate reservationDate;
+    private LocalTime reservationTime;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableSuggestionResponse {
+    private LocalDate reservationDate;
+    private LocalTime reservationTime;
+    private Integer peopleCount;
+    // Suma de capacidades de las mesas sugeridas; 0 si no hay mesas libres
+    private Integer totalCapacity;
+    // Una mesa, o varias de la misma ubicación para juntarlas
+    private List<SuggestedTableResponse> tables;
+}
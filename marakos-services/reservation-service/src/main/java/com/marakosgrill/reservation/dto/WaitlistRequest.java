@@ -0,0 +1,39 @@
+package com.marakosgrill.reservation.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Datos para anotarse en la lista de espera; al promoverse se usan para crear la reserva
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistRequest {
+    @NotNull
+    private Integer customerId;
+    @NotNull
+    private LocalDate reservationDate;
+    @NotNull
+    private LocalTime reservationTime;
+    @NotNull
+    @Min(1)
+    private Integer peopleCount;
+    @NotBlank
+    private String paymentMethod;
+    private String holderDocument;
+    private String holderPhone;
+    private String holderName;
+    private String holderEmail;
+    private String observation;
+    @NotNull
+    private Integer termsAccepted; // 0 = No aceptado, 1 = Aceptado
+    private Integer createdBy;
+}
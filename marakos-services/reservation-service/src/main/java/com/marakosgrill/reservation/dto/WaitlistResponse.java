@@ -0,0 +1,28 @@
+package com.marakosgrill.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistResponse {
+    private Integer id;
+    private Integer customerId;
+    private LocalDate reservationDate;
+    private LocalTime reservationTime;
+    private Integer peopleCount;
+    private String holderName;
+    private String holderPhone;
+    private String status; // EN_ESPERA / PROMOVIDO / CANCELADO
+    // Reserva creada al promoverse la solicitud
+    private Integer reservationId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.marakosgrill.reservation.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CHECK_OUT;
+
+// Evento publicado cuando una reserva se crea, modifica o cambia de estado.
+// Los índices en memoria lo aplican después del commit de la transacción.
+@Getter
+@Builder
+@AllArgsConstructor
+public class ReservationChangedEvent {
+    private final Integer reservationId;
+    // Fecha anterior de la reserva (null si es nueva)
+    private final LocalDate previousDate;
+    private final LocalDate reservationDate;
+    private final LocalTime reservationTime;
+    private final String reservationType;
+    private final Integer eventTypeId;
+    private final Integer eventShift;
+    private final String status;
+    private final Boolean active;
+    // Mesas asignadas; null si no cambiaron (solo cambio de estado)
+    private final List<Integer> tableIds;
+    // Cantidades prepedidas por producto; null si no cambiaron (solo cambio de estado)
+    private final Map<Integer, Integer> productQuantities;
+
+    public boolean isOccupying() {
+        return Boolean.TRUE.equals(active) && !RESERVATION_STATUS_CANCELED.equalsIgnoreCase(status);
+    }
+
+    // Un evento libera su turno al cancelarse o al hacer check-out
+    public boolean isOccupyingEventShift() {
+        return isOccupying() && status != null && !RESERVATION_STATUS_CHECK_OUT.equalsIgnoreCase(status)
+                && "EVENTO".equalsIgnoreCase(reservationType) && eventTypeId != null && eventShift != null;
+    }
+}
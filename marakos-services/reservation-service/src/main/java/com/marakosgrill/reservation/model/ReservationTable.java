@@ -2,7 +2,9 @@ package com.marakosgrill.reservation.model;
 
 import lombok.*;
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Entity
 @Table(name = "reserva_mesa")
@@ -23,6 +25,13 @@ public class ReservationTable {
     @Column(name = "id_mesa", nullable = false)
     private Integer tableId;
 
+    // Copia de fecha/hora de la reserva para el índice único de mesas ocupadas
+    @Column(name = "fecha_reserva")
+    private LocalDate reservationDate;
+
+    @Column(name = "hora_reserva")
+    private LocalTime reservationTime;
+
     @Column(name = "id_usuario_creacion", nullable = false)
     private Integer createdBy;
 
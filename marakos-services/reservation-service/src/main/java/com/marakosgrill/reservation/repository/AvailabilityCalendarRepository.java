@@ -0,0 +1,41 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.DayOccupancySummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CHECK_OUT;
+
+// Ocupación de un rango de fechas en una sola consulta agrupada por día
+@Repository
+@RequiredArgsConstructor
+public class AvailabilityCalendarRepository {
+    private static final String SUMMARY_BY_DAY = "SELECT r.fecha_reserva, " +
+            // Pares mesa-hora ocupados por reservas no canceladas
+            "COUNT(DISTINCT CASE WHEN UPPER(r.estado) <> ? AND rm.id_mesa IS NOT NULL AND r.hora_reserva IS NOT NULL " +
+            "THEN CONCAT(rm.id_mesa, '@', r.hora_reserva) END) AS mesas_ocupadas, " +
+            // Bit n encendido = turno de evento n ocupado
+            "COALESCE(BIT_OR(CASE WHEN UPPER(r.tipo_reserva) = 'EVENTO' AND r.id_tipo_evento IS NOT NULL " +
+            "AND r.turno_evento BETWEEN 1 AND 30 AND UPPER(r.estado) NOT IN (?, ?) " +
+            "THEN 1 << r.turno_evento END), 0) AS turnos_ocupados " +
+            "FROM reserva r " +
+            "LEFT JOIN reserva_mesa rm ON rm.id_reserva = r.id_reserva AND rm.registro_activo = true " +
+            "WHERE r.fecha_reserva BETWEEN ? AND ? AND r.registro_activo = true " +
+            "GROUP BY r.fecha_reserva";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Solo devuelve los días con alguna reserva; el resto está libre
+    public List<DayOccupancySummary> summarize(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SUMMARY_BY_DAY,
+                (rs, i) -> new DayOccupancySummary(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getInt(3)),
+                RESERVATION_STATUS_CANCELED, RESERVATION_STATUS_CANCELED, RESERVATION_STATUS_CHECK_OUT,
+                Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,53 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.StoredIdempotentRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Tabla solicitud_idempotente compartida por todos los nodos
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+    public static final String STATUS_IN_PROGRESS = "EN_PROCESO";
+    public static final String STATUS_COMPLETED = "COMPLETADO";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Reclama la clave; false si otro nodo ya la tiene (en proceso o completada)
+    public boolean tryClaim(String key, String fingerprint, LocalDateTime now, LocalDateTime expiresAt,
+                            LocalDateTime staleBefore) {
+        // Una clave vencida, o en proceso desde antes de staleBefore (nodo caído), se puede volver a usar
+        jdbcTemplate.update("DELETE FROM solicitud_idempotente WHERE clave = ? " +
+                        "AND (fecha_expiracion < ? OR (estado = ? AND fecha_creacion < ?))",
+                key, Timestamp.valueOf(now), STATUS_IN_PROGRESS, Timestamp.valueOf(staleBefore));
+        return jdbcTemplate.update("INSERT INTO solicitud_idempotente " +
+                        "(clave, huella, estado, fecha_creacion, fecha_expiracion) VALUES (?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (clave) DO NOTHING",
+                key, fingerprint, STATUS_IN_PROGRESS, Timestamp.valueOf(now), Timestamp.valueOf(expiresAt)) == 1;
+    }
+
+    public Optional<StoredIdempotentRequest> find(String key) {
+        return jdbcTemplate.query("SELECT huella, estado, respuesta FROM solicitud_idempotente WHERE clave = ?",
+                (rs, i) -> new StoredIdempotentRequest(rs.getString(1), rs.getString(2), rs.getString(3)), key)
+                .stream().findFirst();
+    }
+
+    public void complete(String key, String response) {
+        jdbcTemplate.update("UPDATE solicitud_idempotente SET estado = ?, respuesta = ? WHERE clave = ?",
+                STATUS_COMPLETED, response, key);
+    }
+
+    // Libera la clave cuando la creación falló, para que el cliente pueda reintentar
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM solicitud_idempotente WHERE clave = ? AND estado = ?", key, STATUS_IN_PROGRESS);
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("DELETE FROM solicitud_idempotente WHERE fecha_expiracion < ?", Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,60 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.ProductPreorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+
+// Productos prepedidos agrupados por reserva, para reconstruir el agregado de cocina
+@Repository
+@RequiredArgsConstructor
+public class KitchenForecastRepository {
+    private static final String PREORDERS_FROM = "SELECT r.id_reserva, r.fecha_reserva, r.hora_reserva, r.tipo_reserva, " +
+            "r.turno_evento, rp.id_producto, p.nombre, SUM(rp.cantidad) AS cantidad " +
+            "FROM reserva r " +
+            "JOIN reserva_producto rp ON rp.id_reserva = r.id_reserva AND rp.registro_activo = true " +
+            "LEFT JOIN producto p ON p.id_producto = rp.id_producto " +
+            "WHERE r.fecha_reserva >= :from AND r.registro_activo = true AND UPPER(r.estado) <> :canceled " +
+            "GROUP BY r.id_reserva, r.fecha_reserva, r.hora_reserva, r.tipo_reserva, r.turno_evento, rp.id_producto, p.nombre";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<ProductPreorder> findPreordersFrom(LocalDate from) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("canceled", RESERVATION_STATUS_CANCELED);
+        return namedParameterJdbcTemplate.query(PREORDERS_FROM, params, (rs, i) -> {
+            Time time = rs.getTime("hora_reserva");
+            return new ProductPreorder(
+                    rs.getInt("id_reserva"),
+                    rs.getDate("fecha_reserva").toLocalDate(),
+                    time != null ? time.toLocalTime() : null,
+                    rs.getString("tipo_reserva"),
+                    rs.getObject("turno_evento", Integer.class),
+                    rs.getInt("id_producto"),
+                    rs.getString("nombre"),
+                    rs.getInt("cantidad"));
+        });
+    }
+
+    public Map<Integer, String> findProductNames(Collection<Integer> productIds) {
+        Map<Integer, String> names = new HashMap<>();
+        if (productIds.isEmpty()) return names;
+        namedParameterJdbcTemplate.query("SELECT id_producto, nombre FROM producto WHERE id_producto IN (:ids)",
+                new MapSqlParameterSource("ids", productIds),
+                (RowCallbackHandler) rs -> { names.put(rs.getInt(1), rs.getString(2)); });
+        return names;
+    }
+}
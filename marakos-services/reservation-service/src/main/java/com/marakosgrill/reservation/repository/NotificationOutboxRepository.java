@@ -0,0 +1,71 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.PendingNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_FAILED;
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_LOGGED;
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_PENDING;
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_SENT;
+
+// Acceso JDBC a notificacion como outbox. Cada nodo toma un lote con FOR UPDATE SKIP LOCKED
+// y le pone un lease en proximo_intento, así dos nodos nunca envían la misma fila a la vez.
+@Repository
+@RequiredArgsConstructor
+public class NotificationOutboxRepository {
+    // Tipos que NotificationOutboxDispatcher envía; los demás se guardan REGISTRADO y nunca
+    // entran al índice parcial de pendientes
+    public static final Set<String> DISPATCHED_TYPES = Set.of("CREATION", "CANCELLATION");
+
+    private static final String CLAIM = "UPDATE notificacion n SET proximo_intento = ? " +
+            "WHERE n.id_notificacion IN (" +
+            "SELECT id_notificacion FROM notificacion " +
+            "WHERE estado = ? AND registro_activo = true AND tipo_notificacion IN (%s) " +
+            "AND (proximo_intento IS NULL OR proximo_intento <= ?) " +
+            "ORDER BY id_notificacion LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING n.id_notificacion, n.id_reserva, n.tipo_notificacion, n.intentos";
+    private static final String MARK_SENT = "UPDATE notificacion SET estado = ?, fecha_envio = ?, " +
+            "proximo_intento = NULL, ultimo_error = NULL, fecha_modificacion = ? WHERE id_notificacion = ?";
+    private static final String MARK_FAILED = "UPDATE notificacion SET estado = ?, intentos = intentos + 1, " +
+            "proximo_intento = ?, ultimo_error = ?, fecha_modificacion = ? WHERE id_notificacion = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String initialStatus(String notificationType) {
+        return DISPATCHED_TYPES.contains(notificationType) ? NOTIFICATION_STATUS_PENDING : NOTIFICATION_STATUS_LOGGED;
+    }
+
+    // Toma hasta 'limit' pendientes de los tipos indicados y las reserva hasta 'leaseUntil'
+    public List<PendingNotification> claim(Collection<String> types, int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        String placeholders = String.join(", ", java.util.Collections.nCopies(types.size(), "?"));
+        Object[] args = new Object[types.size() + 4];
+        int i = 0;
+        args[i++] = Timestamp.valueOf(leaseUntil);
+        args[i++] = NOTIFICATION_STATUS_PENDING;
+        for (String type : types) args[i++] = type;
+        args[i++] = Timestamp.valueOf(now);
+        args[i] = limit;
+        return jdbcTemplate.query(String.format(CLAIM, placeholders),
+                (rs, n) -> new PendingNotification(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getInt(4)),
+                args);
+    }
+
+    public void markSent(Integer id, LocalDateTime now) {
+        jdbcTemplate.update(MARK_SENT, NOTIFICATION_STATUS_SENT, Timestamp.valueOf(now), Timestamp.valueOf(now), id);
+    }
+
+    // Vuelve a PENDIENTE con la fecha del próximo intento, o queda FALLIDO si no quedan intentos
+    public void markFailed(Integer id, boolean retry, LocalDateTime nextAttempt, String error, LocalDateTime now) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        jdbcTemplate.update(MARK_FAILED, retry ? NOTIFICATION_STATUS_PENDING : NOTIFICATION_STATUS_FAILED,
+                retry ? Timestamp.valueOf(nextAttempt) : null, message, Timestamp.valueOf(now), id);
+    }
+}
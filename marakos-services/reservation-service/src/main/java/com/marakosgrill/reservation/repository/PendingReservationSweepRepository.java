@@ -0,0 +1,69 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.SweptReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_PENDING;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+
+// Cancela un lote de intentos de pago online abandonados en una sola sentencia: solo reservas
+// PENDIENTE_PAGO que no son presenciales, sin transacción PAGADO y que no vienen de la lista de
+// espera (esas se crean PENDIENTE y quedan a la espera del cliente). Toma los ids con
+// FOR UPDATE SKIP LOCKED (nunca espera a una reserva que se está pagando o editando),
+// libera sus mesas y descarta sus notificaciones aún no enviadas.
+@Repository
+@RequiredArgsConstructor
+public class PendingReservationSweepRepository {
+    // El filtro de estado coincide con el índice parcial ix_reserva_pendiente_creacion (V10)
+    private static final String SWEEP = "WITH vencidas AS (" +
+            "SELECT r.id_reserva FROM reserva r " +
+            "WHERE UPPER(r.estado) = 'PENDIENTE_PAGO' AND r.registro_activo = true " +
+            "AND UPPER(COALESCE(r.forma_pago, '')) <> 'PRESENCIAL' AND r.fecha_creacion < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM transaccion t WHERE t.id_reserva = r.id_reserva " +
+            "AND t.registro_activo = true AND UPPER(t.estado) = 'PAGADO') " +
+            "AND NOT EXISTS (SELECT 1 FROM reserva_lista_espera l WHERE l.id_reserva = r.id_reserva) " +
+            "ORDER BY r.fecha_creacion, r.id_reserva LIMIT ? FOR UPDATE OF r SKIP LOCKED), " +
+            "canceladas AS (" +
+            "UPDATE reserva r SET estado = ?, fecha_cancelacion = ?, fecha_modificacion = ?, id_usuario_modificacion = ? " +
+            "FROM vencidas v WHERE r.id_reserva = v.id_reserva " +
+            "RETURNING r.id_reserva, r.fecha_reserva, r.hora_reserva, r.tipo_reserva, r.id_tipo_evento, r.turno_evento), " +
+            "mesas AS (" +
+            "UPDATE reserva_mesa SET registro_activo = false, fecha_modificacion = ?, id_usuario_modificacion = ? " +
+            "WHERE id_reserva IN (SELECT id_reserva FROM canceladas) AND registro_activo = true), " +
+            "notificaciones AS (" +
+            "DELETE FROM notificacion WHERE id_reserva IN (SELECT id_reserva FROM canceladas) AND estado = ?) " +
+            "SELECT * FROM canceladas";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Limita la espera por locks de filas hijas (reserva_mesa, notificacion) en la transacción actual
+    public void setLocalLockTimeout(long millis) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + Math.max(1, millis) + "ms'");
+    }
+
+    public List<SweptReservation> cancelStale(LocalDateTime createdBefore, int limit, LocalDateTime now, Integer updatedBy) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.query(SWEEP, (rs, i) -> {
+            Date date = rs.getDate("fecha_reserva");
+            Time time = rs.getTime("hora_reserva");
+            return new SweptReservation(
+                    rs.getInt("id_reserva"),
+                    date != null ? date.toLocalDate() : null,
+                    time != null ? time.toLocalTime() : null,
+                    rs.getString("tipo_reserva"),
+                    rs.getObject("id_tipo_evento", Integer.class),
+                    rs.getObject("turno_evento", Integer.class));
+        }, Timestamp.valueOf(createdBefore), limit,
+                RESERVATION_STATUS_CANCELED, timestamp, timestamp, updatedBy,
+                timestamp, updatedBy,
+                NOTIFICATION_STATUS_PENDING);
+    }
+}
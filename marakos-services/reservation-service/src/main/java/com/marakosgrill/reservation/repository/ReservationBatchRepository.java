@@ -0,0 +1,131 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Inserta las filas hijas de una reserva con un único batch JDBC por colección.
+// Las entidades usan IDENTITY, que impide el batching de Hibernate, por eso se
+// escriben aquí y se les asigna el id devuelto por la base de datos.
+@Repository
+@RequiredArgsConstructor
+public class ReservationBatchRepository {
+    private static final String INSERT_TABLE = "INSERT INTO reserva_mesa " +
+            "(id_reserva, id_mesa, fecha_reserva, hora_reserva, id_usuario_creacion, fecha_creacion, registro_activo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT = "INSERT INTO reserva_producto " +
+            "(id_reserva, id_producto, cantidad, subtotal, observacion, id_usuario_creacion, fecha_creacion, registro_activo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EVENT = "INSERT INTO reserva_evento " +
+            "(id_reserva, id_servicio, cantidad, subtotal, observacion, id_usuario_creacion, fecha_creacion, registro_activo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transaccion " +
+            "(id_reserva, fecha_pago, metodo_pago, monto, estado, id_transaccion_externa, id_usuario_creacion, fecha_creacion, registro_activo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertTables(List<ReservationTable> tables) {
+        batchInsert(INSERT_TABLE, "id_reserva_mesa", tables, (ps, rt) -> {
+            ps.setInt(1, rt.getReservation().getId());
+            ps.setInt(2, rt.getTableId());
+            ps.setObject(3, rt.getReservationDate(), Types.DATE);
+            ps.setObject(4, rt.getReservationTime(), Types.TIME);
+            setInteger(ps, 5, rt.getCreatedBy());
+            ps.setTimestamp(6, Timestamp.valueOf(rt.getCreatedAt()));
+            ps.setBoolean(7, Boolean.TRUE.equals(rt.getActive()));
+        }, ReservationTable::setId);
+    }
+
+    public void insertProducts(List<ReservationProduct> products) {
+        batchInsert(INSERT_PRODUCT, "id_reserva_producto", products, (ps, rp) -> {
+            ps.setInt(1, rp.getReservation().getId());
+            ps.setInt(2, rp.getProductId());
+            ps.setInt(3, rp.getQuantity());
+            ps.setBigDecimal(4, rp.getSubtotal());
+            ps.setString(5, rp.getObservation());
+            setInteger(ps, 6, rp.getCreatedBy());
+            ps.setTimestamp(7, Timestamp.valueOf(rp.getCreatedAt()));
+            ps.setBoolean(8, Boolean.TRUE.equals(rp.getActive()));
+        }, ReservationProduct::setId);
+    }
+
+    public void insertEvents(List<ReservationEvent> events) {
+        batchInsert(INSERT_EVENT, "id_reserva_evento", events, (ps, re) -> {
+            ps.setInt(1, re.getReservation().getId());
+            ps.setInt(2, re.getServiceId());
+            ps.setInt(3, re.getQuantity());
+            ps.setBigDecimal(4, re.getSubtotal());
+            ps.setString(5, re.getObservation());
+            setInteger(ps, 6, re.getCreatedBy());
+            ps.setTimestamp(7, Timestamp.valueOf(re.getCreatedAt()));
+            ps.setBoolean(8, Boolean.TRUE.equals(re.getActive()));
+        }, ReservationEvent::setId);
+    }
+
+    public void insertTransactions(List<Transaction> transactions) {
+        batchInsert(INSERT_TRANSACTION, "id_transaccion", transactions, (ps, t) -> {
+            ps.setInt(1, t.getReservation().getId());
+            ps.setTimestamp(2, t.getPaymentDate() != null ? Timestamp.valueOf(t.getPaymentDate()) : null);
+            ps.setString(3, t.getPaymentMethod());
+            ps.setBigDecimal(4, t.getAmount());
+            ps.setString(5, t.getStatus());
+            ps.setString(6, t.getExternalTransactionId());
+            setInteger(ps, 7, t.getCreatedBy());
+            ps.setTimestamp(8, Timestamp.valueOf(t.getCreatedAt()));
+            ps.setBoolean(9, Boolean.TRUE.equals(t.getActive()));
+        }, Transaction::setId);
+    }
+
+    private <T> void batchInsert(String sql, String idColumn, List<T> rows, RowSetter<T> setter, BiConsumer<T, Integer> idSetter) {
+        if (rows == null || rows.isEmpty()) return;
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{idColumn}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setter.setValues(ps, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < rows.size() && i < keys.size(); i++) {
+            Object id = keys.get(i).get(idColumn);
+            if (id instanceof Number number) {
+                idSetter.accept(rows.get(i), number.intValue());
+            }
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSetter<T> {
+        void setValues(PreparedStatement ps, T row) throws SQLException;
+    }
+}
@@ -0,0 +1,35 @@
+package com.marakosgrill.reservation.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+// Fila reserva_codigo_seq por fecha: el lock de fila del UPDATE serializa a todos los nodos,
+// así dos reservas nunca reciben el mismo correlativo.
+@Repository
+@RequiredArgsConstructor
+public class ReservationCodeSequenceRepository {
+    private static final String INCREMENT = "UPDATE reserva_codigo_seq SET ultimo_correlativo = ultimo_correlativo + 1 " +
+            "WHERE fecha_reserva = ? RETURNING ultimo_correlativo";
+    // Primera vez para la fecha: parte del mayor correlativo ya guardado en reserva.
+    // Si otro nodo creó la fila a la vez, ON CONFLICT incrementa la suya.
+    private static final String SEED = "INSERT INTO reserva_codigo_seq (fecha_reserva, ultimo_correlativo) " +
+            "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(codigo_reserva FROM LENGTH(?) + 1) AS INTEGER)), 0) + 1 " +
+            "FROM reserva WHERE codigo_reserva LIKE CONCAT(?, '%') " +
+            "AND SUBSTRING(codigo_reserva FROM LENGTH(?) + 1) ~ '^[0-9]{1,9}$' " +
+            "ON CONFLICT (fecha_reserva) DO UPDATE SET ultimo_correlativo = reserva_codigo_seq.ultimo_correlativo + 1 " +
+            "RETURNING ultimo_correlativo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int next(LocalDate reservationDate, String prefix) {
+        Date date = Date.valueOf(reservationDate);
+        List<Integer> updated = jdbcTemplate.queryForList(INCREMENT, Integer.class, date);
+        if (!updated.isEmpty()) return updated.get(0);
+        return jdbcTemplate.queryForObject(SEED, Integer.class, date, prefix, prefix, prefix);
+    }
+}
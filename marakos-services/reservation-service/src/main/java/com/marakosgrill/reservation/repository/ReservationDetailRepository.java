@@ -0,0 +1,110 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.Transaction;
+import com.marakosgrill.reservation.repository.projection.ReservationChildren;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Lee las filas hijas de varias reservas con un único UNION ALL en lugar de una consulta
+// por colección y por reserva. Las columnas que no aplican a un tipo de fila van en NULL.
+@Repository
+@RequiredArgsConstructor
+public class ReservationDetailRepository {
+    private static final String CHILDREN_BY_RESERVATION =
+            "SELECT 'M' AS tipo, id_reserva, id_reserva_mesa AS id, id_mesa AS id_ref, " +
+            "NULL::integer AS cantidad, NULL::numeric AS importe, NULL::varchar AS observacion, " +
+            "NULL::timestamp AS fecha_pago, NULL::varchar AS metodo_pago, NULL::varchar AS estado, " +
+            "NULL::varchar AS id_transaccion_externa, NULL::integer AS id_usuario_creacion, registro_activo " +
+            "FROM reserva_mesa WHERE id_reserva IN (:ids) " +
+            "UNION ALL " +
+            "SELECT 'P', id_reserva, id_reserva_producto, id_producto, cantidad, subtotal, observacion, " +
+            "NULL, NULL, NULL, NULL, NULL, registro_activo FROM reserva_producto WHERE id_reserva IN (:ids) " +
+            "UNION ALL " +
+            "SELECT 'E', id_reserva, id_reserva_evento, id_servicio, cantidad, subtotal, observacion, " +
+            "NULL, NULL, NULL, NULL, NULL, registro_activo FROM reserva_evento WHERE id_reserva IN (:ids) " +
+            "UNION ALL " +
+            "SELECT 'T', id_reserva, id_transaccion, NULL, NULL, monto, NULL, " +
+            "fecha_pago, metodo_pago, estado, id_transaccion_externa, id_usuario_creacion, registro_activo " +
+            "FROM transaccion WHERE id_reserva IN (:ids) " +
+            "ORDER BY 1, 3";
+    private static final String PRODUCT_NAMES = "SELECT id_producto, nombre FROM producto WHERE id_producto IN (:ids)";
+    private static final String SERVICE_NAMES = "SELECT id_servicio, nombre FROM servicio WHERE id_servicio IN (:ids)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // id de reserva -> filas hijas; las reservas sin hijos no aparecen en el mapa
+    public Map<Integer, ReservationChildren> findChildren(Collection<Integer> reservationIds) {
+        Map<Integer, ReservationChildren> result = new HashMap<>();
+        if (reservationIds == null || reservationIds.isEmpty()) return result;
+        namedParameterJdbcTemplate.query(CHILDREN_BY_RESERVATION, new MapSqlParameterSource("ids", reservationIds), rs -> {
+            ReservationChildren children = result.computeIfAbsent(rs.getInt("id_reserva"), id -> ReservationChildren.empty());
+            Integer id = rs.getInt("id");
+            Boolean active = rs.getBoolean("registro_activo");
+            switch (rs.getString("tipo")) {
+                case "M" -> children.tables().add(ReservationTable.builder()
+                        .id(id)
+                        .tableId(rs.getInt("id_ref"))
+                        .active(active)
+                        .build());
+                case "P" -> children.products().add(ReservationProduct.builder()
+                        .id(id)
+                        .productId(rs.getInt("id_ref"))
+                        .quantity(rs.getObject("cantidad", Integer.class))
+                        .subtotal(rs.getBigDecimal("importe"))
+                        .observation(rs.getString("observacion"))
+                        .active(active)
+                        .build());
+                case "E" -> children.events().add(ReservationEvent.builder()
+                        .id(id)
+                        .serviceId(rs.getInt("id_ref"))
+                        .quantity(rs.getObject("cantidad", Integer.class))
+                        .subtotal(rs.getBigDecimal("importe"))
+                        .observation(rs.getString("observacion"))
+                        .active(active)
+                        .build());
+                default -> {
+                    Timestamp paymentDate = rs.getTimestamp("fecha_pago");
+                    children.transactions().add(Transaction.builder()
+                            .id(id)
+                            .paymentDate(paymentDate != null ? paymentDate.toLocalDateTime() : null)
+                            .paymentMethod(rs.getString("metodo_pago"))
+                            .amount(rs.getBigDecimal("importe"))
+                            .status(rs.getString("estado"))
+                            .externalTransactionId(rs.getString("id_transaccion_externa"))
+                            .createdBy(rs.getObject("id_usuario_creacion", Integer.class))
+                            .active(active)
+                            .build());
+                }
+            }
+        });
+        return result;
+    }
+
+    // Nombres para el detalle de las notificaciones: una consulta por catálogo y por lote
+    public Map<Integer, String> findProductNames(Collection<Integer> productIds) {
+        return findNames(PRODUCT_NAMES, productIds);
+    }
+
+    public Map<Integer, String> findServiceNames(Collection<Integer> serviceIds) {
+        return findNames(SERVICE_NAMES, serviceIds);
+    }
+
+    private Map<Integer, String> findNames(String sql, Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return names;
+        namedParameterJdbcTemplate.query(sql, new MapSqlParameterSource("ids", ids),
+                (RowCallbackHandler) rs -> { names.put(rs.getInt(1), rs.getString(2)); });
+        return names;
+    }
+}
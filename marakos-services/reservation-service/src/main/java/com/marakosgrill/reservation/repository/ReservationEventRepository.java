@@ -2,11 +2,25 @@ package com.marakosgrill.reservation.repository;
 
 import com.marakosgrill.reservation.model.ReservationEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReservationEventRepository extends JpaRepository<ReservationEvent, Integer> {
     List<ReservationEvent> findByReservation_Id(Integer reservationId);
+
+    // Desactiva en una sola sentencia los hijos quitados de la reserva
+    @Modifying
+    @Query("UPDATE ReservationEvent re SET re.active = false, re.updatedBy = :updatedBy, re.updatedAt = :updatedAt " +
+            "WHERE re.reservation.id = :reservationId AND re.id IN :ids")
+    int deactivateByReservationIdAndIdIn(@Param("reservationId") Integer reservationId,
+                                         @Param("ids") Collection<Integer> ids,
+                                         @Param("updatedBy") Integer updatedBy,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,65 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.ReservationExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+// Lectura de reservas por rango de fechas con un cursor de solo avance: PostgreSQL trae las
+// filas de a fetchSize (requiere una transacción abierta) y cada una se entrega al consumidor
+// sin acumularlas en memoria.
+@Repository
+@RequiredArgsConstructor
+public class ReservationExportRepository {
+    private static final String EXPORT = "SELECT r.id_reserva, r.codigo_reserva, r.fecha_reserva, r.hora_reserva, " +
+            "r.estado, r.tipo_reserva, r.cantidad_personas, r.id_cliente, r.nombre_titular, r.telefono_titular, " +
+            "r.email_titular, r.forma_pago, " +
+            "(SELECT STRING_AGG(m.codigo, ', ' ORDER BY m.codigo) FROM reserva_mesa rm " +
+            "JOIN mesa m ON m.id_mesa = rm.id_mesa " +
+            "WHERE rm.id_reserva = r.id_reserva AND rm.registro_activo = true) AS mesas, " +
+            "p.cantidad, p.total " +
+            "FROM reserva r " +
+            "LEFT JOIN LATERAL (SELECT COALESCE(SUM(rp.cantidad), 0) AS cantidad, COALESCE(SUM(rp.subtotal), 0) AS total " +
+            "FROM reserva_producto rp WHERE rp.id_reserva = r.id_reserva AND rp.registro_activo = true) p ON true " +
+            "WHERE r.fecha_reserva BETWEEN ? AND ? AND r.registro_activo = true " +
+            "ORDER BY r.fecha_reserva, r.hora_reserva NULLS FIRST, r.id_reserva";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void stream(LocalDate from, LocalDate to, int fetchSize, Consumer<ReservationExportRow> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Date date = rs.getDate("fecha_reserva");
+            Time time = rs.getTime("hora_reserva");
+            consumer.accept(new ReservationExportRow(
+                    rs.getInt("id_reserva"),
+                    rs.getString("codigo_reserva"),
+                    date != null ? date.toLocalDate() : null,
+                    time != null ? time.toLocalTime() : null,
+                    rs.getString("estado"),
+                    rs.getString("tipo_reserva"),
+                    rs.getObject("cantidad_personas", Integer.class),
+                    rs.getObject("id_cliente", Integer.class),
+                    rs.getString("nombre_titular"),
+                    rs.getString("telefono_titular"),
+                    rs.getString("email_titular"),
+                    rs.getString("forma_pago"),
+                    rs.getString("mesas"),
+                    rs.getInt("cantidad"),
+                    rs.getBigDecimal("total")));
+        });
+    }
+}
@@ -2,11 +2,25 @@ package com.marakosgrill.reservation.repository;
 
 import com.marakosgrill.reservation.model.ReservationProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReservationProductRepository extends JpaRepository<ReservationProduct, Integer> {
     List<ReservationProduct> findByReservation_Id(Integer reservationId);
+
+    // Desactiva en una sola sentencia los hijos quitados de la reserva
+    @Modifying
+    @Query("UPDATE ReservationProduct rp SET rp.active = false, rp.updatedBy = :updatedBy, rp.updatedAt = :updatedAt " +
+            "WHERE rp.reservation.id = :reservationId AND rp.id IN :ids")
+    int deactivateByReservationIdAndIdIn(@Param("reservationId") Integer reservationId,
+                                         @Param("ids") Collection<Integer> ids,
+                                         @Param("updatedBy") Integer updatedBy,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
 }
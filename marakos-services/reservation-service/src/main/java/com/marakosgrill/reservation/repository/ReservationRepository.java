@@ -1,10 +1,16 @@
 package com.marakosgrill.reservation.repository;
 
 import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.repository.projection.EventShiftSlot;
+import com.marakosgrill.reservation.repository.projection.ReservationSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +18,36 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     List<Reservation> findByCustomerId(Integer customerId);
     List<Reservation> findByReservationDate(LocalDate date);
     List<Reservation> findByReservationDateAndStatus(LocalDate date, String status);
+
+    // Turnos de eventos que siguen ocupados en la fecha
+    @Query("SELECT r.id AS id, r.eventType.id AS eventTypeId, r.eventShift AS eventShift FROM Reservation r " +
+            "WHERE UPPER(r.reservationType) = 'EVENTO' AND r.reservationDate = :date AND r.active = true " +
+            "AND r.eventType IS NOT NULL AND r.eventShift IS NOT NULL AND UPPER(r.status) NOT IN :excludedStatuses")
+    List<EventShiftSlot> findOccupiedEventShifts(@Param("date") LocalDate date,
+                                                 @Param("excludedStatuses") Collection<String> excludedStatuses);
+
+    // Listados paginados por cursor (fecha_reserva, id_reserva): solo columnas de ReservationSummary
+    String SUMMARY_COLUMNS = "SELECT r.id AS id, r.code AS code, r.customerId AS customerId, " +
+            "r.reservationDate AS reservationDate, r.reservationTime AS reservationTime, r.peopleCount AS peopleCount, " +
+            "r.status AS status, r.reservationType AS reservationType, r.holderName AS holderName, " +
+            "r.holderPhone AS holderPhone, r.termsAccepted AS termsAccepted, r.createdAt AS createdAt, " +
+            "r.active AS active FROM Reservation r ";
+
+    // Historial del cliente, de la reserva más reciente a la más antigua
+    @Query(SUMMARY_COLUMNS + "WHERE r.customerId = :customerId ORDER BY r.reservationDate DESC, r.id DESC")
+    List<ReservationSummary> findCustomerPage(@Param("customerId") Integer customerId, Limit limit);
+
+    @Query(SUMMARY_COLUMNS + "WHERE r.customerId = :customerId " +
+            "AND (r.reservationDate < :date OR (r.reservationDate = :date AND r.id < :id)) " +
+            "ORDER BY r.reservationDate DESC, r.id DESC")
+    List<ReservationSummary> findCustomerPageBefore(@Param("customerId") Integer customerId, @Param("date") LocalDate date,
+                                                    @Param("id") Integer id, Limit limit);
+
+    // Reservas del día en orden de id; la fecha es fija, el cursor avanza por id
+    @Query(SUMMARY_COLUMNS + "WHERE r.reservationDate = :date AND r.id > :afterId ORDER BY r.id")
+    List<ReservationSummary> findDatePage(@Param("date") LocalDate date, @Param("afterId") Integer afterId, Limit limit);
+
+    @Query(SUMMARY_COLUMNS + "WHERE r.reservationDate = :date AND r.status = :status AND r.id > :afterId ORDER BY r.id")
+    List<ReservationSummary> findDateStatusPage(@Param("date") LocalDate date, @Param("status") String status,
+                                                @Param("afterId") Integer afterId, Limit limit);
 }
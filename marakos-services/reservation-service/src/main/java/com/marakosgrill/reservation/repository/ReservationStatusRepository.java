@@ -0,0 +1,107 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.model.EventType;
+import com.marakosgrill.reservation.model.Reservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+
+// Cambios de estado como compare-and-set: un único UPDATE ... WHERE estado IN (...) RETURNING
+// que además deja la notificación en el outbox dentro de la misma sentencia.
+@Repository
+@RequiredArgsConstructor
+public class ReservationStatusRepository {
+    private static final String UPDATE_STATUS = "WITH actualizada AS (" +
+            "UPDATE reserva SET estado = ?, fecha_modificacion = ?, " +
+            "fecha_cancelacion = CASE WHEN ? THEN ? ELSE fecha_cancelacion END " +
+            "WHERE id_reserva = ? AND %s RETURNING *)";
+    private static final String INSERT_NOTIFICATION = ", notificacion_nueva AS (" +
+            "INSERT INTO notificacion (id_reserva, tipo_notificacion, canal, mensaje, estado, " +
+            "id_usuario_creacion, fecha_creacion, registro_activo) " +
+            "SELECT id_reserva, ?, 'EMAIL', CONCAT(?, codigo_reserva), ?, ?, ?, true FROM actualizada)";
+    private static final String SELECT_UPDATED = " SELECT * FROM actualizada";
+
+    private static final RowMapper<Reservation> RESERVATION_MAPPER = (rs, i) -> {
+        Date date = rs.getDate("fecha_reserva");
+        Time time = rs.getTime("hora_reserva");
+        Timestamp cancellation = rs.getTimestamp("fecha_cancelacion");
+        Timestamp created = rs.getTimestamp("fecha_creacion");
+        Timestamp updated = rs.getTimestamp("fecha_modificacion");
+        Integer eventTypeId = rs.getObject("id_tipo_evento", Integer.class);
+        return Reservation.builder()
+                .id(rs.getInt("id_reserva"))
+                .code(rs.getString("codigo_reserva"))
+                .customerId(rs.getObject("id_cliente", Integer.class))
+                .reservationDate(date != null ? date.toLocalDate() : null)
+                .reservationTime(time != null ? time.toLocalTime() : null)
+                .peopleCount(rs.getObject("cantidad_personas", Integer.class))
+                .status(rs.getString("estado"))
+                .paymentMethod(rs.getString("forma_pago"))
+                .reservationType(rs.getString("tipo_reserva"))
+                .eventType(eventTypeId != null ? EventType.builder().id(eventTypeId).build() : null)
+                .eventShift(rs.getObject("turno_evento", Integer.class))
+                .tableDistributionType(rs.getObject("tipo_distribucion_mesa", Integer.class))
+                .tableClothColor(rs.getObject("color_manteleria_mesa", Integer.class))
+                .holderDocument(rs.getString("documento_identidad_titular"))
+                .holderPhone(rs.getString("telefono_titular"))
+                .holderName(rs.getString("nombre_titular"))
+                .holderEmail(rs.getString("email_titular"))
+                .cancellationDate(cancellation != null ? cancellation.toLocalDateTime() : null)
+                .observation(rs.getString("observacion"))
+                .termsAccepted(rs.getObject("tyc", Integer.class))
+                .employeeId(rs.getObject("id_empleado", Integer.class))
+                .createdBy(rs.getObject("id_usuario_creacion", Integer.class))
+                .createdAt(created != null ? created.toLocalDateTime() : null)
+                .updatedBy(rs.getObject("id_usuario_modificacion", Integer.class))
+                .updatedAt(updated != null ? updated.toLocalDateTime() : null)
+                .active(rs.getBoolean("registro_activo"))
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Aplica la transición si el estado actual está en 'from' (null = cualquier estado distinto
+    // del destino, salvo CANCELADO: la cancelación ya liberó sus mesas y no se reactiva).
+    // Vacío si no se aplicó. Si notificationType no es null, registra la notificación.
+    public Optional<Reservation> transition(Integer id, String target, Collection<String> from, LocalDateTime now,
+                                            String notificationType, String messagePrefix, Integer createdBy) {
+        List<Object> args = new ArrayList<>();
+        boolean canceling = RESERVATION_STATUS_CANCELED.equalsIgnoreCase(target);
+        Collections.addAll(args, target, Timestamp.valueOf(now), canceling, Timestamp.valueOf(now), id);
+        String condition;
+        if (from == null) {
+            condition = "estado IS DISTINCT FROM ? AND UPPER(COALESCE(estado, '')) <> ?";
+            args.add(target);
+            args.add(RESERVATION_STATUS_CANCELED);
+        } else {
+            condition = "UPPER(estado) IN (" + String.join(", ", Collections.nCopies(from.size(), "?")) + ")";
+            args.addAll(from);
+        }
+        StringBuilder sql = new StringBuilder(String.format(UPDATE_STATUS, condition));
+        if (notificationType != null) {
+            sql.append(INSERT_NOTIFICATION);
+            Collections.addAll(args, notificationType, messagePrefix, NotificationOutboxRepository.initialStatus(notificationType),
+                    createdBy, Timestamp.valueOf(now));
+        }
+        sql.append(SELECT_UPDATED);
+        return jdbcTemplate.query(sql.toString(), RESERVATION_MAPPER, args.toArray()).stream().findFirst();
+    }
+
+    public Optional<String> findStatus(Integer id) {
+        return jdbcTemplate.query("SELECT estado FROM reserva WHERE id_reserva = ?", (rs, i) -> rs.getString(1), id)
+                .stream().findFirst();
+    }
+}
@@ -1,14 +1,47 @@
 package com.marakosgrill.reservation.repository;
 
 import com.marakosgrill.reservation.model.ReservationTable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReservationTableRepository extends JpaRepository<ReservationTable, Integer> {
+    @EntityGraph(attributePaths = "reservation")
     List<ReservationTable> findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(LocalDate date, String excludedStatus);
     List<ReservationTable> findByReservation_Id(Integer reservationId);
+
+    // Desactiva en una sola sentencia los hijos quitados de la reserva
+    @Modifying
+    @Query("UPDATE ReservationTable rt SET rt.active = false, rt.updatedBy = :updatedBy, rt.updatedAt = :updatedAt " +
+            "WHERE rt.reservation.id = :reservationId AND rt.id IN :ids")
+    int deactivateByReservationIdAndIdIn(@Param("reservationId") Integer reservationId,
+                                         @Param("ids") Collection<Integer> ids,
+                                         @Param("updatedBy") Integer updatedBy,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Libera todas las mesas de la reserva (cancelación)
+    @Modifying
+    @Query("UPDATE ReservationTable rt SET rt.active = false, rt.updatedBy = :updatedBy, rt.updatedAt = :updatedAt " +
+            "WHERE rt.reservation.id = :reservationId AND rt.active = true")
+    int deactivateByReservationId(@Param("reservationId") Integer reservationId,
+                                  @Param("updatedBy") Integer updatedBy,
+                                  @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Mueve las mesas activas de la reserva a su nueva fecha/hora
+    @Modifying
+    @Query("UPDATE ReservationTable rt SET rt.reservationDate = :date, rt.reservationTime = :time " +
+            "WHERE rt.reservation.id = :reservationId AND rt.active = true")
+    int moveActiveToSlot(@Param("reservationId") Integer reservationId,
+                         @Param("date") LocalDate date,
+                         @Param("time") LocalTime time);
 }
@@ -0,0 +1,83 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.TableHoldRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+// Espejo en base de datos de los bloqueos temporales de mesas, compartido entre nodos
+@Repository
+@RequiredArgsConstructor
+public class TableHoldRepository {
+    // Toma la franja si está libre o si el bloqueo anterior ya venció
+    private static final String INSERT_HOLD = "INSERT INTO reserva_bloqueo_mesa " +
+            "(id_mesa, fecha_reserva, hora_reserva, token, fecha_creacion, fecha_expiracion) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id_mesa, fecha_reserva, hora_reserva) DO UPDATE SET token = EXCLUDED.token, " +
+            "fecha_creacion = EXCLUDED.fecha_creacion, fecha_expiracion = EXCLUDED.fecha_expiracion " +
+            "WHERE reserva_bloqueo_mesa.fecha_expiracion <= EXCLUDED.fecha_creacion";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // Cantidad de mesas bloqueadas; si es menor que tableIds.size() otra sesión tiene alguna
+    public int insert(String token, List<Integer> tableIds, LocalDate date, LocalTime time,
+                      LocalDateTime now, LocalDateTime expiresAt) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_HOLD, tableIds, tableIds.size(), (PreparedStatement ps, Integer tableId) -> {
+            ps.setInt(1, tableId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setTime(3, Time.valueOf(time));
+            ps.setString(4, token);
+            ps.setTimestamp(5, Timestamp.valueOf(now));
+            ps.setTimestamp(6, Timestamp.valueOf(expiresAt));
+        });
+        int held = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) held += count > 0 || count == java.sql.Statement.SUCCESS_NO_INFO ? 1 : 0;
+        }
+        return held;
+    }
+
+    // Mesas bloqueadas por otro token todavía vigente en una hora que se solapa con 'time'
+    public List<Integer> findHeldByOthers(Collection<Integer> tableIds, LocalDate date, LocalTime time,
+                                          int durationMinutes, String token, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tableIds", tableIds)
+                .addValue("date", Date.valueOf(date))
+                .addValue("time", Time.valueOf(time))
+                .addValue("seconds", durationMinutes * 60)
+                .addValue("token", token != null ? token : "")
+                .addValue("now", Timestamp.valueOf(now));
+        return namedParameterJdbcTemplate.queryForList("SELECT DISTINCT id_mesa FROM reserva_bloqueo_mesa " +
+                "WHERE id_mesa IN (:tableIds) AND fecha_reserva = :date " +
+                "AND ABS(EXTRACT(EPOCH FROM (hora_reserva - :time))) < :seconds " +
+                "AND token <> :token AND fecha_expiracion > :now", params, Integer.class);
+    }
+
+    public List<TableHoldRow> findActive(LocalDateTime now) {
+        return jdbcTemplate.query("SELECT token, id_mesa, fecha_reserva, hora_reserva, fecha_expiracion " +
+                        "FROM reserva_bloqueo_mesa WHERE fecha_expiracion > ?",
+                (rs, i) -> new TableHoldRow(rs.getString(1), rs.getInt(2), rs.getDate(3).toLocalDate(),
+                        rs.getTime(4).toLocalTime(), rs.getTimestamp(5).toLocalDateTime()),
+                Timestamp.valueOf(now));
+    }
+
+    public int deleteByToken(String token) {
+        return jdbcTemplate.update("DELETE FROM reserva_bloqueo_mesa WHERE token = ?", token);
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update("DELETE FROM reserva_bloqueo_mesa WHERE fecha_expiracion <= ?", Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,52 @@
+package com.marakosgrill.reservation.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Respaldo entre nodos de la ocupación por intervalos. El índice único de reserva_mesa solo
+// impide reservas a la misma hora exacta; las que se solapan se serializan con un lock
+// transaccional por mesa/día y se verifican contra la tabla antes de escribir.
+@Repository
+@RequiredArgsConstructor
+public class TableOverlapRepository {
+    private static final String FIND_OVERLAPPING = "SELECT DISTINCT id_mesa FROM reserva_mesa " +
+            "WHERE id_mesa IN (:tableIds) AND fecha_reserva = :date AND registro_activo = true " +
+            "AND hora_reserva IS NOT NULL AND id_reserva <> :exceptId " +
+            "AND ABS(EXTRACT(EPOCH FROM (hora_reserva - :time))) < :seconds";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // pg_advisory_xact_lock(mesa, día): se libera solo al terminar la transacción.
+    // Se toman en orden ascendente para evitar interbloqueos entre reservas de varias mesas.
+    public void lockTableDays(Collection<Integer> tableIds, LocalDate date) {
+        int day = (int) date.toEpochDay();
+        tableIds.stream().filter(Objects::nonNull).distinct().sorted().forEach(tableId ->
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", (RowCallbackHandler) rs -> { }, tableId, day));
+    }
+
+    // Mesas con otra reserva activa cuya hora está a menos de durationMinutes de 'time'
+    public List<Integer> findOverlappingTables(Collection<Integer> tableIds, LocalDate date, LocalTime time,
+                                               int durationMinutes, Integer exceptReservationId) {
+        if (tableIds.isEmpty()) return List.of();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tableIds", tableIds)
+                .addValue("date", Date.valueOf(date))
+                .addValue("time", Time.valueOf(time))
+                .addValue("seconds", durationMinutes * 60)
+                .addValue("exceptId", exceptReservationId != null ? exceptReservationId : -1);
+        return namedParameterJdbcTemplate.queryForList(FIND_OVERLAPPING, params, Integer.class);
+    }
+}
@@ -9,4 +9,5 @@ import java.util.List;
 @Repository
 public interface TableRepository extends JpaRepository<TableEntity, Integer> {
     List<TableEntity> findByActiveTrue();
+    long countByActiveTrue();
 }
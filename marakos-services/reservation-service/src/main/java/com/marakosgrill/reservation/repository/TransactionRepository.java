@@ -2,11 +2,25 @@ package com.marakosgrill.reservation.repository;
 
 import com.marakosgrill.reservation.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
     List<Transaction> findByReservation_Id(Integer reservationId);
+
+    // Desactiva en una sola sentencia los hijos quitados de la reserva
+    @Modifying
+    @Query("UPDATE Transaction t SET t.active = false, t.updatedBy = :updatedBy, t.updatedAt = :updatedAt " +
+            "WHERE t.reservation.id = :reservationId AND t.id IN :ids")
+    int deactivateByReservationIdAndIdIn(@Param("reservationId") Integer reservationId,
+                                         @Param("ids") Collection<Integer> ids,
+                                         @Param("updatedBy") Integer updatedBy,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,90 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.repository.projection.WaitlistEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.marakosgrill.reservation.util.constant.WAITLIST_STATUS_CANCELED;
+import static com.marakosgrill.reservation.util.constant.WAITLIST_STATUS_EXPIRED;
+import static com.marakosgrill.reservation.util.constant.WAITLIST_STATUS_PROMOTED;
+import static com.marakosgrill.reservation.util.constant.WAITLIST_STATUS_WAITING;
+
+// Lista de espera compartida entre nodos. Los cambios de estado son condicionales
+// (solo desde EN_ESPERA): una solicitud se promueve o se retira una sola vez.
+@Repository
+@RequiredArgsConstructor
+public class WaitlistRepository {
+    private static final String COLUMNS = "id_lista_espera, id_cliente, fecha_reserva, hora_reserva, cantidad_personas, " +
+            "forma_pago, documento_identidad_titular, telefono_titular, nombre_titular, email_titular, observacion, " +
+            "tyc, estado, id_reserva, id_usuario_creacion, fecha_creacion";
+
+    private static final RowMapper<WaitlistEntry> ROW_MAPPER = (rs, i) -> new WaitlistEntry(
+            rs.getInt(1), rs.getInt(2), rs.getDate(3).toLocalDate(), rs.getTime(4).toLocalTime(), rs.getInt(5),
+            rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(10), rs.getString(11),
+            rs.getInt(12), rs.getString(13), (Integer) rs.getObject(14), rs.getInt(15),
+            rs.getTimestamp(16).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insert(WaitlistEntry entry) {
+        return jdbcTemplate.queryForObject("INSERT INTO reserva_lista_espera (id_cliente, fecha_reserva, hora_reserva, " +
+                        "cantidad_personas, forma_pago, documento_identidad_titular, telefono_titular, nombre_titular, " +
+                        "email_titular, observacion, tyc, estado, id_usuario_creacion, fecha_creacion) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_lista_espera", Integer.class,
+                entry.customerId(), Date.valueOf(entry.reservationDate()), Time.valueOf(entry.reservationTime()),
+                entry.peopleCount(), entry.paymentMethod(), entry.holderDocument(), entry.holderPhone(),
+                entry.holderName(), entry.holderEmail(), entry.observation(), entry.termsAccepted(), WAITLIST_STATUS_WAITING,
+                entry.createdBy(), Timestamp.valueOf(entry.createdAt()));
+    }
+
+    public Optional<WaitlistEntry> findById(Integer id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM reserva_lista_espera WHERE id_lista_espera = ?",
+                ROW_MAPPER, id).stream().findFirst();
+    }
+
+    // Solicitudes todavía en espera desde la fecha indicada, en orden de llegada
+    public List<WaitlistEntry> findWaitingFrom(LocalDate from) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM reserva_lista_espera " +
+                "WHERE estado = ? AND fecha_reserva >= ? ORDER BY id_lista_espera", ROW_MAPPER, WAITLIST_STATUS_WAITING, Date.valueOf(from));
+    }
+
+    public List<WaitlistEntry> findWaitingByDate(LocalDate date) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM reserva_lista_espera " +
+                "WHERE estado = ? AND fecha_reserva = ? ORDER BY hora_reserva, id_lista_espera", ROW_MAPPER, WAITLIST_STATUS_WAITING, Date.valueOf(date));
+    }
+
+    // Toma la solicitud para promoverla (lock de fila hasta el commit); false si otro nodo
+    // ya la promovió o el cliente la retiró
+    public boolean markPromoted(Integer id, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE reserva_lista_espera SET estado = ?, fecha_promocion = ?, " +
+                        "fecha_modificacion = ? WHERE id_lista_espera = ? AND estado = ?",
+                WAITLIST_STATUS_PROMOTED, Timestamp.valueOf(now), Timestamp.valueOf(now), id, WAITLIST_STATUS_WAITING) > 0;
+    }
+
+    public void attachReservation(Integer id, Integer reservationId) {
+        jdbcTemplate.update("UPDATE reserva_lista_espera SET id_reserva = ? WHERE id_lista_espera = ?", reservationId, id);
+    }
+
+    public boolean cancel(Integer id, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE reserva_lista_espera SET estado = ?, fecha_modificacion = ? " +
+                        "WHERE id_lista_espera = ? AND estado = ?",
+                WAITLIST_STATUS_CANCELED, Timestamp.valueOf(now), id, WAITLIST_STATUS_WAITING) > 0;
+    }
+
+    // Solicitudes cuya fecha/hora ya pasó sin que se liberara una mesa
+    public int expirePast(LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE reserva_lista_espera SET estado = ?, fecha_modificacion = ? " +
+                        "WHERE estado = ? AND fecha_reserva + hora_reserva < ?",
+                WAITLIST_STATUS_EXPIRED, Timestamp.valueOf(now), WAITLIST_STATUS_WAITING, Timestamp.valueOf(now));
+    }
+}
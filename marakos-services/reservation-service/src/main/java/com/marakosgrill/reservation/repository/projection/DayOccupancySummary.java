@@ -0,0 +1,7 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+
+// Resumen agregado de un día: franjas mesa-hora reservadas y máscara de turnos de evento ocupados
+public record DayOccupancySummary(LocalDate date, int bookedTableSlots, int occupiedShiftMask) {
+}
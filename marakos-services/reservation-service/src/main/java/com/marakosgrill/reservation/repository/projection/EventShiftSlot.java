@@ -0,0 +1,8 @@
+package com.marakosgrill.reservation.repository.projection;
+
+// Proyección mínima de una reserva de evento para el índice de turnos
+public interface EventShiftSlot {
+    Integer getId();
+    Integer getEventTypeId();
+    Integer getEventShift();
+}
@@ -0,0 +1,5 @@
+package com.marakosgrill.reservation.repository.projection;
+
+// Notificación tomada por el despachador del outbox
+public record PendingNotification(Integer id, Integer reservationId, String notificationType, int attempts) {
+}
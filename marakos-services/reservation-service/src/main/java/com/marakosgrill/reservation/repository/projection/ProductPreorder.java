@@ -0,0 +1,10 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Cantidad prepedida de un producto en una reserva (fila de la consulta agrupada de cocina)
+public record ProductPreorder(Integer reservationId, LocalDate reservationDate, LocalTime reservationTime,
+                              String reservationType, Integer eventShift, Integer productId, String productName,
+                              int quantity) {
+}
@@ -0,0 +1,20 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Filas hijas de una reserva leídas en una sola consulta (mesas, productos, servicios y pagos)
+public record ReservationChildren(List<ReservationTable> tables,
+                                  List<ReservationProduct> products,
+                                  List<ReservationEvent> events,
+                                  List<Transaction> transactions) {
+
+    public static ReservationChildren empty() {
+        return new ReservationChildren(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,12 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Fila de la exportación de reservas, con las mesas y los productos ya resumidos
+public record ReservationExportRow(Integer id, String code, LocalDate reservationDate, LocalTime reservationTime,
+                                   String status, String reservationType, Integer peopleCount, Integer customerId,
+                                   String holderName, String holderPhone, String holderEmail, String paymentMethod,
+                                   String tableCodes, int productCount, BigDecimal productTotal) {
+}
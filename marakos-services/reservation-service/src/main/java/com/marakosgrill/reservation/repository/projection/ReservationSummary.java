@@ -0,0 +1,22 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Columnas que usan los listados de reservas (sin hijos ni datos de evento)
+public interface ReservationSummary {
+    Integer getId();
+    String getCode();
+    Integer getCustomerId();
+    LocalDate getReservationDate();
+    LocalTime getReservationTime();
+    Integer getPeopleCount();
+    String getStatus();
+    String getReservationType();
+    String getHolderName();
+    String getHolderPhone();
+    Integer getTermsAccepted();
+    LocalDateTime getCreatedAt();
+    Boolean getActive();
+}
@@ -0,0 +1,5 @@
+package com.marakosgrill.reservation.repository.projection;
+
+// Fila de solicitud_idempotente; response es null mientras la solicitud sigue en proceso
+public record StoredIdempotentRequest(String fingerprint, String status, String response) {
+}
@@ -0,0 +1,9 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Reserva cancelada por el barrido de pendientes, con lo necesario para actualizar los índices
+public record SweptReservation(Integer id, LocalDate reservationDate, LocalTime reservationTime,
+                               String reservationType, Integer eventTypeId, Integer eventShift) {
+}
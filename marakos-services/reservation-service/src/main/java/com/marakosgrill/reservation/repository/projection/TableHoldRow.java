@@ -0,0 +1,9 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Fila vigente de reserva_bloqueo_mesa
+public record TableHoldRow(String token, Integer tableId, LocalDate date, LocalTime time, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,18 @@
+package com.marakosgrill.reservation.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Solicitud en lista de espera; el id (serial) define el orden de llegada entre nodos
+public record WaitlistEntry(Integer id, Integer customerId, LocalDate reservationDate, LocalTime reservationTime,
+                            int peopleCount, String paymentMethod, String holderDocument, String holderPhone,
+                            String holderName, String holderEmail, String observation, int termsAccepted,
+                            String status, Integer reservationId, Integer createdBy, LocalDateTime createdAt) {
+
+    public WaitlistEntry withId(Integer newId) {
+        return new WaitlistEntry(newId, customerId, reservationDate, reservationTime, peopleCount, paymentMethod,
+                holderDocument, holderPhone, holderName, holderEmail, observation, termsAccepted, status,
+                reservationId, createdBy, createdAt);
+    }
+}
@@ -0,0 +1,198 @@
+package com.marakosgrill.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marakosgrill.reservation.repository.IdempotencyKeyRepository;
+import com.marakosgrill.reservation.repository.projection.StoredIdempotentRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Ejecuta una acción una sola vez por Idempotency-Key. En memoria guarda las últimas claves
+// (LRU con vencimiento) y las solicitudes duplicadas en curso esperan el resultado de la primera;
+// la tabla solicitud_idempotente cubre los reintentos que llegan a otro nodo.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyStore {
+    private static final int MAX_ENTRIES = 10_000;
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration WAIT = Duration.ofSeconds(30);
+    // Una solicitud en proceso por más tiempo se considera abandonada por un nodo caído
+    private static final Duration STALE_IN_PROGRESS = Duration.ofMinutes(2);
+    private static final long POLL_MILLIS = 200;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public <T> T execute(String key, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        LocalDateTime now = LocalDateTime.now();
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.expiresAt.isBefore(now)) {
+                entry = new Entry(fingerprint, new CompletableFuture<>(), now.plus(TTL));
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new RuntimeException("Idempotency-Key already used with a different request");
+        }
+        if (!owner) {
+            return type.cast(await(entry.result));
+        }
+        try {
+            T result = executeOnce(key, fingerprint, type, action);
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Un fallo no se memoriza: el cliente puede reintentar con la misma clave
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Coordina entre nodos con la tabla; si otro nodo tiene la clave, espera su respuesta
+    private <T> T executeOnce(String key, String fingerprint, Class<T> type, Supplier<T> action) {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            boolean claimed;
+            try {
+                claimed = idempotencyKeyRepository.tryClaim(key, fingerprint, now, now.plus(TTL), now.minus(STALE_IN_PROGRESS));
+            } catch (DataAccessException e) {
+                log.warn("⚠️ Tabla de idempotencia no disponible, solo se deduplica en este nodo: {}", e.getMessage());
+                return action.get();
+            }
+            if (claimed) {
+                return runAndStore(key, action);
+            }
+            Optional<StoredIdempotentRequest> stored = idempotencyKeyRepository.find(key);
+            if (stored.isPresent()) {
+                if (!stored.get().fingerprint().equals(fingerprint)) {
+                    throw new RuntimeException("Idempotency-Key already used with a different request");
+                }
+                if (IdempotencyKeyRepository.STATUS_COMPLETED.equals(stored.get().status())) {
+                    log.info("🔁 Respuesta repetida para Idempotency-Key {}", key);
+                    return deserialize(stored.get().response(), type);
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("A request with this Idempotency-Key is still in progress");
+            }
+            sleep();
+        }
+    }
+
+    private <T> T runAndStore(String key, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            try {
+                idempotencyKeyRepository.release(key);
+            } catch (DataAccessException releaseError) {
+                log.warn("⚠️ No se pudo liberar la Idempotency-Key {}: {}", key, releaseError.getMessage());
+            }
+            throw e;
+        }
+        try {
+            idempotencyKeyRepository.complete(key, objectMapper.writeValueAsString(result));
+        } catch (JsonProcessingException | DataAccessException e) {
+            // La reserva ya se creó: se devuelve igual y la caché en memoria cubre los reintentos locales
+            log.warn("⚠️ No se pudo guardar la respuesta de la Idempotency-Key {}: {}", key, e.getMessage());
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 3_600_000)
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.result.isDone() && entry.expiresAt.isBefore(now));
+        }
+        try {
+            int deleted = idempotencyKeyRepository.deleteExpired(now);
+            if (deleted > 0) log.info("🧹 Idempotency-Keys vencidas eliminadas: {}", deleted);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudieron eliminar las Idempotency-Keys vencidas: {}", e.getMessage());
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get(WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Request interrupted", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not read request", e);
+        }
+    }
+
+    private <T> T deserialize(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read stored response", e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Request interrupted", e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, LocalDateTime expiresAt) {
+    }
+}
@@ -1,9 +1,17 @@
 package com.marakosgrill.reservation.service;
 
+import com.marakosgrill.reservation.dto.CalendarDayAvailabilityResponse;
 import com.marakosgrill.reservation.dto.EventShiftAvailabilityResponse;
+import com.marakosgrill.reservation.dto.KitchenForecastResponse;
+import com.marakosgrill.reservation.dto.ReservationExportFormat;
+import com.marakosgrill.reservation.dto.ReservationPageResponse;
 import com.marakosgrill.reservation.dto.ReservationRequest;
 import com.marakosgrill.reservation.dto.ReservationResponse;
 import com.marakosgrill.reservation.dto.ScheduleAvailabilityResponse;
+import com.marakosgrill.reservation.dto.TableHoldRequest;
+import com.marakosgrill.reservation.dto.TableHoldResponse;
+import com.marakosgrill.reservation.dto.TableSuggestionResponse;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -11,10 +19,20 @@ import java.util.List;
 public interface ReservationService {
     ReservationResponse createReservation(ReservationRequest request);
     ReservationResponse getReservationById(Integer id);
+    // Detalle de varias reservas sin consultas por cada una; conserva el orden solicitado
+    List<ReservationResponse> getReservationsByIds(List<Integer> ids);
     List<ReservationResponse> findReservationsByCustomer(Integer customerId);
     List<ReservationResponse> findReservationsByDateAndStatus(LocalDate date, String status);
+    // Versiones paginadas por cursor de los listados anteriores
+    ReservationPageResponse findReservationsByCustomerPage(Integer customerId, String cursor, Integer size);
+    ReservationPageResponse findReservationsByDateAndStatusPage(LocalDate date, String status, String cursor, Integer size);
     boolean isTableAvailable(Integer tableId, LocalDate date, LocalTime time);
+    // Mesa (o mesas juntas de una misma ubicación) libre que mejor se ajusta al grupo
+    TableSuggestionResponse suggestTables(LocalDate date, LocalTime time, Integer peopleCount);
     boolean isEventAvailable(Integer eventTypeId, LocalDate date, String shift);
+    // Bloquea mesas por unos minutos mientras el cliente paga; el token se envía al crear la reserva
+    TableHoldResponse holdTables(TableHoldRequest request);
+    void releaseHold(String token);
     ReservationResponse updateReservation(Integer id, ReservationRequest request);
     ReservationResponse cancelReservation(Integer id);
     // Consulta la disponibilidad de horarios y mesas para una fecha específica
@@ -25,4 +43,12 @@ public interface ReservationService {
     ReservationResponse updateReservationStatus(Integer id, String status);
     // Obtiene los turnos disponibles y ocupados para eventos en una fecha específica
     EventShiftAvailabilityResponse getEventShiftAvailability(LocalDate date);
+    // Resumen de disponibilidad por día (mesas y turnos de evento) para pintar un calendario
+    List<CalendarDayAvailabilityResponse> getAvailabilityCalendar(LocalDate from, LocalDate to);
+    // Productos prepedidos del día agrupados por franja y turno, para planificar la cocina
+    KitchenForecastResponse getKitchenForecast(LocalDate date);
+    // Se valida antes de empezar a escribir la respuesta de la exportación
+    void validateExportRange(LocalDate from, LocalDate to);
+    // Escribe las reservas del rango en 'out' fila por fila, sin cargarlas todas en memoria
+    void exportReservations(LocalDate from, LocalDate to, ReservationExportFormat format, OutputStream out);
 }
@@ -0,0 +1,16 @@
+package com.marakosgrill.reservation.service;
+
+import com.marakosgrill.reservation.dto.WaitlistRequest;
+import com.marakosgrill.reservation.dto.WaitlistResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WaitlistService {
+    // Anota al cliente en espera para una fecha/hora sin mesas libres para su grupo
+    WaitlistResponse joinWaitlist(WaitlistRequest request);
+    WaitlistResponse getWaitlistEntry(Integer id);
+    // Solicitudes en espera del día, por hora y orden de llegada
+    List<WaitlistResponse> findWaitingByDate(LocalDate date);
+    WaitlistResponse leaveWaitlist(Integer id);
+}
@@ -0,0 +1,71 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.AvailabilityCalendarRepository;
+import com.marakosgrill.reservation.repository.projection.DayOccupancySummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caché por día del resumen de ocupación usado por el calendario mensual.
+// Los días que faltan se leen con una sola consulta agrupada y cada cambio de reserva
+// invalida el día afectado.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityCalendar {
+    private final AvailabilityCalendarRepository availabilityCalendarRepository;
+
+    private final Map<LocalDate, DayOccupancySummary> days = new ConcurrentHashMap<>();
+    // Se incrementa con cada invalidación; una carga que se cruza con un cambio no se guarda
+    private final AtomicLong generation = new AtomicLong();
+
+    public Map<LocalDate, DayOccupancySummary> summaries(LocalDate from, LocalDate to) {
+        Map<LocalDate, DayOccupancySummary> result = new TreeMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DayOccupancySummary cached = days.get(date);
+            if (cached != null) {
+                result.put(date, cached);
+            } else {
+                if (firstMissing == null) firstMissing = date;
+                lastMissing = date;
+            }
+        }
+        if (firstMissing == null) return result;
+
+        long startGeneration = generation.get();
+        Map<LocalDate, DayOccupancySummary> loaded = new TreeMap<>();
+        for (LocalDate date = firstMissing; !date.isAfter(lastMissing); date = date.plusDays(1)) {
+            loaded.put(date, new DayOccupancySummary(date, 0, 0));
+        }
+        for (DayOccupancySummary summary : availabilityCalendarRepository.summarize(firstMissing, lastMissing)) {
+            loaded.put(summary.date(), summary);
+        }
+        log.info("📦 Calendario de disponibilidad cargado del {} al {}", firstMissing, lastMissing);
+
+        if (generation.get() == startGeneration) {
+            days.keySet().removeIf(d -> d.isBefore(LocalDate.now()));
+            loaded.forEach((date, summary) -> {
+                if (!date.isBefore(LocalDate.now())) days.put(date, summary);
+            });
+        }
+        loaded.forEach(result::putIfAbsent);
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getPreviousDate() != null) days.remove(event.getPreviousDate());
+        if (event.getReservationDate() != null) days.remove(event.getReservationDate());
+    }
+}
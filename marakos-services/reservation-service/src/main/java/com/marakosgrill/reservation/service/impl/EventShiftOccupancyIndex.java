@@ -0,0 +1,147 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.ReservationRepository;
+import com.marakosgrill.reservation.repository.projection.EventShiftSlot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CHECK_OUT;
+
+// Índice en memoria de turnos de eventos ocupados: (fecha, tipo de evento, turno) -> reservas.
+// Se carga por día con una consulta dirigida, se mantiene con los eventos de reserva y se vuelve
+// a leer cada reload-interval-ms para recoger lo que reservaron otros nodos.
+@Component
+@Slf4j
+public class EventShiftOccupancyIndex {
+    // 1: Mañana, 2: Tarde, 3: Noche
+    public static final List<Integer> EVENT_SHIFTS = List.of(1, 2, 3);
+
+    private final ReservationRepository reservationRepository;
+    private final long reloadIntervalMs;
+
+    private final Map<LocalDate, DayEvents> days = new ConcurrentHashMap<>();
+
+    public EventShiftOccupancyIndex(ReservationRepository reservationRepository,
+                                    @Value("${reservation.occupancy.reload-interval-ms:30000}") long reloadIntervalMs) {
+        this.reservationRepository = reservationRepository;
+        this.reloadIntervalMs = reloadIntervalMs;
+    }
+
+    public boolean isOccupied(Integer eventTypeId, LocalDate date, Integer shift) {
+        if (eventTypeId == null || date == null || shift == null) return false;
+        DayEvents day = loadedDay(date);
+        synchronized (day) {
+            return day.countsByTypeAndShift.getOrDefault(key(eventTypeId, shift), 0) > 0;
+        }
+    }
+
+    // Turnos ocupados por cualquier tipo de evento en la fecha
+    public List<Integer> occupiedShifts(LocalDate date) {
+        DayEvents day = loadedDay(date);
+        synchronized (day) {
+            List<Integer> occupied = new ArrayList<>();
+            for (Integer shift : EVENT_SHIFTS) {
+                if (day.shiftCounts[shift] > 0) occupied.add(shift);
+            }
+            return occupied;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getPreviousDate() != null && !event.getPreviousDate().equals(event.getReservationDate())) {
+            DayEvents previous = days.get(event.getPreviousDate());
+            if (previous != null) {
+                synchronized (previous) {
+                    previous.remove(event.getReservationId());
+                }
+            }
+        }
+        if (event.getReservationDate() == null) return;
+        DayEvents day = days.get(event.getReservationDate());
+        if (day == null) return; // Día no cargado: se leerá de la base de datos cuando se consulte
+        synchronized (day) {
+            day.remove(event.getReservationId());
+            if (event.isOccupyingEventShift() && isValidShift(event.getEventShift())) {
+                day.place(event.getReservationId(), event.getEventTypeId(), event.getEventShift());
+            }
+        }
+    }
+
+    private DayEvents loadedDay(LocalDate date) {
+        DayEvents day = days.get(date);
+        if (day == null) {
+            days.keySet().removeIf(d -> d.isBefore(LocalDate.now()));
+            day = days.computeIfAbsent(date, d -> new DayEvents());
+        }
+        if (System.currentTimeMillis() >= day.reloadAt) {
+            synchronized (day) {
+                if (System.currentTimeMillis() >= day.reloadAt) {
+                    boolean reload = day.reloadAt > 0;
+                    day.clear();
+                    List<EventShiftSlot> slots = reservationRepository.findOccupiedEventShifts(date,
+                            List.of(RESERVATION_STATUS_CANCELED, RESERVATION_STATUS_CHECK_OUT));
+                    for (EventShiftSlot slot : slots) {
+                        if (isValidShift(slot.getEventShift())) {
+                            day.place(slot.getId(), slot.getEventTypeId(), slot.getEventShift());
+                        }
+                    }
+                    day.reloadAt = System.currentTimeMillis() + reloadIntervalMs;
+                    if (reload) {
+                        log.debug("🔄 Turnos de eventos recargados para {}: {} reservas", date, slots.size());
+                    } else {
+                        log.info("📦 Turnos de eventos cargados para {}: {} reservas", date, slots.size());
+                    }
+                }
+            }
+        }
+        return day;
+    }
+
+    private static boolean isValidShift(Integer shift) {
+        return shift != null && EVENT_SHIFTS.contains(shift);
+    }
+
+    private static long key(int eventTypeId, int shift) {
+        return ((long) eventTypeId << 8) | shift;
+    }
+
+    private static final class DayEvents {
+        private final Map<Integer, long[]> placements = new HashMap<>();
+        private final Map<Long, Integer> countsByTypeAndShift = new HashMap<>();
+        private final int[] shiftCounts = new int[EVENT_SHIFTS.size() + 1];
+        // 0 hasta la primera carga
+        private volatile long reloadAt;
+
+        void place(Integer reservationId, int eventTypeId, int shift) {
+            remove(reservationId);
+            placements.put(reservationId, new long[]{key(eventTypeId, shift), shift});
+            countsByTypeAndShift.merge(key(eventTypeId, shift), 1, Integer::sum);
+            shiftCounts[shift]++;
+        }
+
+        void clear() {
+            placements.clear();
+            countsByTypeAndShift.clear();
+            java.util.Arrays.fill(shiftCounts, 0);
+        }
+
+        void remove(Integer reservationId) {
+            long[] placement = placements.remove(reservationId);
+            if (placement == null) return;
+            countsByTypeAndShift.computeIfPresent(placement[0], (k, count) -> count > 1 ? count - 1 : null);
+            shiftCounts[(int) placement[1]]--;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.KitchenForecastResponse;
+import com.marakosgrill.reservation.dto.KitchenProductForecastResponse;
+import com.marakosgrill.reservation.dto.KitchenSlotForecastResponse;
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.KitchenForecastRepository;
+import com.marakosgrill.reservation.repository.projection.ProductPreorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Agregado en memoria de productos prepedidos por fecha y franja para la cocina.
+// Se reconstruye con una consulta agrupada al iniciar (y periódicamente, por si algún cambio
+// no llegó como evento) y cada alta/modificación/cancelación se aplica como diferencia.
+// La respuesta de cada día se arma una vez y se reutiliza hasta el siguiente cambio.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KitchenForecast {
+    private static final Map<Integer, String> EVENT_SHIFT_NAMES = Map.of(1, "Mañana", 2, "Tarde", 3, "Noche");
+    private static final Comparator<SlotKey> SLOT_ORDER = Comparator
+            .comparing(SlotKey::time, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SlotKey::shift, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final KitchenForecastRepository kitchenForecastRepository;
+    private final ReservationSchedule reservationSchedule;
+
+    // Aporte de cada reserva: permite restar lo anterior antes de sumar lo nuevo
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final Map<LocalDate, DayTotals> days = new HashMap<>();
+    private final Map<LocalDate, KitchenForecastResponse> views = new ConcurrentHashMap<>();
+    private final Map<Integer, String> productNames = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+    // Eventos recibidos mientras corre la consulta de reconstrucción; se vuelven a aplicar al final
+    private List<ReservationChangedEvent> pendingDuringRebuild;
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.kitchen.reconcile-interval-ms:600000}",
+            initialDelayString = "${reservation.kitchen.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    public KitchenForecastResponse forecast(LocalDate date) {
+        if (!loaded && !rebuild()) {
+            throw new RuntimeException("Kitchen forecast is not available, try again later");
+        }
+        KitchenForecastResponse view = views.get(date);
+        if (view != null) return view;
+
+        Set<Integer> missingNames;
+        synchronized (this) {
+            missingNames = productIds(date);
+            missingNames.removeAll(productNames.keySet());
+        }
+        if (!missingNames.isEmpty()) {
+            try {
+                productNames.putAll(kitchenForecastRepository.findProductNames(missingNames));
+            } catch (DataAccessException e) {
+                log.warn("⚠️ No se pudieron leer los nombres de productos: {}", e.getMessage());
+            }
+        }
+        synchronized (this) {
+            view = buildView(date);
+            views.put(date, view);
+            return view;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(event);
+            if (loaded) apply(event);
+        }
+    }
+
+    // Falso si la base de datos no está disponible; se reintenta en la próxima consulta o reconciliación
+    boolean rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingDuringRebuild = new ArrayList<>();
+            }
+            List<ProductPreorder> rows;
+            try {
+                rows = kitchenForecastRepository.findPreordersFrom(LocalDate.now());
+            } catch (DataAccessException e) {
+                synchronized (this) {
+                    pendingDuringRebuild = null;
+                }
+                log.warn("⚠️ No se pudo reconstruir el pronóstico de cocina: {}", e.getMessage());
+                return false;
+            }
+            Map<Integer, Contribution> rebuilt = new HashMap<>();
+            for (ProductPreorder row : rows) {
+                if (row.productName() != null) productNames.put(row.productId(), row.productName());
+                rebuilt.computeIfAbsent(row.reservationId(), id -> new Contribution(id, row.reservationDate(),
+                                slotKey(row.reservationDate(), row.reservationTime(), row.reservationType(), row.eventShift()),
+                                new HashMap<>()))
+                        .quantities().merge(row.productId(), row.quantity(), Integer::sum);
+            }
+            synchronized (this) {
+                contributions.clear();
+                days.clear();
+                views.clear();
+                rebuilt.values().forEach(this::add);
+                loaded = true;
+                // Idempotente: cada evento reemplaza el aporte completo de su reserva
+                pendingDuringRebuild.forEach(this::apply);
+                pendingDuringRebuild = null;
+            }
+            log.info("🍳 Pronóstico de cocina reconstruido: {} reservas con productos", rebuilt.size());
+            return true;
+        }
+    }
+
+    private void apply(ReservationChangedEvent event) {
+        Contribution previous = contributions.get(event.getReservationId());
+        remove(event.getReservationId());
+        LocalDate date = event.getReservationDate();
+        if (!event.isOccupying() || date == null || date.isBefore(LocalDate.now())) return;
+        // Sin productos en el evento (cambio de estado) se conservan los que ya tenía
+        Map<Integer, Integer> quantities = event.getProductQuantities() != null
+                ? event.getProductQuantities()
+                : previous != null ? previous.quantities() : Map.of();
+        if (quantities.isEmpty()) return;
+        add(new Contribution(event.getReservationId(), date,
+                slotKey(date, event.getReservationTime(), event.getReservationType(), event.getEventShift()),
+                new HashMap<>(quantities)));
+    }
+
+    private void add(Contribution contribution) {
+        contributions.put(contribution.reservationId(), contribution);
+        DayTotals day = days.computeIfAbsent(contribution.date(), d -> new DayTotals());
+        SlotTotals slot = day.slots.computeIfAbsent(contribution.slot(), s -> new SlotTotals());
+        slot.reservations++;
+        contribution.quantities().forEach((productId, quantity) -> slot.quantities.merge(productId, quantity, Integer::sum));
+        day.updatedAt = LocalDateTime.now();
+        views.remove(contribution.date());
+    }
+
+    private void remove(Integer reservationId) {
+        Contribution contribution = contributions.remove(reservationId);
+        if (contribution == null) return;
+        DayTotals day = days.get(contribution.date());
+        if (day != null) {
+            SlotTotals slot = day.slots.get(contribution.slot());
+            if (slot != null) {
+                contribution.quantities().forEach((productId, quantity) ->
+                        slot.quantities.computeIfPresent(productId, (id, total) -> total > quantity ? total - quantity : null));
+                if (--slot.reservations <= 0) day.slots.remove(contribution.slot());
+            }
+            day.updatedAt = LocalDateTime.now();
+            if (day.slots.isEmpty()) days.remove(contribution.date());
+        }
+        views.remove(contribution.date());
+    }
+
+    private SlotKey slotKey(LocalDate date, LocalTime time, String reservationType, Integer eventShift) {
+        if ("EVENTO".equalsIgnoreCase(reservationType) && eventShift != null) {
+            return new SlotKey(time, EVENT_SHIFT_NAMES.get(eventShift));
+        }
+        return new SlotKey(time, time != null ? reservationSchedule.shiftFor(date.getDayOfWeek(), time) : null);
+    }
+
+    private Set<Integer> productIds(LocalDate date) {
+        Set<Integer> ids = new HashSet<>();
+        DayTotals day = days.get(date);
+        if (day != null) day.slots.values().forEach(slot -> ids.addAll(slot.quantities.keySet()));
+        return ids;
+    }
+
+    private KitchenForecastResponse buildView(LocalDate date) {
+        DayTotals day = days.get(date);
+        List<KitchenSlotForecastResponse> slots = new ArrayList<>();
+        if (day != null) {
+            day.slots.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(SLOT_ORDER))
+                    .forEach(entry -> slots.add(KitchenSlotForecastResponse.builder()
+                            .time(entry.getKey().time())
+                            .shift(entry.getKey().shift())
+                            .reservationCount(entry.getValue().reservations)
+                            .products(entry.getValue().quantities.entrySet().stream()
+                                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                                            .thenComparing(Map.Entry.comparingByKey()))
+                                    .map(product -> KitchenProductForecastResponse.builder()
+                                            .productId(product.getKey())
+                                            .productName(productNames.get(product.getKey()))
+                                            .quantity(product.getValue())
+                                            .build())
+                                    .toList())
+                            .build()));
+        }
+        return KitchenForecastResponse.builder()
+                .date(date)
+                .updatedAt(day != null ? day.updatedAt : null)
+                .slots(List.copyOf(slots))
+                .build();
+    }
+
+    private record SlotKey(LocalTime time, String shift) {
+    }
+
+    private record Contribution(Integer reservationId, LocalDate date, SlotKey slot, Map<Integer, Integer> quantities) {
+    }
+
+    private static final class DayTotals {
+        private final Map<SlotKey, SlotTotals> slots = new HashMap<>();
+        private LocalDateTime updatedAt;
+    }
+
+    private static final class SlotTotals {
+        private final Map<Integer, Integer> quantities = new HashMap<>();
+        private int reservations;
+    }
+}
@@ -0,0 +1,257 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.ReservationNotificationData;
+import com.marakosgrill.reservation.model.EventType;
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.TableEntity;
+import com.marakosgrill.reservation.repository.EventTypeRepository;
+import com.marakosgrill.reservation.repository.NotificationOutboxRepository;
+import com.marakosgrill.reservation.repository.ReservationDetailRepository;
+import com.marakosgrill.reservation.repository.ReservationRepository;
+import com.marakosgrill.reservation.repository.TableRepository;
+import com.marakosgrill.reservation.repository.projection.PendingNotification;
+import com.marakosgrill.reservation.repository.projection.ReservationChildren;
+import com.marakosgrill.reservation.util.EventOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Despachador del outbox de notificaciones: las filas PENDIENTE que se escriben en la misma
+// transacción que la reserva se envían aquí a notification-service, con reintentos y backoff.
+// Puede correr en varios nodos: cada lote se toma con FOR UPDATE SKIP LOCKED.
+// La entrega es "al menos una vez": si el envío llega pero falla markSent (o vence el lease), la fila
+// se reintenta, así que cada envío lleva id_notificacion como Idempotency-Key y notification-service
+// descarta las claves que ya entregó.
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NotificationOutboxDispatcher {
+    // Tipo de notificación -> endpoint de notification-service (uno por cada DISPATCHED_TYPES)
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "CREATION", "/api/notification/reservation/confirmed",
+            "CANCELLATION", "/api/notification/reservation/cancelled");
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final Duration LEASE = Duration.ofMinutes(2);
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationDetailRepository reservationDetailRepository;
+    private final TableRepository tableRepository;
+    private final EventTypeRepository eventTypeRepository;
+    private final RestTemplate restTemplate;
+    private final String notificationServiceUrl;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        ReservationRepository reservationRepository,
+                                        ReservationDetailRepository reservationDetailRepository,
+                                        TableRepository tableRepository,
+                                        EventTypeRepository eventTypeRepository,
+                                        RestTemplate restTemplate,
+                                        @Value("${notification.service.url}") String notificationServiceUrl,
+                                        @Value("${reservation.outbox.batch-size:50}") int batchSize,
+                                        @Value("${reservation.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationDetailRepository = reservationDetailRepository;
+        this.tableRepository = tableRepository;
+        this.eventTypeRepository = eventTypeRepository;
+        this.restTemplate = restTemplate;
+        this.notificationServiceUrl = notificationServiceUrl;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.outbox.interval-ms:5000}", initialDelayString = "${reservation.outbox.interval-ms:5000}")
+    public void dispatch() {
+        try {
+            List<PendingNotification> batch;
+            do {
+                batch = dispatchBatch();
+            } while (batch.size() == batchSize);
+        } catch (DataAccessException e) {
+            // Base de datos no disponible: se reintenta en la siguiente ejecución
+            log.warn("⚠️ Outbox de notificaciones no disponible: {}", e.getMessage());
+        }
+    }
+
+    List<PendingNotification> dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingNotification> batch = outboxRepository.claim(NotificationOutboxRepository.DISPATCHED_TYPES, batchSize, now, now.plus(LEASE));
+        if (batch.isEmpty()) return batch;
+
+        List<Integer> reservationIds = batch.stream().map(PendingNotification::reservationId).distinct().collect(Collectors.toList());
+        Map<Integer, Reservation> reservations = reservationRepository.findAllById(reservationIds).stream()
+                .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+        Map<Integer, ReservationChildren> children = reservationDetailRepository.findChildren(reservations.keySet());
+        Names names = loadNames(reservations.values(), children.values());
+
+        for (PendingNotification notification : batch) {
+            Reservation reservation = reservations.get(notification.reservationId());
+            if (reservation == null) {
+                outboxRepository.markFailed(notification.id(), false, null, "Reserva no encontrada", LocalDateTime.now());
+                continue;
+            }
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(IDEMPOTENCY_KEY_HEADER, "notificacion-" + notification.id());
+                restTemplate.postForEntity(notificationServiceUrl + ENDPOINTS.get(notification.notificationType()),
+                        new HttpEntity<>(toNotificationData(reservation, children.get(reservation.getId()), names), headers),
+                        String.class);
+                outboxRepository.markSent(notification.id(), LocalDateTime.now());
+                log.info("📨 Notificación {} enviada para reserva {}", notification.notificationType(), reservation.getCode());
+            } catch (RestClientException e) {
+                int attempts = notification.attempts() + 1;
+                boolean retry = attempts < maxAttempts;
+                LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(attempts));
+                outboxRepository.markFailed(notification.id(), retry, nextAttempt, e.getMessage(), LocalDateTime.now());
+                log.warn("❌ Falló el envío de la notificación {} (intento {}/{}): {}",
+                        notification.id(), attempts, maxAttempts, e.getMessage());
+            }
+        }
+        return batch;
+    }
+
+    // 30s, 1m, 2m, 4m... con tope de una hora
+    static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    // Códigos de mesa y nombres de productos, servicios y tipos de evento de todo el lote
+    private Names loadNames(Collection<Reservation> reservations, Collection<ReservationChildren> children) {
+        List<Integer> tableIds = children.stream()
+                .flatMap(c -> c.tables().stream())
+                .filter(rt -> Boolean.TRUE.equals(rt.getActive()))
+                .map(ReservationTable::getTableId)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Integer> productIds = children.stream()
+                .flatMap(c -> c.products().stream())
+                .filter(rp -> Boolean.TRUE.equals(rp.getActive()))
+                .map(ReservationProduct::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Integer> serviceIds = children.stream()
+                .flatMap(c -> c.events().stream())
+                .filter(re -> Boolean.TRUE.equals(re.getActive()))
+                .map(ReservationEvent::getServiceId)
+                .distinct()
+                .collect(Collectors.toList());
+        // eventType es LAZY y aquí no hay sesión abierta: solo se lee el id del proxy
+        List<Integer> eventTypeIds = reservations.stream()
+                .map(Reservation::getEventType)
+                .filter(Objects::nonNull)
+                .map(EventType::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        return new Names(
+                tableRepository.findAllById(tableIds).stream()
+                        .collect(Collectors.toMap(TableEntity::getId, TableEntity::getCode)),
+                reservationDetailRepository.findProductNames(productIds),
+                reservationDetailRepository.findServiceNames(serviceIds),
+                eventTypeRepository.findAllById(eventTypeIds).stream()
+                        .collect(Collectors.toMap(EventType::getId, EventType::getName)));
+    }
+
+    // Arma el mismo cuerpo que enviaba el frontend; el total es la suma de los subtotales guardados
+    private ReservationNotificationData toNotificationData(Reservation reservation, ReservationChildren children, Names names) {
+        if (children == null) children = ReservationChildren.empty();
+        String tableInfo = children.tables().stream()
+                .filter(rt -> Boolean.TRUE.equals(rt.getActive()))
+                .map(rt -> names.tableCodes().get(rt.getTableId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(", "));
+        List<ReservationProduct> products = children.products().stream()
+                .filter(rp -> Boolean.TRUE.equals(rp.getActive()))
+                .collect(Collectors.toList());
+        List<ReservationEvent> services = children.events().stream()
+                .filter(re -> Boolean.TRUE.equals(re.getActive()))
+                .collect(Collectors.toList());
+        BigDecimal total = products.stream().map(ReservationProduct::getSubtotal)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .add(services.stream().map(ReservationEvent::getSubtotal)
+                        .filter(Objects::nonNull)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add));
+        List<ReservationNotificationData.OrderItem> orderItems = products.stream()
+                .map(rp -> ReservationNotificationData.OrderItem.builder()
+                        .productName(names.productNames().getOrDefault(rp.getProductId(), "Producto " + rp.getProductId()))
+                        .quantity(rp.getQuantity())
+                        .unitPrice(unitPrice(rp.getSubtotal(), rp.getQuantity()))
+                        .subtotal(toDouble(rp.getSubtotal()))
+                        .build())
+                .collect(Collectors.toList());
+        List<ReservationNotificationData.AdditionalServiceItem> additionalServices = services.stream()
+                .map(re -> ReservationNotificationData.AdditionalServiceItem.builder()
+                        .serviceId(re.getServiceId().longValue())
+                        .serviceName(names.serviceNames().getOrDefault(re.getServiceId(), "Servicio " + re.getServiceId()))
+                        .quantity(re.getQuantity())
+                        .subtotal(toDouble(re.getSubtotal()))
+                        .observation(re.getObservation())
+                        .build())
+                .collect(Collectors.toList());
+        EventType eventType = reservation.getEventType();
+        return ReservationNotificationData.builder()
+                .customerName(reservation.getHolderName())
+                .customerPhone(reservation.getHolderPhone())
+                .customerEmail(reservation.getHolderEmail())
+                .reservationCode(reservation.getCode())
+                .reservationDate(reservation.getReservationDate() != null ? reservation.getReservationDate().toString() : null)
+                .reservationTime(reservation.getReservationTime() != null ? reservation.getReservationTime().toString() : null)
+                .guestCount(reservation.getPeopleCount())
+                .tableInfo(tableInfo)
+                .specialRequests(reservation.getObservation())
+                .paymentType(reservation.getPaymentMethod())
+                .paymentStatus(reservation.getStatus())
+                .totalAmount(toDouble(total))
+                .reservationStatus(reservation.getStatus())
+                .reservationType(reservation.getReservationType())
+                .reservationId(reservation.getId().longValue())
+                .hasPreOrder(!orderItems.isEmpty())
+                .orderItems(orderItems)
+                .eventType(eventType != null ? names.eventTypeNames().get(eventType.getId()) : null)
+                .eventShift(EventOptions.shiftLabel(reservation.getEventShift()))
+                .tableDistribution(EventOptions.tableDistributionLabel(reservation.getTableDistributionType()))
+                .linenColor(EventOptions.linenColorLabel(reservation.getTableClothColor()))
+                .additionalServices(additionalServices.isEmpty() ? null : additionalServices)
+                .build();
+    }
+
+    private static Double unitPrice(BigDecimal subtotal, Integer quantity) {
+        if (subtotal == null || quantity == null || quantity <= 0) return null;
+        return subtotal.divide(BigDecimal.valueOf(quantity), 2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static Double toDouble(BigDecimal amount) {
+        return amount != null ? amount.doubleValue() : null;
+    }
+
+    private record Names(Map<Integer, String> tableCodes, Map<Integer, String> productNames,
+                         Map<Integer, String> serviceNames, Map<Integer, String> eventTypeNames) {
+    }
+}
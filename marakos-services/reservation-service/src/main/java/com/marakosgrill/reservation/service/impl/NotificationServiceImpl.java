@@ -24,8 +24,8 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public NotificationResponse createNotification(NotificationRequest request) {
-        Reservation reservation = reservationRepository.findById(request.getReservationId())
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+        // Solo se necesita la FK: referencia sin consultar la reserva
+        Reservation reservation = reservationRepository.getReferenceById(request.getReservationId());
         Notification notification = Notification.builder()
                 .reservation(reservation)
                 .notificationType(request.getNotificationType())
@@ -0,0 +1,125 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.PendingReservationSweepRepository;
+import com.marakosgrill.reservation.repository.projection.SweptReservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.marakosgrill.reservation.util.constant.DEFAULT_CREATED_BY_USER_ID;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+
+// Barrido programado de pagos online abandonados en PENDIENTE_PAGO (reemplaza el script
+// manual delete_pending_reservations.sql). Cancela por lotes acotados, cada uno en su propia
+// transacción corta, para no retener locks sobre reserva en horario de atención.
+@Component
+@ConditionalOnProperty(name = "reservation.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PendingReservationSweeper {
+    private final PendingReservationSweepRepository sweepRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sweptCounter;
+    private final Counter failedRunsCounter;
+    private final Timer sweepTimer;
+    private final long maxAgeMinutes;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final long lockTimeoutMs;
+    private final long pauseMs;
+
+    public PendingReservationSweeper(PendingReservationSweepRepository sweepRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${reservation.sweeper.max-age-minutes:60}") long maxAgeMinutes,
+                                     @Value("${reservation.sweeper.chunk-size:500}") int chunkSize,
+                                     @Value("${reservation.sweeper.max-chunks:50}") int maxChunks,
+                                     @Value("${reservation.sweeper.lock-timeout-ms:2000}") long lockTimeoutMs,
+                                     @Value("${reservation.sweeper.pause-ms:200}") long pauseMs) {
+        this.sweepRepository = sweepRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweptCounter = Counter.builder("reservation.sweeper.swept")
+                .description("Reservas pendientes canceladas por el barrido")
+                .register(meterRegistry);
+        this.failedRunsCounter = Counter.builder("reservation.sweeper.failures")
+                .description("Ejecuciones del barrido interrumpidas por la base de datos")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("reservation.sweeper.duration")
+                .description("Duración de cada ejecución del barrido")
+                .register(meterRegistry);
+        this.maxAgeMinutes = maxAgeMinutes;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(cron = "${reservation.sweeper.cron:0 */10 * * * *}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(maxAgeMinutes);
+        Timer.Sample sample = Timer.start();
+        int swept = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                int count = sweepChunk(cutoff);
+                swept += count;
+                if (count < chunkSize) break;
+                // Pausa entre lotes para que las reservas en curso tomen los locks que necesiten
+                Thread.sleep(pauseMs);
+            }
+        } catch (DataAccessException e) {
+            // Base de datos no disponible o lock_timeout agotado: se retoma en la siguiente ejecución
+            failedRunsCounter.increment();
+            log.warn("⚠️ Barrido de reservas pendientes interrumpido: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long nanos = sample.stop(sweepTimer);
+            if (swept > 0) {
+                log.info("🧹 Barrido de pendientes: {} reservas canceladas en {} ms (creadas antes de {})",
+                        swept, nanos / 1_000_000, cutoff);
+            }
+        }
+    }
+
+    // Un lote = una transacción: cancelar, liberar mesas y publicar los eventos para los índices
+    int sweepChunk(LocalDateTime cutoff) {
+        Integer count = transactionTemplate.execute(status -> {
+            sweepRepository.setLocalLockTimeout(lockTimeoutMs);
+            List<SweptReservation> swept = sweepRepository.cancelStale(cutoff, chunkSize,
+                    LocalDateTime.now(), DEFAULT_CREATED_BY_USER_ID);
+            for (SweptReservation reservation : swept) {
+                eventPublisher.publishEvent(ReservationChangedEvent.builder()
+                        .reservationId(reservation.id())
+                        .reservationDate(reservation.reservationDate())
+                        .reservationTime(reservation.reservationTime())
+                        .reservationType(reservation.reservationType())
+                        .eventTypeId(reservation.eventTypeId())
+                        .eventShift(reservation.eventShift())
+                        .status(RESERVATION_STATUS_CANCELED)
+                        .active(true)
+                        .tableIds(List.of())
+                        .build());
+            }
+            return swept.size();
+        });
+        int swept = count != null ? count : 0;
+        sweptCounter.increment(swept);
+        return swept;
+    }
+}
@@ -0,0 +1,29 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.repository.ReservationCodeSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Genera códigos RES-yyyyMMdd-NNN con el contador por fecha de reserva_codigo_seq (V12).
+// El correlativo se toma en la transacción (y la conexión) de la reserva que lo usa: no pide una
+// segunda conexión al pool, así que no puede bloquearse esperando una con el pool agotado.
+// El lock de la fila de la fecha se libera al terminar la reserva, por lo que las altas de una
+// misma fecha se serializan entre nodos; un rollback devuelve el correlativo.
+@Component
+@RequiredArgsConstructor
+public class ReservationCodeGenerator {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final ReservationCodeSequenceRepository sequenceRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String nextCode(LocalDate reservationDate) {
+        String prefix = "RES-" + reservationDate.format(DATE_FORMAT) + "-";
+        return prefix + String.format("%03d", sequenceRepository.next(reservationDate, prefix));
+    }
+}
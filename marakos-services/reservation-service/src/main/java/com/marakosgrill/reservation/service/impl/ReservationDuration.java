@@ -0,0 +1,30 @@
+package com.marakosgrill.reservation.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+
+// Tiempo que una reserva ocupa su mesa desde la hora de llegada. Dos reservas de la misma
+// mesa y fecha se solapan si sus horas están a menos de esta duración.
+// Se trabaja en minutos del día: una reserva tardía no ocupa el día siguiente.
+@Component
+public class ReservationDuration {
+    private final int minutes;
+
+    public ReservationDuration(@Value("${reservation.duration-minutes:120}") int minutes) {
+        this.minutes = Math.max(1, minutes);
+    }
+
+    public int minutes() {
+        return minutes;
+    }
+
+    public boolean overlaps(LocalTime a, LocalTime b) {
+        return Math.abs(minuteOfDay(a) - minuteOfDay(b)) < minutes;
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
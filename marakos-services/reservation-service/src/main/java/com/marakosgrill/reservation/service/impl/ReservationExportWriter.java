@@ -0,0 +1,139 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marakosgrill.reservation.dto.ReservationExportFormat;
+import com.marakosgrill.reservation.repository.projection.ReservationExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+// Escribe las filas de la exportación una por una en la salida, sin armar listas intermedias
+abstract class ReservationExportWriter implements AutoCloseable {
+    protected final Writer writer;
+
+    private ReservationExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    static ReservationExportWriter create(ReservationExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        return format == ReservationExportFormat.NDJSON ? new Ndjson(out, objectMapper) : new Csv(out);
+    }
+
+    abstract void start() throws IOException;
+
+    abstract void writeRow(ReservationExportRow row) throws IOException;
+
+    // Para usar desde callbacks que no admiten excepciones comprobadas
+    void write(ReservationExportRow row) {
+        try {
+            writeRow(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private static final class Csv extends ReservationExportWriter {
+        private static final String HEADER = "codigo,fecha,hora,estado,tipo,personas,id_cliente,titular,telefono,email," +
+                "forma_pago,mesas,cantidad_productos,total_productos";
+
+        Csv(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void start() throws IOException {
+            // BOM para que Excel reconozca UTF-8 (tildes y ñ en los nombres)
+            writer.write('\uFEFF');
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ReservationExportRow row) throws IOException {
+            field(row.code()).field(row.reservationDate()).field(row.reservationTime()).field(row.status())
+                    .field(row.reservationType()).field(row.peopleCount()).field(row.customerId())
+                    .field(row.holderName()).field(row.holderPhone()).field(row.holderEmail())
+                    .field(row.paymentMethod()).field(row.tableCodes()).field(row.productCount());
+            writer.write(row.productTotal() != null ? row.productTotal().toPlainString() : "");
+            writer.write("\r\n");
+        }
+
+        private Csv field(Object value) throws IOException {
+            writer.write(escape(value));
+            writer.write(',');
+            return this;
+        }
+
+        static String escape(Object value) {
+            if (value == null) return "";
+            String text = value.toString();
+            if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                // Evita que la hoja de cálculo interprete el texto como fórmula
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+
+    private static final class Ndjson extends ReservationExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) {
+            super(out);
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(writer);
+                // Una línea por reserva: el salto de línea separa los objetos, no el espacio por defecto
+                this.generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void start() {
+        }
+
+        @Override
+        void writeRow(ReservationExportRow row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.id());
+            generator.writeStringField("code", row.code());
+            generator.writeStringField("reservationDate", Objects.toString(row.reservationDate(), null));
+            generator.writeStringField("reservationTime", Objects.toString(row.reservationTime(), null));
+            generator.writeStringField("status", row.status());
+            generator.writeStringField("reservationType", row.reservationType());
+            generator.writeObjectField("peopleCount", row.peopleCount());
+            generator.writeObjectField("customerId", row.customerId());
+            generator.writeStringField("holderName", row.holderName());
+            generator.writeStringField("holderPhone", row.holderPhone());
+            generator.writeStringField("holderEmail", row.holderEmail());
+            generator.writeStringField("paymentMethod", row.paymentMethod());
+            generator.writeStringField("tables", row.tableCodes());
+            generator.writeNumberField("productCount", row.productCount());
+            generator.writeNumberField("productTotal", row.productTotal());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.config.ReservationScheduleConfig;
+import com.marakosgrill.reservation.dto.ScheduleAvailabilityResponse;
+import com.marakosgrill.reservation.dto.TableAvailabilityResponse;
+import com.marakosgrill.reservation.model.TableEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Horario de reservas compilado una sola vez al iniciar: día de la semana -> franjas.
+@Component
+public class ReservationSchedule {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final Map<DayOfWeek, List<Slot>> slotsByDay = new EnumMap<>(DayOfWeek.class);
+
+    public ReservationSchedule(ReservationScheduleConfig config) {
+        List<Slot> defaultSlots = parse(config.getDefaultSlots());
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String override = config.getDays().get(day.name());
+            slotsByDay.put(day, override != null ? parse(override) : defaultSlots);
+        }
+    }
+
+    public List<Slot> slotsFor(DayOfWeek day) {
+        return slotsByDay.get(day);
+    }
+
+    // Turno de la franja en curso a esa hora (la última que empieza antes o a la misma hora)
+    public String shiftFor(DayOfWeek day, LocalTime time) {
+        List<Slot> slots = slotsFor(day);
+        if (slots.isEmpty()) return null;
+        String shift = slots.get(0).shift();
+        for (Slot slot : slots) {
+            if (slot.time().isAfter(time)) break;
+            shift = slot.shift();
+        }
+        return shift;
+    }
+
+    // Arma la disponibilidad del día en una pasada: franjas x mesas activas, con la
+    // ocupación ya agrupada por hora (hora -> bitset de mesas ocupadas)
+    public List<ScheduleAvailabilityResponse> availability(DayOfWeek day, List<TableEntity> activeTables,
+                                                           Map<LocalTime, BitSet> occupied) {
+        List<Slot> slots = slotsFor(day);
+        List<ScheduleAvailabilityResponse> result = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            BitSet reserved = occupied.get(slot.time());
+            List<TableAvailabilityResponse> tables = new ArrayList<>(activeTables.size());
+            int reservedTables = 0;
+            for (TableEntity table : activeTables) {
+                boolean isReserved = reserved != null && reserved.get(table.getId());
+                if (isReserved) reservedTables++;
+                tables.add(new TableAvailabilityResponse(table.getId(), table.getCode(), !isReserved));
+            }
+            boolean scheduleAvailable = reservedTables < activeTables.size();
+            result.add(new ScheduleAvailabilityResponse(slot.label(), slot.shift(), scheduleAvailable, tables));
+        }
+        return result;
+    }
+
+    private static List<Slot> parse(String definition) {
+        List<Slot> slots = new ArrayList<>();
+        for (String entry : definition.split(",")) {
+            String[] parts = entry.trim().split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Horario inválido: " + entry);
+            }
+            LocalTime time = LocalTime.parse(parts[0].trim());
+            slots.add(new Slot(time, time.format(TIME_FORMAT), parts[1].trim()));
+        }
+        return List.copyOf(slots);
+    }
+
+    public record Slot(LocalTime time, String label, String shift) {
+    }
+}
@@ -1,12 +1,16 @@
 package com.marakosgrill.reservation.service.impl;
 
 import com.marakosgrill.reservation.dto.*;
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
 import com.marakosgrill.reservation.model.*;
 import com.marakosgrill.reservation.repository.*;
+import com.marakosgrill.reservation.repository.projection.ReservationChildren;
+import com.marakosgrill.reservation.repository.projection.ReservationSummary;
 import com.marakosgrill.reservation.service.NotificationService;
 import com.marakosgrill.reservation.service.ReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +26,13 @@ import static com.marakosgrill.reservation.util.constant.*;
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationServiceImpl implements ReservationService {
+    private static final int MAX_CALENDAR_DAYS = 366;
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_EXPORT_DAYS = 366;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final ReservationRepository reservationRepository;
     private final ReservationTableRepository reservationTableRepository;
     private final ReservationProductRepository reservationProductRepository;
@@ -29,6 +40,23 @@ public class ReservationServiceImpl implements ReservationService {
     private final TransactionRepository transactionRepository;
     private final NotificationService notificationService;
     private final TableRepository tableRepository;
+    private final TableOccupancyIndex tableOccupancyIndex;
+    private final EventShiftOccupancyIndex eventShiftOccupancyIndex;
+    private final ReservationCodeGenerator reservationCodeGenerator;
+    private final ReservationBatchRepository reservationBatchRepository;
+    private final TableSlotLocks tableSlotLocks;
+    private final ReservationSchedule reservationSchedule;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final ReservationDetailRepository reservationDetailRepository;
+    private final ReservationStatusRepository reservationStatusRepository;
+    private final TableHolds tableHolds;
+    private final TableAssignmentEngine tableAssignmentEngine;
+    private final TableOverlapRepository tableOverlapRepository;
+    private final ReservationDuration reservationDuration;
+    private final ReservationExportRepository reservationExportRepository;
+    private final KitchenForecast kitchenForecast;
+    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -40,11 +68,22 @@ public class ReservationServiceImpl implements ReservationService {
         
         // Validar disponibilidad de mesas/eventos
         if ("MESA".equalsIgnoreCase(request.getReservationType())) {
+            if (Boolean.TRUE.equals(request.getAutoAssignTables()) && (request.getTables() == null || request.getTables().isEmpty())) {
+                assignTables(request);
+            }
+            // Serializa solo las reservas que compiten por las mismas mesas/fecha/hora
+            lockTables(request);
             for (ReservationTableRequest tableReq : request.getTables()) {
-                if (!isTableAvailable(tableReq.getTableId(), request.getReservationDate(), request.getReservationTime())) {
+                if (!isTableAvailable(tableReq.getTableId(), request.getReservationDate(), request.getReservationTime(), request.getHoldToken(), null)) {
                     throw new RuntimeException("Table not available for selected date and time");
                 }
             }
+            // Reservas y bloqueos de otros nodos que la memoria todavía no refleja
+            assertNoOverlapInDatabase(request, null);
+            tableHolds.assertNotHeldByOthers(tableIdsOf(request.getTables()), request.getReservationDate(),
+                    request.getReservationTime(), request.getHoldToken());
+            // El bloqueo propio se convierte en la reserva
+            tableHolds.consume(request.getHoldToken());
         } else if ("EVENTO".equalsIgnoreCase(request.getReservationType())) {
             if (!isEventAvailable(request.getEventTypeId(), request.getReservationDate(), request.getEventShift())) {
                 throw new RuntimeException("Event not available for selected date and shift");
@@ -52,7 +91,7 @@ public class ReservationServiceImpl implements ReservationService {
         }
         // Crear reserva principal
         Reservation reservation = Reservation.builder()
-                .code(generateReservationCode(request.getReservationDate()))
+                .code(reservationCodeGenerator.nextCode(request.getReservationDate()))
                 .customerId(request.getCustomerId())
                 .reservationDate(request.getReservationDate())
                 .reservationTime(request.getReservationTime())
@@ -77,105 +116,39 @@ public class ReservationServiceImpl implements ReservationService {
                 .build();
         reservation = reservationRepository.save(reservation);
 
-        // Asociar mesas
+        // Asociar mesas (un único batch por colección)
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
         List<ReservationTableResponse> tableResponses = null;
         if (request.getTables() != null) {
-            Reservation finalReservation = reservation;
-            tableResponses = request.getTables().stream().map(tableReq -> {
-                ReservationTable table = ReservationTable.builder()
-                        .reservation(finalReservation)
-                        .tableId(tableReq.getTableId())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                table = reservationTableRepository.save(table);
-                return ReservationTableResponse.builder()
-                        .id(table.getId())
-                        .tableId(table.getTableId())
-                        .build();
-            }).collect(Collectors.toList());
+            List<ReservationTable> tables = buildTables(reservation, request.getTables(), request.getCreatedBy(), now);
+            insertTables(tables);
+            tableResponses = tables.stream().map(this::toTableResponse).collect(Collectors.toList());
         }
 
         // Asociar productos
         List<ReservationProductResponse> productResponses = null;
+        List<ReservationProduct> products = List.of();
         if (request.getProducts() != null) {
-            Reservation finalReservation1 = reservation;
-            productResponses = request.getProducts().stream().map(prodReq -> {
-                ReservationProduct prod = ReservationProduct.builder()
-                        .reservation(finalReservation1)
-                        .productId(prodReq.getProductId())
-                        .quantity(prodReq.getQuantity())
-                        .subtotal(prodReq.getSubtotal())
-                        .observation(prodReq.getObservation())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                prod = reservationProductRepository.save(prod);
-                return ReservationProductResponse.builder()
-                        .id(prod.getId())
-                        .productId(prod.getProductId())
-                        .quantity(prod.getQuantity())
-                        .subtotal(prod.getSubtotal())
-                        .observation(prod.getObservation())
-                        .build();
-            }).collect(Collectors.toList());
+            products = buildProducts(reservation, request.getProducts(), request.getCreatedBy(), now);
+            reservationBatchRepository.insertProducts(products);
+            productResponses = products.stream().map(this::toProductResponse).collect(Collectors.toList());
         }
+        publishReservationChanged(reservation, null, tableIdsOf(request.getTables()), productQuantities(products));
 
         // Asociar servicios/eventos
         List<ReservationEventResponse> eventResponses = null;
         if (request.getEvents() != null) {
-            Reservation finalReservation2 = reservation;
-            eventResponses = request.getEvents().stream().map(eventReq -> {
-                ReservationEvent event = ReservationEvent.builder()
-                        .reservation(finalReservation2)
-                        .serviceId(eventReq.getServiceId())
-                        .quantity(eventReq.getQuantity())
-                        .subtotal(eventReq.getSubtotal())
-                        .observation(eventReq.getObservation())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                event = reservationEventRepository.save(event);
-                return ReservationEventResponse.builder()
-                        .id(event.getId())
-                        .serviceId(event.getServiceId())
-                        .quantity(event.getQuantity())
-                        .subtotal(event.getSubtotal())
-                        .observation(event.getObservation())
-                        .build();
-            }).collect(Collectors.toList());
+            List<ReservationEvent> events = buildEvents(reservation, request.getEvents(), request.getCreatedBy(), now);
+            reservationBatchRepository.insertEvents(events);
+            eventResponses = events.stream().map(this::toEventResponse).collect(Collectors.toList());
         }
 
         // Registrar pagos
         List<PaymentResponse> paymentResponses = null;
         if (request.getPayments() != null) {
-            Reservation finalReservation3 = reservation;
-            paymentResponses = request.getPayments().stream().map(payReq -> {
-                Transaction transaction = Transaction.builder()
-                        .reservation(finalReservation3)
-                        .paymentDate(payReq.getPaymentDate())
-                        .paymentMethod(payReq.getPaymentMethod())
-                        .amount(payReq.getAmount())
-                        .status(payReq.getStatus())
-                        .externalTransactionId(payReq.getExternalTransactionId())
-                        .createdBy(payReq.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                transaction = transactionRepository.save(transaction);
-                return PaymentResponse.builder()
-                        .id(transaction.getId())
-                        .paymentDate(transaction.getPaymentDate())
-                        .paymentMethod(transaction.getPaymentMethod())
-                        .amount(transaction.getAmount())
-                        .status(transaction.getStatus())
-                        .externalTransactionId(transaction.getExternalTransactionId())
-                        .createdBy(transaction.getCreatedBy())
-                        .build();
-            }).collect(Collectors.toList());
+            List<Transaction> transactions = buildTransactions(reservation, request.getPayments(), now);
+            reservationBatchRepository.insertTransactions(transactions);
+            paymentResponses = transactions.stream().map(this::toPaymentResponse).collect(Collectors.toList());
         }
 
         // Notificación al crear reserva
@@ -193,36 +166,6 @@ public class ReservationServiceImpl implements ReservationService {
         );
         log.info("✅ Notificación EMAIL creada exitosamente");
 
-        // Enviar notificación de WhatsApp
-        try {
-            log.info("🔔 ===== INICIANDO NOTIFICACIÓN WHATSAPP =====");
-            log.info("🎫 Reserva creada: {}", reservation.getCode());
-            log.info("👤 Cliente: {}", reservation.getHolderName());
-            log.info("📞 Teléfono: {}", reservation.getHolderPhone());
-            log.info("📅 Fecha: {}", reservation.getReservationDate());
-            log.info("⏰ Hora: {}", reservation.getReservationTime());
-            
-            // Calcular total de la reserva
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            if (request.getProducts() != null) {
-                totalAmount = request.getProducts().stream()
-                    .map(p -> p.getSubtotal() != null ? p.getSubtotal() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            }
-            if (request.getEvents() != null) {
-                BigDecimal eventTotal = request.getEvents().stream()
-                    .map(e -> e.getSubtotal() != null ? e.getSubtotal() : BigDecimal.ZERO)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                totalAmount = totalAmount.add(eventTotal);
-            }
-
-            log.info("💰 Total calculado: {}", totalAmount);
-            log.info("� NOTA: Notificación WhatsApp será enviada desde el frontend");
-        } catch (Exception e) {
-            // Log pero no fallar la reserva
-            log.error("🔥 Error enviando notificación de WhatsApp: {}", e.getMessage(), e);
-        }
-
         log.info("🎉 ===== FIN createReservation =====");
 
         // Construir respuesta
@@ -263,6 +206,24 @@ public class ReservationServiceImpl implements ReservationService {
         return toResponse(reservation);
     }
 
+    @Override
+    public List<ReservationResponse> getReservationsByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        List<Integer> distinctIds = ids.stream().filter(java.util.Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new RuntimeException("Cannot request more than " + MAX_BATCH_IDS + " reservations at once");
+        }
+        // Dos consultas en total: las reservas y sus filas hijas
+        java.util.Map<Integer, Reservation> reservations = reservationRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Reservation::getId, r -> r));
+        java.util.Map<Integer, ReservationChildren> children = reservationDetailRepository.findChildren(reservations.keySet());
+        return distinctIds.stream()
+                .map(reservations::get)
+                .filter(java.util.Objects::nonNull)
+                .map(r -> toResponse(r, children.getOrDefault(r.getId(), ReservationChildren.empty())))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<ReservationResponse> findReservationsByCustomer(Integer customerId) {
         List<Reservation> reservations = reservationRepository.findByCustomerId(customerId);
@@ -286,64 +247,176 @@ public class ReservationServiceImpl implements ReservationService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    @Override
+    public ReservationPageResponse findReservationsByCustomerPage(Integer customerId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        PageCursor after = PageCursor.parse(cursor);
+        List<ReservationSummary> rows = after == null
+                ? reservationRepository.findCustomerPage(customerId, org.springframework.data.domain.Limit.of(pageSize + 1))
+                : reservationRepository.findCustomerPageBefore(customerId, after.date(), after.id(),
+                        org.springframework.data.domain.Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    public ReservationPageResponse findReservationsByDateAndStatusPage(LocalDate date, String status, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        PageCursor after = PageCursor.parse(cursor);
+        if (after != null && !after.date().equals(date)) {
+            throw new RuntimeException("Cursor does not belong to date " + date);
+        }
+        int afterId = after != null ? after.id() : 0;
+        org.springframework.data.domain.Limit limit = org.springframework.data.domain.Limit.of(pageSize + 1);
+        List<ReservationSummary> rows = "ALL".equalsIgnoreCase(status)
+                ? reservationRepository.findDatePage(date, afterId, limit)
+                : reservationRepository.findDateStatusPage(date, status, afterId, limit);
+        return toPage(rows, pageSize);
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Se pide un elemento de más para saber si hay otra página sin contar filas
+    private ReservationPageResponse toPage(List<ReservationSummary> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<ReservationSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ReservationSummary last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getReservationDate(), last.getId()).encode();
+        }
+        return ReservationPageResponse.builder()
+                .items(page.stream().map(this::toBasicResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Cursor opaco "fecha_reserva:id_reserva" en Base64 URL
+    private record PageCursor(LocalDate date, Integer id) {
+        String encode() {
+            String raw = date + ":" + id;
+            return java.util.Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+
+        static PageCursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) return null;
+            try {
+                String raw = new String(java.util.Base64.getUrlDecoder().decode(cursor), java.nio.charset.StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new PageCursor(LocalDate.parse(raw.substring(0, separator)), Integer.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
     @Override
     public boolean isTableAvailable(Integer tableId, LocalDate date, LocalTime time) {
-        // Verifica si la mesa está reservada en la fecha/hora
-        return reservationTableRepository.findAll().stream()
-                .filter(rt -> rt.getTableId().equals(tableId) && rt.getReservation().getReservationDate().equals(date)
-                        && rt.getReservation().getReservationTime().equals(time) && Boolean.TRUE.equals(rt.getActive()))
-                .findAny().isEmpty();
+        return isTableAvailable(tableId, date, time, null, null);
+    }
+
+    // Verifica si otra reserva (distinta de exceptReservationId) o un bloqueo (salvo el de
+    // holdToken) ocupa la mesa en un intervalo que se solapa con la fecha/hora
+    private boolean isTableAvailable(Integer tableId, LocalDate date, LocalTime time, String holdToken, Integer exceptReservationId) {
+        return !tableOccupancyIndex.isOccupied(tableId, date, time, exceptReservationId)
+                && !tableHolds.isHeld(tableId, date, time, holdToken);
+    }
+
+    @Override
+    public TableSuggestionResponse suggestTables(LocalDate date, LocalTime time, Integer peopleCount) {
+        List<TableEntity> tables = suggestTables(date, time, peopleCount, null);
+        return TableSuggestionResponse.builder()
+                .reservationDate(date)
+                .reservationTime(time)
+                .peopleCount(peopleCount)
+                .totalCapacity(tables.stream().mapToInt(TableEntity::getCapacity).sum())
+                .tables(tables.stream().map(t -> SuggestedTableResponse.builder()
+                        .tableId(t.getId())
+                        .code(t.getCode())
+                        .capacity(t.getCapacity())
+                        .location(t.getLocation())
+                        .build()).collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    public KitchenForecastResponse getKitchenForecast(LocalDate date) {
+        if (date == null) {
+            throw new RuntimeException("Date is required");
+        }
+        return kitchenForecast.forecast(date);
+    }
+
+    private List<TableEntity> suggestTables(LocalDate date, LocalTime time, Integer peopleCount, String holdToken) {
+        if (peopleCount == null || peopleCount < 1) {
+            throw new RuntimeException("peopleCount must be at least 1");
+        }
+        return tableAssignmentEngine.suggest(peopleCount, tableId -> isTableAvailable(tableId, date, time, holdToken, null));
+    }
+
+    // Modo de asignación automática: completa las mesas de la solicitud con la mejor opción libre.
+    // Se validan igual que las elegidas por el cliente después de tomar los locks.
+    private void assignTables(ReservationRequest request) {
+        if (request.getReservationTime() == null) {
+            throw new RuntimeException("reservationTime is required to assign tables");
+        }
+        List<TableEntity> tables = suggestTables(request.getReservationDate(), request.getReservationTime(),
+                request.getPeopleCount(), request.getHoldToken());
+        if (tables.isEmpty()) {
+            throw new RuntimeException("No tables available for " + request.getPeopleCount() + " people at the selected date and time");
+        }
+        request.setTables(tables.stream()
+                .map(t -> ReservationTableRequest.builder().tableId(t.getId()).build())
+                .collect(Collectors.toList()));
+        log.info("🪑 Mesas asignadas automáticamente: {}", tables.stream().map(TableEntity::getCode).collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional
+    public TableHoldResponse holdTables(TableHoldRequest request) {
+        TableHolds.Hold hold = tableHolds.hold(request.getTableIds(), request.getReservationDate(), request.getReservationTime());
+        return TableHoldResponse.builder()
+                .token(hold.token())
+                .tableIds(hold.tableIds())
+                .reservationDate(hold.date())
+                .reservationTime(hold.time())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void releaseHold(String token) {
+        if (!tableHolds.release(token)) {
+            throw new RuntimeException("Hold not found or already expired");
+        }
     }
 
     @Override
     public boolean isEventAvailable(Integer eventTypeId, LocalDate date, String shift) {
-        // Verifica si ya existe un evento de ese tipo en la fecha/turno
-        return reservationRepository.findAll().stream()
-                .filter(r -> "EVENTO".equalsIgnoreCase(r.getReservationType()) && r.getEventType() != null
-                        && r.getEventType().getId().equals(eventTypeId)
-                        && r.getReservationDate().equals(date)
-                        && shift.equalsIgnoreCase(r.getEventShift().toString())
-                        && Boolean.TRUE.equals(r.getActive()))
-                .findAny().isEmpty();
+        // Verifica si ya existe un evento de ese tipo en la fecha/turno usando el índice de turnos
+        return !eventShiftOccupancyIndex.isOccupied(eventTypeId, date, parseShift(shift));
     }
 
     @Override
     public List<ScheduleAvailabilityResponse> getScheduleAvailability(LocalDate date) {
-        // Definir horarios fijos
-        String[][] schedules = {
-            {"08:00:00", "Mañana"}, {"09:00:00", "Mañana"}, {"10:00:00", "Mañana"}, {"11:00:00", "Mañana"}, {"12:00:00", "Mañana"},
-            {"13:00:00", "Tarde"}, {"14:00:00", "Tarde"}, {"15:00:00", "Tarde"}, {"16:00:00", "Tarde"}, {"17:00:00", "Tarde"}, {"18:00:00", "Tarde"},
-            {"19:00:00", "Noche"}, {"20:00:00", "Noche"}, {"21:00:00", "Noche"}, {"22:00:00", "Noche"}, {"23:00:00", "Noche"}
-        };
-
         // Obtener mesas activas desde la base de datos
         List<TableEntity> activeTables = tableRepository.findByActiveTrue();
 
-        // Consulta optimizada de mesas reservadas
-        List<ReservationTable> reservationTables = reservationTableRepository.findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(
-                date, RESERVATION_STATUS_CANCELED);
-
-        List<ScheduleAvailabilityResponse> result = new java.util.ArrayList<>();
-        for (String[] schedule : schedules) {
-            String time = schedule[0];
-            String shift = schedule[1];
-            List<TableAvailabilityResponse> tables = new java.util.ArrayList<>();
-            int reservedtables = 0;
-            for (TableEntity table : activeTables) {
-                int tableId = table.getId();
-                String tableName = table.getCode();
-
-                boolean isReserved = reservationTables.stream().anyMatch(rt ->
-                        rt.getTableId() == tableId &&
-                        rt.getReservation().getReservationTime().equals(java.time.LocalTime.parse(time))
-                );
-                if (isReserved) reservedtables++;
-                tables.add(new TableAvailabilityResponse(tableId, tableName, !isReserved));
-            }
-            boolean scheduleAvailable = reservedtables < activeTables.size();
-            result.add(new ScheduleAvailabilityResponse(time, shift, scheduleAvailable, tables));
-        }
-        return result;
+        // Ocupación del día en cada franja (hora -> mesas con una reserva que la cubre)
+        List<LocalTime> times = reservationSchedule.slotsFor(date.getDayOfWeek()).stream()
+                .map(ReservationSchedule.Slot::time)
+                .collect(Collectors.toList());
+        java.util.Map<LocalTime, java.util.BitSet> occupied = tableOccupancyIndex.snapshot(date, times);
+        // Las mesas bloqueadas durante un pago cuentan como ocupadas
+        tableHolds.snapshot(date, times).forEach((time, held) ->
+                occupied.computeIfAbsent(time, t -> new java.util.BitSet()).or(held));
+
+        return reservationSchedule.availability(date.getDayOfWeek(), activeTables, occupied);
     }
 
     // Método para mapear solo los datos básicos de la reserva
@@ -365,41 +438,43 @@ public class ReservationServiceImpl implements ReservationService {
                 .build();
     }
 
+    private ReservationResponse toBasicResponse(ReservationSummary summary) {
+        return ReservationResponse.builder()
+                .id(summary.getId())
+                .code(summary.getCode())
+                .customerId(summary.getCustomerId())
+                .reservationDate(summary.getReservationDate())
+                .reservationTime(summary.getReservationTime())
+                .peopleCount(summary.getPeopleCount())
+                .status(summary.getStatus())
+                .reservationType(summary.getReservationType())
+                .holderName(summary.getHolderName())
+                .holderPhone(summary.getHolderPhone())
+                .termsAccepted(summary.getTermsAccepted())
+                .createdAt(summary.getCreatedAt())
+                .active(summary.getActive())
+                .build();
+    }
+
     private ReservationResponse toResponse(Reservation reservation) {
-        List<ReservationTableResponse> tables = reservationTableRepository.findByReservation_Id(reservation.getId()).stream()
-                .map(rt -> ReservationTableResponse.builder()
-                        .id(rt.getId())
-                        .tableId(rt.getTableId())
-                        .build())
+        // Una sola consulta para las cuatro colecciones hijas
+        ReservationChildren children = reservationDetailRepository.findChildren(List.of(reservation.getId()))
+                .getOrDefault(reservation.getId(), ReservationChildren.empty());
+        return toResponse(reservation, children);
+    }
+
+    private ReservationResponse toResponse(Reservation reservation, ReservationChildren children) {
+        List<ReservationTableResponse> tables = children.tables().stream()
+                .map(this::toTableResponse)
                 .collect(java.util.stream.Collectors.toList());
-        List<ReservationProductResponse> products = reservationProductRepository.findByReservation_Id(reservation.getId()).stream()
-                .map(rp -> ReservationProductResponse.builder()
-                        .id(rp.getId())
-                        .productId(rp.getProductId())
-                        .quantity(rp.getQuantity())
-                        .subtotal(rp.getSubtotal())
-                        .observation(rp.getObservation())
-                        .build())
+        List<ReservationProductResponse> products = children.products().stream()
+                .map(this::toProductResponse)
                 .collect(java.util.stream.Collectors.toList());
-        List<ReservationEventResponse> events = reservationEventRepository.findByReservation_Id(reservation.getId()).stream()
-                .map(re -> ReservationEventResponse.builder()
-                        .id(re.getId())
-                        .serviceId(re.getServiceId())
-                        .quantity(re.getQuantity())
-                        .subtotal(re.getSubtotal())
-                        .observation(re.getObservation())
-                        .build())
+        List<ReservationEventResponse> events = children.events().stream()
+                .map(this::toEventResponse)
                 .collect(java.util.stream.Collectors.toList());
-        List<PaymentResponse> payments = transactionRepository.findByReservation_Id(reservation.getId()).stream()
-                .map(t -> PaymentResponse.builder()
-                        .id(t.getId())
-                        .paymentDate(t.getPaymentDate())
-                        .paymentMethod(t.getPaymentMethod())
-                        .amount(t.getAmount())
-                        .status(t.getStatus())
-                        .externalTransactionId(t.getExternalTransactionId())
-                        .createdBy(t.getCreatedBy())
-                        .build())
+        List<PaymentResponse> payments = children.transactions().stream()
+                .map(this::toPaymentResponse)
                 .collect(java.util.stream.Collectors.toList());
         return ReservationResponse.builder()
                 .id(reservation.getId())
@@ -440,18 +515,37 @@ public class ReservationServiceImpl implements ReservationService {
         if (!Boolean.TRUE.equals(reservation.getActive())) {
             throw new RuntimeException("Reservation is not active");
         }
+        // Cancelada o con check-out ya liberó sus mesas: volver a insertarlas bloquearía la franja
+        if (RESERVATION_STATUS_CANCELED.equalsIgnoreCase(reservation.getStatus())
+                || RESERVATION_STATUS_CHECK_OUT.equalsIgnoreCase(reservation.getStatus())) {
+            throw new RuntimeException("No se puede modificar una reserva en estado " + reservation.getStatus());
+        }
+        // Hijos actuales de la reserva (solo los de esta reserva, no toda la tabla)
+        List<ReservationTable> currentTables = activeOnly(reservationTableRepository.findByReservation_Id(id), ReservationTable::getActive);
+        List<ReservationProduct> currentProducts = activeOnly(reservationProductRepository.findByReservation_Id(id), ReservationProduct::getActive);
+        List<ReservationEvent> currentEvents = activeOnly(reservationEventRepository.findByReservation_Id(id), ReservationEvent::getActive);
+        List<Transaction> currentTransactions = activeOnly(transactionRepository.findByReservation_Id(id), Transaction::getActive);
+
         // Validar disponibilidad si se modifican fecha/hora/mesas
         if ("MESA".equalsIgnoreCase(request.getReservationType())) {
+            lockTables(request);
             for (ReservationTableRequest tableReq : request.getTables()) {
-                if (!isTableAvailable(tableReq.getTableId(), request.getReservationDate(), request.getReservationTime())) {
+                // La propia reserva no cuenta como ocupación: puede moverse dentro de su intervalo
+                if (!isTableAvailable(tableReq.getTableId(), request.getReservationDate(), request.getReservationTime(), request.getHoldToken(), id)) {
                     throw new RuntimeException("Table not available for selected date and time");
                 }
             }
+            assertNoOverlapInDatabase(request, id);
+            tableHolds.assertNotHeldByOthers(tableIdsOf(request.getTables()), request.getReservationDate(),
+                    request.getReservationTime(), request.getHoldToken());
+            tableHolds.consume(request.getHoldToken());
         } else if ("EVENTO".equalsIgnoreCase(request.getReservationType())) {
             if (!isEventAvailable(request.getEventTypeId(), request.getReservationDate(), request.getEventShift())) {
                 throw new RuntimeException("Event not available for selected date and shift");
             }
         }
+        LocalDate previousDate = reservation.getReservationDate();
+        LocalTime previousTime = reservation.getReservationTime();
         // Actualizar datos principales
         reservation.setCustomerId(request.getCustomerId());
         reservation.setReservationDate(request.getReservationDate());
@@ -473,114 +567,60 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setUpdatedAt(java.time.LocalDateTime.now());
         reservationRepository.save(reservation);
 
+        // Actualizar hijos por diferencia: se conservan los que no cambian, se desactivan
+        // en bloque los que se quitaron y se insertan en batch solo los nuevos
+        java.time.LocalDateTime now = reservation.getUpdatedAt();
+        Integer updatedBy = request.getCreatedBy();
+
         // Actualizar mesas asociadas
-        reservationTableRepository.findAll().stream()
-            .filter(rt -> rt.getReservation().getId().equals(id))
-            .forEach(rt -> { rt.setActive(false); reservationTableRepository.save(rt); });
-        List<ReservationTableResponse> tableResponses = null;
-        if (request.getTables() != null) {
-            tableResponses = request.getTables().stream().map(tableReq -> {
-                ReservationTable table = ReservationTable.builder()
-                        .reservation(reservation)
-                        .tableId(tableReq.getTableId())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                table = reservationTableRepository.save(table);
-                return ReservationTableResponse.builder()
-                        .id(table.getId())
-                        .tableId(table.getTableId())
-                        .build();
-            }).collect(java.util.stream.Collectors.toList());
+        ChildDiff<ReservationTable> tableDiff = diffChildren(currentTables,
+                buildTables(reservation, nullToEmpty(request.getTables()), updatedBy, now),
+                ReservationTable::getId, ReservationTable::getTableId);
+        if (!tableDiff.removedIds().isEmpty()) {
+            reservationTableRepository.deactivateByReservationIdAndIdIn(id, tableDiff.removedIds(), updatedBy, now);
         }
+        if (!sameSlot(previousDate, previousTime, reservation)) {
+            reservationTableRepository.moveActiveToSlot(id, reservation.getReservationDate(), reservation.getReservationTime());
+        }
+        insertTables(tableDiff.added());
+        List<ReservationTableResponse> tableResponses = request.getTables() == null ? null
+                : tableDiff.result().stream().map(this::toTableResponse).collect(Collectors.toList());
 
         // Actualizar productos asociados
-        reservationProductRepository.findAll().stream()
-            .filter(rp -> rp.getReservation().getId().equals(id))
-            .forEach(rp -> { rp.setActive(false); reservationProductRepository.save(rp); });
-        List<ReservationProductResponse> productResponses = null;
-        if (request.getProducts() != null) {
-            productResponses = request.getProducts().stream().map(prodReq -> {
-                ReservationProduct prod = ReservationProduct.builder()
-                        .reservation(reservation)
-                        .productId(prodReq.getProductId())
-                        .quantity(prodReq.getQuantity())
-                        .subtotal(prodReq.getSubtotal())
-                        .observation(prodReq.getObservation())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                prod = reservationProductRepository.save(prod);
-                return ReservationProductResponse.builder()
-                        .id(prod.getId())
-                        .productId(prod.getProductId())
-                        .quantity(prod.getQuantity())
-                        .subtotal(prod.getSubtotal())
-                        .observation(prod.getObservation())
-                        .build();
-            }).collect(java.util.stream.Collectors.toList());
+        ChildDiff<ReservationProduct> productDiff = diffChildren(currentProducts,
+                buildProducts(reservation, nullToEmpty(request.getProducts()), updatedBy, now), ReservationProduct::getId,
+                rp -> java.util.Arrays.asList(rp.getProductId(), rp.getQuantity(), normalize(rp.getSubtotal()), rp.getObservation()));
+        if (!productDiff.removedIds().isEmpty()) {
+            reservationProductRepository.deactivateByReservationIdAndIdIn(id, productDiff.removedIds(), updatedBy, now);
         }
+        reservationBatchRepository.insertProducts(productDiff.added());
+        List<ReservationProductResponse> productResponses = request.getProducts() == null ? null
+                : productDiff.result().stream().map(this::toProductResponse).collect(Collectors.toList());
+        publishReservationChanged(reservation, previousDate, tableIdsOf(request.getTables()),
+                productQuantities(productDiff.result()));
 
         // Actualizar servicios/eventos asociados
-        reservationEventRepository.findAll().stream()
-            .filter(re -> re.getReservation().getId().equals(id))
-            .forEach(re -> { re.setActive(false); reservationEventRepository.save(re); });
-        List<ReservationEventResponse> eventResponses = null;
-        if (request.getEvents() != null) {
-            eventResponses = request.getEvents().stream().map(eventReq -> {
-                ReservationEvent event = ReservationEvent.builder()
-                        .reservation(reservation)
-                        .serviceId(eventReq.getServiceId())
-                        .quantity(eventReq.getQuantity())
-                        .subtotal(eventReq.getSubtotal())
-                        .observation(eventReq.getObservation())
-                        .createdBy(request.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                event = reservationEventRepository.save(event);
-                return ReservationEventResponse.builder()
-                        .id(event.getId())
-                        .serviceId(event.getServiceId())
-                        .quantity(event.getQuantity())
-                        .subtotal(event.getSubtotal())
-                        .observation(event.getObservation())
-                        .build();
-            }).collect(java.util.stream.Collectors.toList());
+        ChildDiff<ReservationEvent> eventDiff = diffChildren(currentEvents,
+                buildEvents(reservation, nullToEmpty(request.getEvents()), updatedBy, now), ReservationEvent::getId,
+                re -> java.util.Arrays.asList(re.getServiceId(), re.getQuantity(), normalize(re.getSubtotal()), re.getObservation()));
+        if (!eventDiff.removedIds().isEmpty()) {
+            reservationEventRepository.deactivateByReservationIdAndIdIn(id, eventDiff.removedIds(), updatedBy, now);
         }
+        reservationBatchRepository.insertEvents(eventDiff.added());
+        List<ReservationEventResponse> eventResponses = request.getEvents() == null ? null
+                : eventDiff.result().stream().map(this::toEventResponse).collect(Collectors.toList());
 
         // Actualizar pagos asociados
-        transactionRepository.findAll().stream()
-            .filter(t -> t.getReservation().getId().equals(id))
-            .forEach(t -> { t.setActive(false); transactionRepository.save(t); });
-        List<PaymentResponse> paymentResponses = null;
-        if (request.getPayments() != null) {
-            paymentResponses = request.getPayments().stream().map(payReq -> {
-                Transaction transaction = Transaction.builder()
-                        .reservation(reservation)
-                        .paymentDate(payReq.getPaymentDate())
-                        .paymentMethod(payReq.getPaymentMethod())
-                        .amount(payReq.getAmount())
-                        .status(payReq.getStatus())
-                        .externalTransactionId(payReq.getExternalTransactionId())
-                        .createdBy(payReq.getCreatedBy())
-                        .createdAt(java.time.LocalDateTime.now())
-                        .active(true)
-                        .build();
-                transaction = transactionRepository.save(transaction);
-                return PaymentResponse.builder()
-                        .id(transaction.getId())
-                        .paymentDate(transaction.getPaymentDate())
-                        .paymentMethod(transaction.getPaymentMethod())
-                        .amount(transaction.getAmount())
-                        .status(transaction.getStatus())
-                        .externalTransactionId(transaction.getExternalTransactionId())
-                        .createdBy(transaction.getCreatedBy())
-                        .build();
-            }).collect(java.util.stream.Collectors.toList());
+        ChildDiff<Transaction> transactionDiff = diffChildren(currentTransactions,
+                buildTransactions(reservation, nullToEmpty(request.getPayments()), now), Transaction::getId,
+                t -> java.util.Arrays.asList(t.getPaymentDate(), t.getPaymentMethod(), normalize(t.getAmount()),
+                        t.getStatus(), t.getExternalTransactionId()));
+        if (!transactionDiff.removedIds().isEmpty()) {
+            transactionRepository.deactivateByReservationIdAndIdIn(id, transactionDiff.removedIds(), updatedBy, now);
         }
+        reservationBatchRepository.insertTransactions(transactionDiff.added());
+        List<PaymentResponse> paymentResponses = request.getPayments() == null ? null
+                : transactionDiff.result().stream().map(this::toPaymentResponse).collect(Collectors.toList());
 
         // Registrar notificación de modificación
         notificationService.createNotification(
@@ -589,7 +629,7 @@ public class ReservationServiceImpl implements ReservationService {
                 .notificationType("UPDATE")
                 .channel("EMAIL")
                 .message(RESERVATION_UPDATED_MESSAGE + reservation.getCode())
-                .status(NOTIFICATION_STATUS_PENDING)
+                .status(NOTIFICATION_STATUS_LOGGED)
                 .sentDate(null)
                 .createdBy(request.getCreatedBy())
                 .build()
@@ -630,20 +670,14 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     @Transactional
     public ReservationResponse cancelReservation(Integer id) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
-        if (RESERVATION_STATUS_CANCELED.equalsIgnoreCase(reservation.getStatus())) {
-            throw new RuntimeException("La reserva ya está cancelada");
-        }
-        reservation.setStatus(RESERVATION_STATUS_CANCELED);
-        reservation.setCancellationDate(java.time.LocalDateTime.now());
-        reservation = reservationRepository.save(reservation);
-
-        // Registrar notificación de cancelación
-        registerReservationNotification(reservation, "CANCELLATION", RESERVATION_CANCELLED_MESSAGE + reservation.getCode());
+        // Transición condicionada + notificación en el outbox en una sola sentencia
+        Reservation reservation = transitionStatus(id, RESERVATION_STATUS_CANCELED, "CANCELLATION", RESERVATION_CANCELLED_MESSAGE);
+        // Libera las mesas para el índice único de franjas
+        reservationTableRepository.deactivateByReservationId(id, DEFAULT_CREATED_BY_USER_ID, reservation.getCancellationDate());
+        publishReservationChanged(reservation, reservation.getReservationDate(), List.of());
 
-        // Nota: Notificación de cancelación por WhatsApp será enviada desde el frontend
-        log.info("📱 NOTA: Notificación de cancelación WhatsApp será enviada desde el frontend para reserva: {}", reservation.getCode());
+        // La notificación de cancelación queda en el outbox y la envía NotificationOutboxDispatcher
+        log.info("📨 NOTA: Notificación de cancelación en outbox para reserva: {}", reservation.getCode());
         
         return toResponse(reservation);
     }
@@ -651,90 +685,277 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     @Transactional
     public ReservationResponse checkinReservation(Integer id) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
-        if (RESERVATION_STATUS_CHECK_IN.equalsIgnoreCase(reservation.getStatus())) {
-            throw new RuntimeException("La reserva ya está en CHECK-IN");
-        }
-        reservation.setStatus(RESERVATION_STATUS_CHECK_IN);
-        reservation.setUpdatedAt(java.time.LocalDateTime.now());
-        reservationRepository.save(reservation);
-        registerReservationNotification(reservation, RESERVATION_STATUS_CHECK_IN, RESERVATION_CHECK_IN_MESSAGE + reservation.getCode());
+        Reservation reservation = transitionStatus(id, RESERVATION_STATUS_CHECK_IN, RESERVATION_STATUS_CHECK_IN, RESERVATION_CHECK_IN_MESSAGE);
+        publishReservationChanged(reservation, reservation.getReservationDate(), null);
         return toResponse(reservation);
     }
 
     @Override
     @Transactional
     public ReservationResponse checkoutReservation(Integer id) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
-        if (RESERVATION_STATUS_CHECK_OUT.equalsIgnoreCase(reservation.getStatus())) {
-            throw new RuntimeException("La reserva ya está en CHECK-OUT");
-        }
-        reservation.setStatus(RESERVATION_STATUS_CHECK_OUT);
-        reservation.setUpdatedAt(java.time.LocalDateTime.now());
-        reservationRepository.save(reservation);
-        registerReservationNotification(reservation, RESERVATION_STATUS_CHECK_OUT, RESERVATION_CHECK_OUT_MESSAGE + reservation.getCode());
+        Reservation reservation = transitionStatus(id, RESERVATION_STATUS_CHECK_OUT, RESERVATION_STATUS_CHECK_OUT, RESERVATION_CHECK_OUT_MESSAGE);
+        publishReservationChanged(reservation, reservation.getReservationDate(), null);
         return toResponse(reservation);
     }
 
     @Override
     @Transactional
     public ReservationResponse paidReservation(Integer id) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
-        reservation.setStatus(RESERVATION_STATUS_PAID);
-        reservation.setUpdatedAt(java.time.LocalDateTime.now());
-        reservationRepository.save(reservation);
-        registerReservationNotification(reservation, RESERVATION_STATUS_PAID, RESERVATION_PAID_MESSAGE + reservation.getCode());
+        Reservation reservation = transitionStatus(id, RESERVATION_STATUS_PAID, RESERVATION_STATUS_PAID, RESERVATION_PAID_MESSAGE);
+        publishReservationChanged(reservation, reservation.getReservationDate(), null);
         return toResponse(reservation);
     }
 
     @Override
+    @Transactional
     public ReservationResponse updateReservationStatus(Integer id, String status) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
-        reservation.setStatus(status);
-        reservation.setUpdatedAt(java.time.LocalDateTime.now());
-        reservationRepository.save(reservation);
+        // Cambio administrativo: se acepta desde cualquier estado distinto del destino, salvo
+        // desde CANCELADO (sus mesas ya se liberaron y pueden estar tomadas por otra reserva)
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        java.util.Optional<Reservation> updated = reservationStatusRepository.transition(id, status, null, now,
+                null, null, DEFAULT_CREATED_BY_USER_ID);
+        if (updated.isEmpty()) {
+            Reservation current = reservationRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Reservation not found"));
+            if (RESERVATION_STATUS_CANCELED.equalsIgnoreCase(current.getStatus())
+                    && !RESERVATION_STATUS_CANCELED.equalsIgnoreCase(status)) {
+                throw new RuntimeException("No se puede cambiar una reserva cancelada a " + status);
+            }
+            // Ya estaba en ese estado: se devuelve tal cual
+            return toResponse(current);
+        }
+        Reservation reservation = updated.get();
+        if (RESERVATION_STATUS_CANCELED.equalsIgnoreCase(status)) {
+            reservationTableRepository.deactivateByReservationId(id, DEFAULT_CREATED_BY_USER_ID, now);
+        }
+        // Las mesas no cambian: el índice recarga el día si la reserva sigue ocupando
+        publishReservationChanged(reservation, reservation.getReservationDate(), null);
         return toResponse(reservation);
     }
 
-    private void registerReservationNotification(Reservation reservation, String status, String message) {
-        notificationService.createNotification(
-                NotificationRequest.builder()
-                        .reservationId(reservation.getId())
-                        .notificationType(status)
-                        .channel("EMAIL")
-                        .message(message)
-                        .status(NOTIFICATION_STATUS_PENDING)
-                        .sentDate(null)
-                        .createdBy(DEFAULT_CREATED_BY_USER_ID)
-                        .build()
-        );
+    // Aplica la transición con un UPDATE condicionado al estado actual; si no se aplicó,
+    // informa el motivo leyendo solo el estado
+    private Reservation transitionStatus(Integer id, String target, String notificationType, String message) {
+        return reservationStatusRepository.transition(id, target, ReservationStatusTransitions.allowedSources(target),
+                        java.time.LocalDateTime.now(), notificationType, message, DEFAULT_CREATED_BY_USER_ID)
+                .orElseThrow(() -> {
+                    String current = reservationStatusRepository.findStatus(id)
+                            .orElseThrow(() -> new RuntimeException("Reservation not found"));
+                    if (target.equalsIgnoreCase(current)) {
+                        return new RuntimeException(RESERVATION_STATUS_CANCELED.equals(target)
+                                ? "La reserva ya está cancelada"
+                                : "La reserva ya está en " + target.replace('_', '-'));
+                    }
+                    return new RuntimeException("No se puede cambiar la reserva de " + current + " a " + target);
+                });
     }
 
-    private String generateReservationCode(LocalDate reservationDate) {
-        String datePart = reservationDate.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "RES-" + datePart + "-";
-        // Buscar el máximo correlativo para la fecha
-        int maxCorrelative = reservationRepository.findAll().stream()
-            .filter(r -> r.getCode() != null && r.getCode().startsWith(prefix))
-            .mapToInt(r -> {
-                String[] parts = r.getCode().split("-");
-                if (parts.length == 3) {
-                    try {
-                        return Integer.parseInt(parts[2]);
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                }
-                return 0;
-            })
-            .max()
-            .orElse(0);
-        int newCorrelative = maxCorrelative + 1;
-        return prefix + String.format("%03d", newCorrelative);
+    private List<ReservationTable> buildTables(Reservation reservation, List<ReservationTableRequest> requests,
+                                               Integer createdBy, java.time.LocalDateTime now) {
+        return requests.stream().map(tableReq -> ReservationTable.builder()
+                .reservation(reservation)
+                .tableId(tableReq.getTableId())
+                .reservationDate(reservation.getReservationDate())
+                .reservationTime(reservation.getReservationTime())
+                .createdBy(createdBy)
+                .createdAt(now)
+                .active(true)
+                .build()).collect(Collectors.toList());
+    }
+
+    private List<ReservationProduct> buildProducts(Reservation reservation, List<ReservationProductRequest> requests,
+                                                   Integer createdBy, java.time.LocalDateTime now) {
+        return requests.stream().map(prodReq -> ReservationProduct.builder()
+                .reservation(reservation)
+                .productId(prodReq.getProductId())
+                .quantity(prodReq.getQuantity())
+                .subtotal(prodReq.getSubtotal())
+                .observation(prodReq.getObservation())
+                .createdBy(createdBy)
+                .createdAt(now)
+                .active(true)
+                .build()).collect(Collectors.toList());
+    }
+
+    private List<ReservationEvent> buildEvents(Reservation reservation, List<ReservationEventRequest> requests,
+                                               Integer createdBy, java.time.LocalDateTime now) {
+        return requests.stream().map(eventReq -> ReservationEvent.builder()
+                .reservation(reservation)
+                .serviceId(eventReq.getServiceId())
+                .quantity(eventReq.getQuantity())
+                .subtotal(eventReq.getSubtotal())
+                .observation(eventReq.getObservation())
+                .createdBy(createdBy)
+                .createdAt(now)
+                .active(true)
+                .build()).collect(Collectors.toList());
+    }
+
+    private List<Transaction> buildTransactions(Reservation reservation, List<PaymentRequest> requests, java.time.LocalDateTime now) {
+        return requests.stream().map(payReq -> Transaction.builder()
+                .reservation(reservation)
+                .paymentDate(payReq.getPaymentDate())
+                .paymentMethod(payReq.getPaymentMethod())
+                .amount(payReq.getAmount())
+                .status(payReq.getStatus())
+                .externalTransactionId(payReq.getExternalTransactionId())
+                .createdBy(payReq.getCreatedBy())
+                .createdAt(now)
+                .active(true)
+                .build()).collect(Collectors.toList());
+    }
+
+    private ReservationTableResponse toTableResponse(ReservationTable table) {
+        return ReservationTableResponse.builder()
+                .id(table.getId())
+                .tableId(table.getTableId())
+                .build();
+    }
+
+    private ReservationProductResponse toProductResponse(ReservationProduct prod) {
+        return ReservationProductResponse.builder()
+                .id(prod.getId())
+                .productId(prod.getProductId())
+                .quantity(prod.getQuantity())
+                .subtotal(prod.getSubtotal())
+                .observation(prod.getObservation())
+                .build();
+    }
+
+    private ReservationEventResponse toEventResponse(ReservationEvent event) {
+        return ReservationEventResponse.builder()
+                .id(event.getId())
+                .serviceId(event.getServiceId())
+                .quantity(event.getQuantity())
+                .subtotal(event.getSubtotal())
+                .observation(event.getObservation())
+                .build();
+    }
+
+    private PaymentResponse toPaymentResponse(Transaction transaction) {
+        return PaymentResponse.builder()
+                .id(transaction.getId())
+                .paymentDate(transaction.getPaymentDate())
+                .paymentMethod(transaction.getPaymentMethod())
+                .amount(transaction.getAmount())
+                .status(transaction.getStatus())
+                .externalTransactionId(transaction.getExternalTransactionId())
+                .createdBy(transaction.getCreatedBy())
+                .build();
+    }
+
+    // Resultado de comparar los hijos actuales con los solicitados
+    private record ChildDiff<E>(List<E> result, List<E> added, List<Integer> removedIds) {
+    }
+
+    // Empareja cada hijo solicitado con uno actual de igual clave; los actuales sin pareja se quitan
+    private <E> ChildDiff<E> diffChildren(List<E> current, List<E> requested,
+                                          java.util.function.Function<E, Integer> idOf,
+                                          java.util.function.Function<E, Object> keyOf) {
+        java.util.Map<Object, java.util.Deque<E>> available = new java.util.HashMap<>();
+        for (E existing : current) {
+            available.computeIfAbsent(keyOf.apply(existing), k -> new java.util.ArrayDeque<>()).add(existing);
+        }
+        List<E> result = new java.util.ArrayList<>(requested.size());
+        List<E> added = new java.util.ArrayList<>();
+        for (E candidate : requested) {
+            java.util.Deque<E> matches = available.get(keyOf.apply(candidate));
+            E kept = matches != null ? matches.poll() : null;
+            if (kept != null) {
+                result.add(kept);
+            } else {
+                result.add(candidate);
+                added.add(candidate);
+            }
+        }
+        List<Integer> removedIds = available.values().stream()
+                .flatMap(java.util.Collection::stream)
+                .map(idOf)
+                .collect(Collectors.toList());
+        return new ChildDiff<>(result, added, removedIds);
+    }
+
+    private static <E> List<E> activeOnly(List<E> rows, java.util.function.Function<E, Boolean> active) {
+        return rows.stream().filter(row -> Boolean.TRUE.equals(active.apply(row))).collect(Collectors.toList());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+
+    // Serializa las reservas de las mismas mesas y día: en este nodo con locks en memoria y
+    // entre nodos con el lock transaccional de la base de datos
+    private void lockTables(ReservationRequest request) {
+        if (request.getTables() != null && request.getReservationTime() != null) {
+            List<Integer> tableIds = tableIdsOf(request.getTables());
+            tableSlotLocks.lockUntilTransactionEnds(tableIds, request.getReservationDate());
+            tableOverlapRepository.lockTableDays(tableIds, request.getReservationDate());
+        }
+    }
+
+    // El índice único de reserva_mesa solo cubre la misma hora exacta; los solapamientos
+    // escritos por otros nodos se verifican contra la tabla con los locks ya tomados
+    private void assertNoOverlapInDatabase(ReservationRequest request, Integer exceptReservationId) {
+        if (request.getReservationTime() == null) return;
+        if (!tableOverlapRepository.findOverlappingTables(tableIdsOf(request.getTables()), request.getReservationDate(),
+                request.getReservationTime(), reservationDuration.minutes(), exceptReservationId).isEmpty()) {
+            throw new RuntimeException("Table not available for selected date and time");
+        }
+    }
+
+    // El índice único parcial de reserva_mesa rechaza la doble reserva entre nodos
+    private void insertTables(List<ReservationTable> tables) {
+        try {
+            reservationBatchRepository.insertTables(tables);
+        } catch (org.springframework.dao.DuplicateKeyException e) {
+            throw new RuntimeException("Table not available for selected date and time");
+        }
+    }
+
+    private static boolean sameSlot(LocalDate previousDate, LocalTime previousTime, Reservation reservation) {
+        return java.util.Objects.equals(previousDate, reservation.getReservationDate())
+                && java.util.Objects.equals(previousTime, reservation.getReservationTime());
+    }
+
+    private void publishReservationChanged(Reservation reservation, LocalDate previousDate, List<Integer> tableIds) {
+        publishReservationChanged(reservation, previousDate, tableIds, null);
+    }
+
+    private void publishReservationChanged(Reservation reservation, LocalDate previousDate, List<Integer> tableIds,
+                                           java.util.Map<Integer, Integer> productQuantities) {
+        eventPublisher.publishEvent(ReservationChangedEvent.builder()
+                .reservationId(reservation.getId())
+                .previousDate(previousDate)
+                .reservationDate(reservation.getReservationDate())
+                .reservationTime(reservation.getReservationTime())
+                .reservationType(reservation.getReservationType())
+                .eventTypeId(reservation.getEventType() != null ? reservation.getEventType().getId() : null)
+                .eventShift(reservation.getEventShift())
+                .status(reservation.getStatus())
+                .active(reservation.getActive())
+                .tableIds(tableIds)
+                .productQuantities(productQuantities)
+                .build());
+    }
+
+    // Producto -> cantidad total prepedida en la reserva
+    private static java.util.Map<Integer, Integer> productQuantities(List<ReservationProduct> products) {
+        java.util.Map<Integer, Integer> quantities = new java.util.HashMap<>();
+        for (ReservationProduct product : products) {
+            if (product.getProductId() != null && product.getQuantity() != null) {
+                quantities.merge(product.getProductId(), product.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    private List<Integer> tableIdsOf(List<ReservationTableRequest> tables) {
+        if (tables == null) return List.of();
+        return tables.stream().map(ReservationTableRequest::getTableId).collect(Collectors.toList());
     }
 
     private Integer parseShift(String shift) {
@@ -764,29 +985,13 @@ public class ReservationServiceImpl implements ReservationService {
     public EventShiftAvailabilityResponse getEventShiftAvailability(LocalDate date) {
         log.info("🔍 Verificando disponibilidad de turnos para eventos en fecha: {}", date);
         
-        // Obtener todas las reservas de eventos para la fecha específica
-        // excluyendo estados CHECK_OUT y CANCELADO
-        List<Reservation> eventReservations = reservationRepository.findAll().stream()
-            .filter(r -> "EVENTO".equalsIgnoreCase(r.getReservationType()))
-            .filter(r -> r.getReservationDate() != null && r.getReservationDate().equals(date))
-            .filter(r -> r.getStatus() != null 
-                && !"CHECK_OUT".equalsIgnoreCase(r.getStatus()) 
-                && !"CANCELADO".equalsIgnoreCase(r.getStatus()))
-            .collect(Collectors.toList());
-        
-        log.info("📊 Reservas activas de eventos encontradas: {}", eventReservations.size());
-        
-        // Extraer los turnos ocupados
-        List<Integer> occupiedShifts = eventReservations.stream()
-            .map(Reservation::getEventShift)
-            .filter(shift -> shift != null)
-            .distinct()
-            .collect(Collectors.toList());
+        // Turnos ocupados por eventos activos (excluye CHECK_OUT y CANCELADO)
+        List<Integer> occupiedShifts = eventShiftOccupancyIndex.occupiedShifts(date);
         
         log.info("🚫 Turnos ocupados: {}", occupiedShifts);
         
         // Determinar turnos disponibles (1: Mañana, 2: Tarde, 3: Noche)
-        List<Integer> availableShifts = List.of(1, 2, 3).stream()
+        List<Integer> availableShifts = EventShiftOccupancyIndex.EVENT_SHIFTS.stream()
             .filter(shift -> !occupiedShifts.contains(shift))
             .collect(Collectors.toList());
         
@@ -797,4 +1002,61 @@ public class ReservationServiceImpl implements ReservationService {
             .occupiedShifts(occupiedShifts)
             .build();
     }
+
+    @Override
+    public List<CalendarDayAvailabilityResponse> getAvailabilityCalendar(LocalDate from, LocalDate to) {
+        validateRange(from, to, MAX_CALENDAR_DAYS);
+
+        long activeTables = tableRepository.countByActiveTrue();
+        List<CalendarDayAvailabilityResponse> result = new java.util.ArrayList<>();
+        availabilityCalendar.summaries(from, to).forEach((date, summary) -> {
+            // Capacidad del día = mesas activas x franjas horarias de ese día de la semana
+            long capacity = activeTables * reservationSchedule.slotsFor(date.getDayOfWeek()).size();
+            double fillRatio = capacity == 0 ? 1.0 : Math.min(1.0, (double) summary.bookedTableSlots() / capacity);
+            List<Integer> availableShifts = EventShiftOccupancyIndex.EVENT_SHIFTS.stream()
+                    .filter(shift -> (summary.occupiedShiftMask() & (1 << shift)) == 0)
+                    .collect(Collectors.toList());
+            result.add(CalendarDayAvailabilityResponse.builder()
+                    .date(date)
+                    .fillRatio(Math.round(fillRatio * 100) / 100.0)
+                    .tablesAvailable(summary.bookedTableSlots() < capacity)
+                    .availableShifts(availableShifts)
+                    .build());
+        });
+        return result;
+    }
+
+    @Override
+    public void validateExportRange(LocalDate from, LocalDate to) {
+        validateRange(from, to, MAX_EXPORT_DAYS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportReservations(LocalDate from, LocalDate to, ReservationExportFormat format, java.io.OutputStream out) {
+        validateRange(from, to, MAX_EXPORT_DAYS);
+        long start = System.nanoTime();
+        int[] rows = {0};
+        // El cursor necesita la transacción abierta; cada fila se escribe y se descarta
+        try (ReservationExportWriter writer = ReservationExportWriter.create(format, out, objectMapper)) {
+            writer.start();
+            reservationExportRepository.stream(from, to, EXPORT_FETCH_SIZE, row -> {
+                writer.write(row);
+                rows[0]++;
+            });
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+        log.info("📤 Exportación {} {} a {}: {} reservas en {} ms", format, from, to, rows[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to, int maxDays) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        if (java.time.temporal.ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new RuntimeException("Date range cannot exceed " + maxDays + " days");
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.marakosgrill.reservation.service.impl;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.marakosgrill.reservation.util.constant.*;
+
+// Estados desde los que se puede llegar a cada estado destino. Cada transición se aplica
+// con un UPDATE condicionado a estos estados, así dos cambios simultáneos no se pisan.
+final class ReservationStatusTransitions {
+    private static final Map<String, Set<String>> ALLOWED_SOURCES = Map.of(
+            RESERVATION_STATUS_CHECK_IN, Set.of(RESERVATION_STATUS_PENDING, RESERVATION_STATUS_PENDING_PAYMENT,
+                    RESERVATION_STATUS_CONFIRMED, RESERVATION_STATUS_PAID),
+            RESERVATION_STATUS_CHECK_OUT, Set.of(RESERVATION_STATUS_CHECK_IN, RESERVATION_STATUS_PAID),
+            RESERVATION_STATUS_PAID, Set.of(RESERVATION_STATUS_PENDING, RESERVATION_STATUS_PENDING_PAYMENT,
+                    RESERVATION_STATUS_CONFIRMED, RESERVATION_STATUS_CHECK_IN),
+            RESERVATION_STATUS_CANCELED, Set.of(RESERVATION_STATUS_PENDING, RESERVATION_STATUS_PENDING_PAYMENT,
+                    RESERVATION_STATUS_CONFIRMED, RESERVATION_STATUS_PAID));
+
+    private ReservationStatusTransitions() {
+    }
+
+    static Set<String> allowedSources(String target) {
+        Set<String> sources = ALLOWED_SOURCES.get(target);
+        if (sources == null) {
+            throw new IllegalArgumentException("Estado sin transiciones definidas: " + target);
+        }
+        return sources;
+    }
+}
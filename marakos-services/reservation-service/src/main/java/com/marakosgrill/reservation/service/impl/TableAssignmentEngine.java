@@ -0,0 +1,177 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.model.TableEntity;
+import com.marakosgrill.reservation.repository.TableRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+// Asignación automática de mesas según la cantidad de personas. Usa un índice de capacidades
+// precalculado (mesas activas ordenadas por capacidad y agrupadas por ubicación) que se
+// recarga cada pocos minutos; la disponibilidad la decide quien llama.
+@Component
+@Slf4j
+public class TableAssignmentEngine {
+    private final TableRepository tableRepository;
+    private final int maxCombinedTables;
+
+    private volatile Floor floor;
+
+    public TableAssignmentEngine(TableRepository tableRepository,
+                                 @Value("${reservation.assignment.max-combined-tables:3}") int maxCombinedTables) {
+        this.tableRepository = tableRepository;
+        this.maxCombinedTables = Math.max(1, maxCombinedTables);
+    }
+
+    // Mesas sugeridas para el grupo (vacío si no hay ninguna opción libre)
+    public List<TableEntity> suggest(int peopleCount, IntPredicate isFree) {
+        Floor current = floor;
+        if (current == null) {
+            current = reload();
+        }
+        return current.suggest(peopleCount, isFree, maxCombinedTables);
+    }
+
+    // Las mesas se administran desde management-service: se refresca el índice periódicamente
+    @Scheduled(fixedDelayString = "${reservation.assignment.refresh-ms:300000}",
+            initialDelayString = "${reservation.assignment.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudo recargar el índice de capacidades de mesas: {}", e.getMessage());
+        }
+    }
+
+    private Floor reload() {
+        Floor loaded = Floor.of(tableRepository.findByActiveTrue());
+        floor = loaded;
+        return loaded;
+    }
+
+    // Índice inmutable de capacidades de las mesas activas
+    static final class Floor {
+        // Nodos máximos de la búsqueda de combinaciones, para acotar el tiempo de respuesta
+        private static final int SEARCH_BUDGET = 4_096;
+
+        private final TableEntity[] byCapacity;
+        private final int[] capacities;
+        // Ubicación -> mesas ordenadas de mayor a menor capacidad
+        private final Map<String, TableEntity[]> byLocation;
+
+        private Floor(TableEntity[] byCapacity, Map<String, TableEntity[]> byLocation) {
+            this.byCapacity = byCapacity;
+            this.capacities = Arrays.stream(byCapacity).mapToInt(TableEntity::getCapacity).toArray();
+            this.byLocation = byLocation;
+        }
+
+        static Floor of(List<TableEntity> tables) {
+            Comparator<TableEntity> ascending = Comparator.comparingInt(TableEntity::getCapacity)
+                    .thenComparing(TableEntity::getId);
+            TableEntity[] sorted = tables.stream()
+                    .filter(t -> t.getId() != null && t.getCapacity() != null && t.getCapacity() > 0)
+                    .sorted(ascending)
+                    .toArray(TableEntity[]::new);
+            Map<String, List<TableEntity>> grouped = new HashMap<>();
+            for (TableEntity table : sorted) {
+                grouped.computeIfAbsent(Objects.toString(table.getLocation(), "").trim().toUpperCase(),
+                        l -> new ArrayList<>()).add(table);
+            }
+            Map<String, TableEntity[]> byLocation = new HashMap<>();
+            grouped.forEach((location, list) -> byLocation.put(location,
+                    list.stream().sorted(ascending.reversed()).toArray(TableEntity[]::new)));
+            return new Floor(sorted, byLocation);
+        }
+
+        List<TableEntity> suggest(int peopleCount, IntPredicate isFree, int maxTables) {
+            if (peopleCount < 1) return List.of();
+            // 1) La mesa libre más pequeña en la que entra el grupo
+            for (int i = lowerBound(peopleCount); i < byCapacity.length; i++) {
+                if (isFree.test(byCapacity[i].getId())) {
+                    return List.of(byCapacity[i]);
+                }
+            }
+            if (maxTables < 2) return List.of();
+            // 2) Mesas juntas de una misma ubicación con la menor cantidad de asientos sobrantes
+            Search search = new Search(peopleCount, maxTables);
+            for (TableEntity[] zone : byLocation.values()) {
+                TableEntity[] free = Arrays.stream(zone).filter(t -> isFree.test(t.getId())).toArray(TableEntity[]::new);
+                if (free.length >= 2) {
+                    search.run(free);
+                }
+            }
+            return search.best;
+        }
+
+        // Primer índice con capacidad >= peopleCount
+        private int lowerBound(int peopleCount) {
+            int low = 0;
+            int high = capacities.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (capacities[mid] < peopleCount) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // Búsqueda en profundidad con poda: las mesas vienen de mayor a menor capacidad, así el
+    // máximo alcanzable con las restantes se acota con la siguiente capacidad
+    private static final class Search {
+        private final int peopleCount;
+        private final int maxTables;
+        private final int[] chosen;
+        private int budget = Floor.SEARCH_BUDGET;
+        private int bestTotal = Integer.MAX_VALUE;
+        private int bestCount = Integer.MAX_VALUE;
+        private List<TableEntity> best = List.of();
+
+        Search(int peopleCount, int maxTables) {
+            this.peopleCount = peopleCount;
+            this.maxTables = maxTables;
+            this.chosen = new int[maxTables];
+        }
+
+        void run(TableEntity[] tables) {
+            search(tables, 0, 0, 0);
+        }
+
+        private void search(TableEntity[] tables, int start, int depth, int sum) {
+            for (int i = start; i < tables.length && budget > 0; i++) {
+                budget--;
+                int total = sum + tables[i].getCapacity();
+                int count = depth + 1;
+                if (total > bestTotal || (total == bestTotal && count >= bestCount)) continue;
+                chosen[depth] = i;
+                if (total >= peopleCount) {
+                    bestTotal = total;
+                    bestCount = count;
+                    best = new ArrayList<>(count);
+                    for (int n = 0; n < count; n++) best.add(tables[chosen[n]]);
+                    continue;
+                }
+                int remaining = maxTables - count;
+                if (remaining == 0 || i + 1 >= tables.length
+                        || total + tables[i + 1].getCapacity() * remaining < peopleCount) {
+                    break; // Las mesas siguientes son más chicas: tampoco alcanzan
+                }
+                search(tables, i + 1, count, total);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.repository.TableHoldRepository;
+import com.marakosgrill.reservation.repository.TableOverlapRepository;
+import com.marakosgrill.reservation.repository.projection.TableHoldRow;
+import com.marakosgrill.reservation.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Bloqueos temporales de mesas mientras el cliente paga. En memoria se guardan por token y por
+// mesa/día, con una rueda de tiempo que los vence; la tabla reserva_bloqueo_mesa es la fuente
+// compartida entre nodos y se vuelve a leer cada pocos segundos. Un bloqueo ocupa la mesa
+// durante la misma duración que una reserva.
+@Component
+@Slf4j
+public class TableHolds {
+    private static final long TICK_MILLIS = 1000;
+
+    private final TableHoldRepository tableHoldRepository;
+    private final TableOccupancyIndex tableOccupancyIndex;
+    private final TableSlotLocks tableSlotLocks;
+    private final TableOverlapRepository tableOverlapRepository;
+    private final ReservationDuration duration;
+    private final Duration ttl;
+
+    private final Map<String, Hold> holds = new HashMap<>();
+    // (mesa, día) -> token -> hora bloqueada
+    private final Map<TableDay, Map<String, LocalTime>> heldTables = new HashMap<>();
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 60, System.currentTimeMillis());
+
+    public TableHolds(TableHoldRepository tableHoldRepository,
+                      TableOccupancyIndex tableOccupancyIndex,
+                      TableSlotLocks tableSlotLocks,
+                      TableOverlapRepository tableOverlapRepository,
+                      ReservationDuration duration,
+                      @Value("${reservation.hold.ttl-minutes:10}") long ttlMinutes) {
+        this.tableHoldRepository = tableHoldRepository;
+        this.tableOccupancyIndex = tableOccupancyIndex;
+        this.tableSlotLocks = tableSlotLocks;
+        this.tableOverlapRepository = tableOverlapRepository;
+        this.duration = duration;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    // Debe llamarse dentro de una transacción: el bloqueo se publica en memoria después del commit
+    public Hold hold(List<Integer> tableIds, LocalDate date, LocalTime time) {
+        List<Integer> tables = tableIds.stream().filter(java.util.Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        if (tables.isEmpty()) {
+            throw new RuntimeException("At least one table is required");
+        }
+        tableSlotLocks.lockUntilTransactionEnds(tables, date);
+        for (Integer tableId : tables) {
+            if (tableOccupancyIndex.isOccupied(tableId, date, time) || isHeld(tableId, date, time, null)) {
+                throw new RuntimeException("Table not available for selected date and time");
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Reservas y bloqueos de otros nodos que se solapan y la memoria todavía no refleja
+        tableOverlapRepository.lockTableDays(tables, date);
+        if (!tableOverlapRepository.findOverlappingTables(tables, date, time, duration.minutes(), null).isEmpty()
+                || !tableHoldRepository.findHeldByOthers(tables, date, time, duration.minutes(), null, now).isEmpty()) {
+            throw new RuntimeException("Table not available for selected date and time");
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), date, time, tables, now.plus(ttl));
+        if (tableHoldRepository.insert(hold.token(), tables, date, time, now, hold.expiresAt()) < tables.size()) {
+            // Otro nodo ya bloqueó alguna mesa: el rollback descarta las filas insertadas
+            throw new RuntimeException("Table not available for selected date and time");
+        }
+        afterCommit(() -> register(hold));
+        log.info("⏳ Mesas {} bloqueadas para {} {} hasta {}", tables, date, time, hold.expiresAt());
+        return hold;
+    }
+
+    // ¿La mesa tiene un bloqueo (de otro token) que se solapa con la hora?
+    public boolean isHeld(Integer tableId, LocalDate date, LocalTime time, String exceptToken) {
+        if (tableId == null || date == null || time == null) return false;
+        synchronized (this) {
+            Map<String, LocalTime> tokens = heldTables.get(new TableDay(tableId, date));
+            if (tokens == null) return false;
+            for (Map.Entry<String, LocalTime> held : tokens.entrySet()) {
+                if (!held.getKey().equals(exceptToken) && duration.overlaps(held.getValue(), time)) return true;
+            }
+            return false;
+        }
+    }
+
+    // Mesas bloqueadas del día en las horas indicadas: hora -> bitset de mesas
+    public Map<LocalTime, BitSet> snapshot(LocalDate date, List<LocalTime> times) {
+        Map<LocalTime, BitSet> result = new HashMap<>();
+        synchronized (this) {
+            for (Hold hold : holds.values()) {
+                if (!hold.date().equals(date)) continue;
+                for (LocalTime time : times) {
+                    if (!duration.overlaps(hold.time(), time)) continue;
+                    BitSet tables = result.computeIfAbsent(time, t -> new BitSet());
+                    for (Integer tableId : hold.tableIds()) tables.set(tableId);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Verificación contra la tabla al confirmar una reserva (la memoria puede ir unos segundos atrás)
+    public void assertNotHeldByOthers(List<Integer> tableIds, LocalDate date, LocalTime time, String token) {
+        if (tableIds.isEmpty() || time == null) return;
+        if (!tableHoldRepository.findHeldByOthers(tableIds, date, time, duration.minutes(), token, LocalDateTime.now()).isEmpty()) {
+            throw new RuntimeException("Table not available for selected date and time");
+        }
+    }
+
+    // El bloqueo se convierte en reserva: se borra en la misma transacción
+    public void consume(String token) {
+        if (token == null) return;
+        tableHoldRepository.deleteByToken(token);
+        afterCommit(() -> unregister(token));
+    }
+
+    public boolean release(String token) {
+        boolean deleted = tableHoldRepository.deleteByToken(token) > 0;
+        afterCommit(() -> unregister(token));
+        return deleted;
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expire() {
+        List<String> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) return;
+        synchronized (this) {
+            expired.forEach(this::removeHold);
+        }
+        log.info("⌛ Bloqueos de mesa vencidos: {}", expired.size());
+    }
+
+    // Trae los bloqueos creados o liberados en otros nodos
+    @Scheduled(fixedDelayString = "${reservation.hold.sync-interval-ms:2000}")
+    public void sync() {
+        long startedAt = System.nanoTime();
+        List<TableHoldRow> rows;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            tableHoldRepository.deleteExpired(now);
+            rows = tableHoldRepository.findActive(now);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudieron sincronizar los bloqueos de mesa: {}", e.getMessage());
+            return;
+        }
+        Map<String, List<TableHoldRow>> byToken = rows.stream().collect(Collectors.groupingBy(TableHoldRow::token));
+        synchronized (this) {
+            // Se quitan los que ya no están en la tabla, salvo los registrados después de la consulta
+            holds.values().stream()
+                    .filter(hold -> !byToken.containsKey(hold.token()) && hold.registeredAt() < startedAt)
+                    .map(Hold::token)
+                    .collect(Collectors.toList())
+                    .forEach(this::removeHold);
+            byToken.forEach((token, tokenRows) -> {
+                if (holds.containsKey(token)) return;
+                TableHoldRow first = tokenRows.get(0);
+                addHold(new Hold(token, first.date(), first.time(),
+                        tokenRows.stream().map(TableHoldRow::tableId).sorted().collect(Collectors.toList()),
+                        first.expiresAt()));
+            });
+        }
+    }
+
+    private void register(Hold hold) {
+        synchronized (this) {
+            addHold(hold);
+        }
+    }
+
+    private void unregister(String token) {
+        synchronized (this) {
+            removeHold(token);
+        }
+    }
+
+    private void addHold(Hold hold) {
+        removeHold(hold.token());
+        Hold registered = hold.registered(System.nanoTime());
+        holds.put(hold.token(), registered);
+        for (Integer tableId : hold.tableIds()) {
+            heldTables.computeIfAbsent(new TableDay(tableId, hold.date()), k -> new HashMap<>()).put(hold.token(), hold.time());
+        }
+        wheel.schedule(hold.token(), hold.expiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void removeHold(String token) {
+        Hold hold = holds.remove(token);
+        wheel.cancel(token);
+        if (hold == null) return;
+        for (Integer tableId : hold.tableIds()) {
+            TableDay key = new TableDay(tableId, hold.date());
+            Map<String, LocalTime> tokens = heldTables.get(key);
+            if (tokens != null && tokens.remove(token) != null && tokens.isEmpty()) {
+                heldTables.remove(key);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record Hold(String token, LocalDate date, LocalTime time, List<Integer> tableIds, LocalDateTime expiresAt,
+                       long registeredAt) {
+        Hold(String token, LocalDate date, LocalTime time, List<Integer> tableIds, LocalDateTime expiresAt) {
+            this(token, date, time, tableIds, expiresAt, 0L);
+        }
+
+        Hold registered(long at) {
+            return new Hold(token, date, time, tableIds, expiresAt, at);
+        }
+    }
+
+    private record TableDay(Integer tableId, LocalDate date) {
+    }
+}
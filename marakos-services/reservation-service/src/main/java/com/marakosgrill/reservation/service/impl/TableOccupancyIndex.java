@@ -0,0 +1,259 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.repository.ReservationTableRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_CANCELED;
+
+// Índice en memoria de ocupación de mesas por intervalos: fecha -> mesa -> horas de inicio
+// ordenadas. Cada reserva ocupa su mesa durante ReservationDuration, así una reserva de las
+// 20:00 también bloquea las 20:30 y las 21:00. Cada día se carga desde la base de datos, se
+// mantiene con los eventos de creación/modificación/cancelación de este nodo y se vuelve a leer
+// cuando pasa reload-interval-ms, así los cambios hechos en otros nodos también llegan.
+@Component
+@Slf4j
+public class TableOccupancyIndex {
+    private final ReservationTableRepository reservationTableRepository;
+    private final ReservationDuration duration;
+    private final long reloadIntervalMs;
+
+    private final Map<LocalDate, DayOccupancy> days = new ConcurrentHashMap<>();
+
+    public TableOccupancyIndex(ReservationTableRepository reservationTableRepository,
+                               ReservationDuration duration,
+                               @Value("${reservation.occupancy.reload-interval-ms:30000}") long reloadIntervalMs) {
+        this.reservationTableRepository = reservationTableRepository;
+        this.duration = duration;
+        this.reloadIntervalMs = reloadIntervalMs;
+    }
+
+    public boolean isOccupied(Integer tableId, LocalDate date, LocalTime time) {
+        return isOccupied(tableId, date, time, null);
+    }
+
+    // Igual que isOccupied, sin contar la reserva indicada (al modificarla)
+    public boolean isOccupied(Integer tableId, LocalDate date, LocalTime time, Integer exceptReservationId) {
+        if (tableId == null || date == null || time == null) return false;
+        DayOccupancy day = loadedDay(date);
+        synchronized (day) {
+            TableIntervals intervals = day.tables.get(tableId);
+            return intervals != null && intervals.overlaps(ReservationDuration.minuteOfDay(time), duration.minutes(),
+                    exceptReservationId != null ? exceptReservationId : -1);
+        }
+    }
+
+    // Ocupación del día en las horas indicadas: hora -> mesas con una reserva que la cubre
+    public Map<LocalTime, BitSet> snapshot(LocalDate date, List<LocalTime> times) {
+        LocalTime[] sorted = times.stream().distinct().sorted().toArray(LocalTime[]::new);
+        int[] minutes = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) minutes[i] = ReservationDuration.minuteOfDay(sorted[i]);
+        BitSet[] occupied = new BitSet[sorted.length];
+        int length = duration.minutes();
+        DayOccupancy day = loadedDay(date);
+        synchronized (day) {
+            day.tables.forEach((tableId, intervals) -> {
+                for (int n = 0; n < intervals.size; n++) {
+                    int start = intervals.starts[n];
+                    // Horas t con |t - start| < duración
+                    for (int i = firstAbove(minutes, start - length); i < minutes.length && minutes[i] < start + length; i++) {
+                        if (occupied[i] == null) occupied[i] = new BitSet();
+                        occupied[i].set(tableId);
+                    }
+                }
+            });
+        }
+        Map<LocalTime, BitSet> result = new HashMap<>();
+        for (int i = 0; i < sorted.length; i++) {
+            if (occupied[i] != null) result.put(sorted[i], occupied[i]);
+        }
+        return result;
+    }
+
+    // Primero que los demás oyentes: la lista de espera busca mesas libres en este índice
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.getPreviousDate() != null && !event.getPreviousDate().equals(event.getReservationDate())) {
+            DayOccupancy previous = days.get(event.getPreviousDate());
+            if (previous != null) {
+                synchronized (previous) {
+                    previous.remove(event.getReservationId());
+                }
+            }
+        }
+        if (event.getReservationDate() == null) return;
+        DayOccupancy day = days.get(event.getReservationDate());
+        if (day == null) return; // Día no cargado: se leerá de la base de datos cuando se consulte
+        synchronized (day) {
+            if (!event.isOccupying()) {
+                day.remove(event.getReservationId());
+            } else if (event.getTableIds() != null) {
+                if (event.getReservationTime() != null) {
+                    day.place(event.getReservationId(), event.getReservationTime(), event.getTableIds());
+                } else {
+                    day.remove(event.getReservationId());
+                }
+            } else if (!day.placements.containsKey(event.getReservationId())) {
+                // Cambio de estado sin mesas conocidas (p. ej. reactivación): se recarga el día
+                days.remove(event.getReservationDate(), day);
+            }
+        }
+    }
+
+    // Primer índice con valor > bound en un arreglo ordenado
+    private static int firstAbove(int[] sorted, int bound) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private DayOccupancy loadedDay(LocalDate date) {
+        DayOccupancy day = days.get(date);
+        if (day == null) {
+            days.keySet().removeIf(d -> d.isBefore(LocalDate.now()));
+            day = days.computeIfAbsent(date, d -> new DayOccupancy());
+        }
+        if (System.currentTimeMillis() >= day.reloadAt) {
+            synchronized (day) {
+                if (System.currentTimeMillis() >= day.reloadAt) {
+                    warm(date, day);
+                }
+            }
+        }
+        return day;
+    }
+
+    // Se ejecuta con el lock del día tomado, así los eventos que lleguen durante la carga
+    // se aplican después y no se pierden. Una recarga reemplaza todo lo que había del día.
+    private void warm(LocalDate date, DayOccupancy day) {
+        boolean reload = day.reloadAt > 0;
+        day.tables.clear();
+        day.placements.clear();
+        List<ReservationTable> rows = reservationTableRepository
+                .findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(date, RESERVATION_STATUS_CANCELED);
+        Map<Integer, LocalTime> times = new HashMap<>();
+        Map<Integer, List<Integer>> tablesByReservation = new HashMap<>();
+        for (ReservationTable rt : rows) {
+            LocalTime time = rt.getReservation().getReservationTime();
+            if (time == null || !Boolean.TRUE.equals(rt.getReservation().getActive())) continue;
+            Integer reservationId = rt.getReservation().getId();
+            times.put(reservationId, time);
+            tablesByReservation.computeIfAbsent(reservationId, id -> new java.util.ArrayList<>()).add(rt.getTableId());
+        }
+        tablesByReservation.forEach((reservationId, tableIds) -> day.place(reservationId, times.get(reservationId), tableIds));
+        day.reloadAt = System.currentTimeMillis() + reloadIntervalMs;
+        if (reload) {
+            log.debug("🔄 Ocupación de mesas recargada para {}: {} reservas", date, tablesByReservation.size());
+        } else {
+            log.info("📦 Ocupación de mesas cargada para {}: {} reservas", date, tablesByReservation.size());
+        }
+    }
+
+    private static final class DayOccupancy {
+        private final Map<Integer, TableIntervals> tables = new HashMap<>();
+        private final Map<Integer, Placement> placements = new HashMap<>();
+        // 0 hasta la primera carga
+        private volatile long reloadAt;
+
+        void place(Integer reservationId, LocalTime time, List<Integer> tableIds) {
+            remove(reservationId);
+            int start = ReservationDuration.minuteOfDay(time);
+            int[] ids = tableIds.stream().filter(java.util.Objects::nonNull).mapToInt(Integer::intValue).distinct().toArray();
+            placements.put(reservationId, new Placement(start, ids));
+            for (int id : ids) {
+                tables.computeIfAbsent(id, t -> new TableIntervals()).add(start, reservationId);
+            }
+        }
+
+        void remove(Integer reservationId) {
+            Placement placement = placements.remove(reservationId);
+            if (placement == null) return;
+            for (int id : placement.tableIds) {
+                TableIntervals intervals = tables.get(id);
+                if (intervals != null && intervals.remove(placement.start, reservationId) && intervals.size == 0) {
+                    tables.remove(id);
+                }
+            }
+        }
+    }
+
+    // Horas de inicio de las reservas de una mesa en el día, ordenadas (minutos del día)
+    private static final class TableIntervals {
+        private int[] starts = new int[4];
+        private int[] reservationIds = new int[4];
+        private int size;
+
+        void add(int start, int reservationId) {
+            if (size == starts.length) {
+                starts = java.util.Arrays.copyOf(starts, size * 2);
+                reservationIds = java.util.Arrays.copyOf(reservationIds, size * 2);
+            }
+            int at = firstAbove(size, start);
+            System.arraycopy(starts, at, starts, at + 1, size - at);
+            System.arraycopy(reservationIds, at, reservationIds, at + 1, size - at);
+            starts[at] = start;
+            reservationIds[at] = reservationId;
+            size++;
+        }
+
+        boolean remove(int start, int reservationId) {
+            for (int i = 0; i < size && starts[i] <= start; i++) {
+                if (starts[i] == start && reservationIds[i] == reservationId) {
+                    System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                    System.arraycopy(reservationIds, i + 1, reservationIds, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // ¿Alguna reserva (distinta de exceptId) empieza a menos de 'length' minutos de 'minute'?
+        boolean overlaps(int minute, int length, int exceptId) {
+            for (int i = firstAbove(size, minute - length); i < size && starts[i] < minute + length; i++) {
+                if (reservationIds[i] != exceptId) return true;
+            }
+            return false;
+        }
+
+        private int firstAbove(int limit, int bound) {
+            int low = 0;
+            int high = limit;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= bound) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Placement(int start, int[] tableIds) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.marakosgrill.reservation.service.impl;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Locks por franjas para serializar solo las reservas que compiten por la misma mesa y fecha
+// (con duraciones, dos horas distintas del mismo día pueden solaparse). El respaldo entre
+// nodos es el lock de la mesa/día en la base de datos (TableOverlapRepository).
+@Component
+public class TableSlotLocks {
+    private static final int STRIPES = 1024;
+    private static final long WAIT_SECONDS = 5;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public TableSlotLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Toma los locks y los libera al terminar la transacción actual (después del commit,
+    // cuando los índices en memoria ya reflejan la reserva)
+    public void lockUntilTransactionEnds(Collection<Integer> tableIds, LocalDate date) {
+        SlotLock lock = lock(tableIds, date);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.close();
+            throw new IllegalStateException("Se requiere una transacción activa para bloquear mesas");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.close();
+            }
+        });
+    }
+
+    public SlotLock lock(Collection<Integer> tableIds, LocalDate date) {
+        // Orden ascendente de franjas para evitar interbloqueos entre reservas de varias mesas
+        int[] stripes = tableIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(tableId -> stripe(tableId, date))
+                .distinct()
+                .sorted()
+                .toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : stripes) {
+                if (!locks[stripe].tryLock(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new RuntimeException("La mesa está siendo reservada por otro cliente, intente nuevamente");
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reserva interrumpida", e);
+        } finally {
+            if (acquired < stripes.length) {
+                unlock(stripes, acquired);
+            }
+        }
+        return new SlotLock(stripes);
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    private static int stripe(Integer tableId, LocalDate date) {
+        int h = Objects.hash(tableId, date);
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    public final class SlotLock implements AutoCloseable {
+        private final int[] stripes;
+        private boolean released;
+
+        private SlotLock(int[] stripes) {
+            this.stripes = stripes;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                unlock(stripes, stripes.length);
+            }
+        }
+    }
+}
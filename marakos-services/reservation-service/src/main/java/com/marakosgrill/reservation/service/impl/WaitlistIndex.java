@@ -0,0 +1,130 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.repository.projection.WaitlistEntry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Índice en memoria de la lista de espera: día -> minuto del día -> tamaño del grupo -> cola por
+// orden de llegada. Dentro de un mismo tamaño solo la cabeza de la cola puede ser la primera que
+// entra, así una mesa liberada revisa las franjas que se solapan (búsqueda por rango en el árbol)
+// y a lo sumo una solicitud por tamaño, sin recorrer la lista completa.
+@Component
+public class WaitlistIndex {
+    private final ReservationDuration duration;
+
+    private final Map<LocalDate, TreeMap<Integer, Slot>> days = new HashMap<>();
+    private final Map<Integer, WaitlistEntry> entries = new HashMap<>();
+
+    public WaitlistIndex(ReservationDuration duration) {
+        this.duration = duration;
+    }
+
+    public synchronized void add(WaitlistEntry entry) {
+        if (entries.putIfAbsent(entry.id(), entry) != null) return;
+        days.computeIfAbsent(entry.reservationDate(), d -> new TreeMap<>())
+                .computeIfAbsent(ReservationDuration.minuteOfDay(entry.reservationTime()), m -> new Slot(entry.reservationTime()))
+                .add(entry);
+    }
+
+    public synchronized boolean remove(Integer id) {
+        WaitlistEntry entry = entries.remove(id);
+        if (entry == null) return false;
+        TreeMap<Integer, Slot> slots = days.get(entry.reservationDate());
+        if (slots == null) return true;
+        int minute = ReservationDuration.minuteOfDay(entry.reservationTime());
+        Slot slot = slots.get(minute);
+        if (slot != null && slot.remove(entry) && slot.isEmpty()) {
+            slots.remove(minute);
+            if (slots.isEmpty()) days.remove(entry.reservationDate());
+        }
+        return true;
+    }
+
+    // Reemplaza el contenido con lo leído de la base (solicitudes de otros nodos, vencidas, etc.)
+    public synchronized void replaceAll(Collection<WaitlistEntry> waiting) {
+        days.clear();
+        entries.clear();
+        waiting.stream().sorted(Comparator.comparing(WaitlistEntry::id)).forEach(this::add);
+    }
+
+    // Solicitudes que podrían ocupar una mesa liberada a esa hora: la cabeza de cada cola en las
+    // franjas que se solapan con ella, de la más antigua a la más nueva
+    public synchronized List<WaitlistEntry> candidates(LocalDate date, LocalTime time) {
+        TreeMap<Integer, Slot> slots = days.get(date);
+        if (slots == null) return List.of();
+        int minute = ReservationDuration.minuteOfDay(time);
+        NavigableMap<Integer, Slot> overlapping = slots.subMap(
+                minute - duration.minutes(), false, minute + duration.minutes(), false);
+        List<WaitlistEntry> heads = new ArrayList<>();
+        for (Slot slot : overlapping.values()) {
+            for (ArrayDeque<WaitlistEntry> queue : slot.bySize.values()) {
+                heads.add(queue.peekFirst());
+            }
+        }
+        heads.sort(Comparator.comparing(WaitlistEntry::id));
+        return heads;
+    }
+
+    // Franjas con solicitudes en espera (para el repaso periódico)
+    public synchronized Map<LocalDate, List<LocalTime>> slots() {
+        Map<LocalDate, List<LocalTime>> result = new HashMap<>();
+        days.forEach((date, slots) -> result.put(date, slots.values().stream().map(s -> s.time).toList()));
+        return result;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Slot {
+        private final LocalTime time;
+        private final TreeMap<Integer, ArrayDeque<WaitlistEntry>> bySize = new TreeMap<>();
+
+        private Slot(LocalTime time) {
+            this.time = time;
+        }
+
+        private void add(WaitlistEntry entry) {
+            ArrayDeque<WaitlistEntry> queue = bySize.computeIfAbsent(entry.peopleCount(), p -> new ArrayDeque<>());
+            if (queue.isEmpty() || queue.peekLast().id() < entry.id()) {
+                queue.addLast(entry);
+                return;
+            }
+            // Llegó tarde desde otro nodo: se ubica según su orden de llegada
+            List<WaitlistEntry> ordered = new ArrayList<>(queue);
+            ordered.add(entry);
+            ordered.sort(Comparator.comparing(WaitlistEntry::id));
+            queue.clear();
+            queue.addAll(ordered);
+        }
+
+        private boolean remove(WaitlistEntry entry) {
+            ArrayDeque<WaitlistEntry> queue = bySize.get(entry.peopleCount());
+            if (queue == null) return false;
+            for (Iterator<WaitlistEntry> it = queue.iterator(); it.hasNext(); ) {
+                if (it.next().id().equals(entry.id())) {
+                    it.remove();
+                    break;
+                }
+            }
+            if (queue.isEmpty()) bySize.remove(entry.peopleCount());
+            return true;
+        }
+
+        private boolean isEmpty() {
+            return bySize.isEmpty();
+        }
+    }
+}
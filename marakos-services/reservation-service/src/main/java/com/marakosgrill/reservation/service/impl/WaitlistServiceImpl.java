@@ -0,0 +1,275 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.NotificationRequest;
+import com.marakosgrill.reservation.dto.ReservationRequest;
+import com.marakosgrill.reservation.dto.ReservationResponse;
+import com.marakosgrill.reservation.dto.WaitlistRequest;
+import com.marakosgrill.reservation.dto.WaitlistResponse;
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.WaitlistRepository;
+import com.marakosgrill.reservation.repository.projection.WaitlistEntry;
+import com.marakosgrill.reservation.service.NotificationService;
+import com.marakosgrill.reservation.service.ReservationService;
+import com.marakosgrill.reservation.service.WaitlistService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.marakosgrill.reservation.util.constant.DEFAULT_CREATED_BY_USER_ID;
+import static com.marakosgrill.reservation.util.constant.NOTIFICATION_STATUS_LOGGED;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_STATUS_PENDING;
+import static com.marakosgrill.reservation.util.constant.RESERVATION_WAITLIST_PROMOTED_MESSAGE;
+import static com.marakosgrill.reservation.util.constant.WAITLIST_STATUS_WAITING;
+
+// Lista de espera de mesas. Al cancelarse o vencer una reserva de mesa se buscan en el índice las
+// solicitudes de las franjas que se solapan y se promueve, por orden de llegada, la primera que
+// entra en las mesas libres: se crea la reserva (PENDIENTE) y se encola la notificación.
+@Service
+@Slf4j
+public class WaitlistServiceImpl implements WaitlistService {
+    // Intentos por liberación (una cancelación puede dejar lugar para más de un grupo)
+    private static final int MAX_PROMOTIONS_PER_RELEASE = 10;
+
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistIndex waitlistIndex;
+    private final ReservationService reservationService;
+    private final NotificationService notificationService;
+    // Corre después del commit de la cancelación: la promoción necesita su propia transacción
+    private final TransactionTemplate promotionTransaction;
+    private final Object promotionLock = new Object();
+
+    public WaitlistServiceImpl(WaitlistRepository waitlistRepository,
+                               WaitlistIndex waitlistIndex,
+                               ReservationService reservationService,
+                               NotificationService notificationService,
+                               PlatformTransactionManager transactionManager) {
+        this.waitlistRepository = waitlistRepository;
+        this.waitlistIndex = waitlistIndex;
+        this.reservationService = reservationService;
+        this.notificationService = notificationService;
+        this.promotionTransaction = new TransactionTemplate(transactionManager);
+        this.promotionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistResponse joinWaitlist(WaitlistRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        if (request.getReservationDate().atTime(request.getReservationTime()).isBefore(now)) {
+            throw new RuntimeException("The selected date and time has already passed");
+        }
+        if (!reservationService.suggestTables(request.getReservationDate(), request.getReservationTime(),
+                request.getPeopleCount()).getTables().isEmpty()) {
+            throw new RuntimeException("Tables are available for the selected date and time, create the reservation instead");
+        }
+        WaitlistEntry entry = new WaitlistEntry(null, request.getCustomerId(), request.getReservationDate(),
+                request.getReservationTime(), request.getPeopleCount(), request.getPaymentMethod(),
+                request.getHolderDocument(), request.getHolderPhone(), request.getHolderName(), request.getHolderEmail(),
+                request.getObservation(), request.getTermsAccepted(), WAITLIST_STATUS_WAITING, null,
+                request.getCreatedBy() != null ? request.getCreatedBy() : DEFAULT_CREATED_BY_USER_ID, now);
+        WaitlistEntry saved = entry.withId(waitlistRepository.insert(entry));
+        afterCommit(() -> waitlistIndex.add(saved));
+        log.info("📋 Solicitud {} en lista de espera: {} personas para {} {}", saved.id(), saved.peopleCount(),
+                saved.reservationDate(), saved.reservationTime());
+        return toResponse(saved);
+    }
+
+    @Override
+    public WaitlistResponse getWaitlistEntry(Integer id) {
+        return toResponse(findEntry(id));
+    }
+
+    @Override
+    public List<WaitlistResponse> findWaitingByDate(LocalDate date) {
+        return waitlistRepository.findWaitingByDate(date).stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public WaitlistResponse leaveWaitlist(Integer id) {
+        if (!waitlistRepository.cancel(id, LocalDateTime.now())) {
+            WaitlistEntry entry = findEntry(id);
+            throw new RuntimeException("La solicitud ya no está en espera (" + entry.status() + ")");
+        }
+        afterCommit(() -> waitlistIndex.remove(id));
+        return toResponse(findEntry(id));
+    }
+
+    // Después de los índices de ocupación, para que la búsqueda de mesas ya vea la liberación
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.isOccupying() || !"MESA".equalsIgnoreCase(event.getReservationType())
+                || event.getReservationDate() == null || event.getReservationTime() == null) {
+            return;
+        }
+        try {
+            int promoted = promote(event.getReservationDate(), event.getReservationTime());
+            if (promoted > 0) {
+                log.info("🎟️ Reserva {} liberada: {} solicitud(es) de la lista de espera promovida(s)",
+                        event.getReservationId(), promoted);
+            }
+        } catch (RuntimeException e) {
+            // La cancelación ya está confirmada; el repaso periódico vuelve a intentar
+            log.warn("⚠️ No se pudo promover la lista de espera para {} {}: {}",
+                    event.getReservationDate(), event.getReservationTime(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        sync();
+    }
+
+    // Trae las solicitudes de otros nodos, vence las que ya pasaron y repasa cada franja en espera
+    // por si se liberaron mesas en otro nodo
+    @Scheduled(fixedDelayString = "${reservation.waitlist.sync-interval-ms:60000}",
+            initialDelayString = "${reservation.waitlist.sync-interval-ms:60000}")
+    public void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int expired = waitlistRepository.expirePast(now);
+            if (expired > 0) {
+                log.info("⌛ Solicitudes de lista de espera vencidas: {}", expired);
+            }
+            waitlistIndex.replaceAll(waitlistRepository.findWaitingFrom(now.toLocalDate()));
+            waitlistIndex.slots().forEach((date, times) -> times.forEach(time -> promote(date, time)));
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudo sincronizar la lista de espera: {}", e.getMessage());
+        }
+    }
+
+    int promote(LocalDate date, LocalTime time) {
+        synchronized (promotionLock) {
+            int promoted = 0;
+            Set<Integer> failed = new HashSet<>();
+            for (int attempt = 0; attempt < MAX_PROMOTIONS_PER_RELEASE; attempt++) {
+                WaitlistEntry next = firstFitting(date, time, failed);
+                if (next == null) break;
+                if (tryPromote(next)) {
+                    promoted++;
+                } else {
+                    failed.add(next.id());
+                }
+            }
+            return promoted;
+        }
+    }
+
+    // Primera solicitud (por orden de llegada) para la que hay mesas libres en su franja
+    private WaitlistEntry firstFitting(LocalDate date, LocalTime time, Set<Integer> skip) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WaitlistEntry entry : waitlistIndex.candidates(date, time)) {
+            if (skip.contains(entry.id()) || entry.reservationDate().atTime(entry.reservationTime()).isBefore(now)) continue;
+            if (!reservationService.suggestTables(entry.reservationDate(), entry.reservationTime(),
+                    entry.peopleCount()).getTables().isEmpty()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean tryPromote(WaitlistEntry entry) {
+        try {
+            ReservationResponse reservation = promotionTransaction.execute(status -> {
+                if (!waitlistRepository.markPromoted(entry.id(), LocalDateTime.now())) {
+                    return null; // Otro nodo la promovió o el cliente la retiró
+                }
+                ReservationResponse created = reservationService.createReservation(toReservationRequest(entry));
+                waitlistRepository.attachReservation(entry.id(), created.getId());
+                notificationService.createNotification(NotificationRequest.builder()
+                        .reservationId(created.getId())
+                        .notificationType("WAITLIST_PROMOTION")
+                        .channel("EMAIL")
+                        .message(RESERVATION_WAITLIST_PROMOTED_MESSAGE + created.getCode())
+                        .status(NOTIFICATION_STATUS_LOGGED)
+                        .createdBy(entry.createdBy())
+                        .build());
+                return created;
+            });
+            // Promovida aquí o ya no está en espera: en ambos casos sale del índice
+            waitlistIndex.remove(entry.id());
+            if (reservation == null) {
+                return false;
+            }
+            log.info("✅ Solicitud {} promovida a la reserva {}", entry.id(), reservation.getCode());
+            return true;
+        } catch (RuntimeException e) {
+            // Las mesas se ocuparon entre la búsqueda y la reserva: la solicitud sigue en espera
+            log.warn("⚠️ No se pudo promover la solicitud {}: {}", entry.id(), e.getMessage());
+            return false;
+        }
+    }
+
+    private ReservationRequest toReservationRequest(WaitlistEntry entry) {
+        return ReservationRequest.builder()
+                .customerId(entry.customerId())
+                .reservationDate(entry.reservationDate())
+                .reservationTime(entry.reservationTime())
+                .peopleCount(entry.peopleCount())
+                .status(RESERVATION_STATUS_PENDING)
+                .paymentMethod(entry.paymentMethod())
+                .reservationType("MESA")
+                .holderDocument(entry.holderDocument())
+                .holderPhone(entry.holderPhone())
+                .holderName(entry.holderName())
+                .holderEmail(entry.holderEmail())
+                .observation(entry.observation())
+                .termsAccepted(entry.termsAccepted())
+                .createdBy(entry.createdBy())
+                .autoAssignTables(true)
+                .build();
+    }
+
+    private WaitlistEntry findEntry(Integer id) {
+        return waitlistRepository.findById(id).orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+    }
+
+    private WaitlistResponse toResponse(WaitlistEntry entry) {
+        return WaitlistResponse.builder()
+                .id(entry.id())
+                .customerId(entry.customerId())
+                .reservationDate(entry.reservationDate())
+                .reservationTime(entry.reservationTime())
+                .peopleCount(entry.peopleCount())
+                .holderName(entry.holderName())
+                .holderPhone(entry.holderPhone())
+                .status(entry.status())
+                .reservationId(entry.reservationId())
+                .createdAt(entry.createdAt())
+                .build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.marakosgrill.reservation.util;
+
+import java.util.Map;
+
+// Opciones de evento que la reserva guarda solo por id (turno_evento, tipo_distribucion_mesa,
+// color_manteleria_mesa). Copia de marakos-web/src/config/event-config.ts, usada para
+// mostrar nombre y precio en las notificaciones.
+public final class EventOptions {
+    private record Shift(String name, String timeRange, int price) {}
+
+    private static final Map<Integer, Shift> EVENT_SHIFTS = Map.of(
+            1, new Shift("Mañana", "08:00 - 12:00", 250),
+            2, new Shift("Tarde", "13:00 - 18:00", 350),
+            3, new Shift("Noche", "20:00 - 00:00", 450));
+    private static final Map<Integer, String> TABLE_DISTRIBUTIONS = Map.of(
+            1, "Auditorio", 2, "Cóctel", 3, "Banquete", 4, "Escuela");
+    // La mantelería no tiene costo
+    private static final Map<Integer, String> LINEN_COLORS = Map.of(
+            1, "Blanco Clásico", 2, "Champagne", 3, "Dorado", 4, "Negro Elegante", 5, "Azul Noche", 6, "Vino");
+
+    private EventOptions() {
+    }
+
+    // "Noche (20:00 - 00:00) S/ 450"
+    public static String shiftLabel(Integer shiftId) {
+        if (shiftId == null) return null;
+        Shift shift = EVENT_SHIFTS.get(shiftId);
+        return shift == null ? String.valueOf(shiftId)
+                : shift.name() + " (" + shift.timeRange() + ") S/ " + shift.price();
+    }
+
+    public static String tableDistributionLabel(Integer distributionId) {
+        if (distributionId == null) return null;
+        return TABLE_DISTRIBUTIONS.getOrDefault(distributionId, String.valueOf(distributionId)) + " S/ 0";
+    }
+
+    public static String linenColorLabel(Integer colorId) {
+        if (colorId == null) return null;
+        return LINEN_COLORS.getOrDefault(colorId, String.valueOf(colorId)) + " S/ 0";
+    }
+}
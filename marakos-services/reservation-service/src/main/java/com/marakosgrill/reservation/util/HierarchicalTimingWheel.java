@@ -0,0 +1,130 @@
+package com.marakosgrill.reservation.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rueda de tiempo jerárquica para vencimientos: agregar y cancelar son O(1) y cada avance
+// solo recorre las casillas que vencen. El primer nivel tiene casillas de 'tickMillis'; cada
+// nivel superior cubre la vuelta completa del inferior y sus entradas bajan al nivel fino
+// cuando se acerca su vencimiento. Las entradas vencen con resolución de un tick (nunca antes).
+// No es thread-safe por sí sola; los métodos públicos están sincronizados.
+public final class HierarchicalTimingWheel<K> {
+    private final Level<K> root;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMillis > 0 y wheelSize > 1");
+        }
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    // Programa (o reprograma) el vencimiento de la clave; false si ya está vencida
+    public synchronized boolean schedule(K key, long expirationMillis) {
+        cancel(key);
+        if (expirationMillis <= root.currentTime) return false;
+        Entry<K> entry = new Entry<>(key, expirationMillis);
+        entries.put(key, entry);
+        root.add(entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) return false;
+        entry.cancelled = true;
+        return true;
+    }
+
+    // Avanza el reloj hasta 'nowMillis' y devuelve las claves vencidas
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        List<Entry<K>> due = new ArrayList<>();
+        while (root.currentTime + root.tick <= nowMillis) {
+            root.currentTime += root.tick;
+            // Primero bajan las entradas de los niveles superiores que entran en este tramo
+            if (root.overflow != null) {
+                root.overflow.advance(root.currentTime, due);
+                for (Entry<K> entry : due) {
+                    if (!entry.cancelled) root.add(entry);
+                }
+                due.clear();
+            }
+            root.drain(root.currentTime, due);
+            for (Entry<K> entry : due) {
+                if (entry.cancelled) continue;
+                if (entry.expiration <= nowMillis) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    root.add(entry);
+                }
+            }
+            due.clear();
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Level<K> {
+        private final long tick;
+        private final int size;
+        private final long interval;
+        private final List<List<Entry<K>>> buckets;
+        private long currentTime;
+        private Level<K> overflow;
+
+        Level(long tick, int size, long startMillis) {
+            this.tick = tick;
+            this.size = size;
+            this.interval = tick * size;
+            this.currentTime = startMillis - (startMillis % tick);
+            this.buckets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) buckets.add(new ArrayList<>());
+        }
+
+        void add(Entry<K> entry) {
+            // Lo que vence dentro del tick actual va a la próxima casilla: se entrega tarde, nunca antes
+            long slotTime = Math.max(entry.expiration, currentTime + tick);
+            if (slotTime < currentTime + interval) {
+                buckets.get((int) ((slotTime / tick) % size)).add(entry);
+            } else {
+                if (overflow == null) overflow = new Level<>(interval, size, currentTime);
+                overflow.add(entry);
+            }
+        }
+
+        // Casilla que empieza en 'time' (time es múltiplo de tick)
+        void drain(long time, List<Entry<K>> due) {
+            List<Entry<K>> bucket = buckets.get((int) ((time / tick) % size));
+            due.addAll(bucket);
+            bucket.clear();
+        }
+
+        void advance(long now, List<Entry<K>> due) {
+            while (currentTime + tick <= now) {
+                currentTime += tick;
+                drain(currentTime, due);
+            }
+            if (overflow != null) {
+                overflow.advance(now, due);
+            }
+        }
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long expiration;
+        private boolean cancelled;
+
+        Entry(K key, long expiration) {
+            this.key = key;
+            this.expiration = expiration;
+        }
+    }
+}
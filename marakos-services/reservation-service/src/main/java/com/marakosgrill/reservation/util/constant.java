@@ -26,8 +26,11 @@ public class constant {
     public static final String RESERVATION_NO_SHOW_MESSAGE = "No se ha presentado a su reserva. Código de reserva: ";
     public static final String RESERVATION_COMPLETED_MESSAGE = "Su reserva ha sido completada. Código de reserva: ";
     public static final String RESERVATION_PAID_MESSAGE = "El pago de su reserva ha sido procesado. Código de reserva: ";
+    public static final String RESERVATION_WAITLIST_PROMOTED_MESSAGE = "Se liberó una mesa y su solicitud en lista de espera se convirtió en reserva. Código de reserva: ";
 
     public static final String RESERVATION_STATUS_PENDING= "PENDIENTE";
+    public static final String RESERVATION_STATUS_PENDING_PAYMENT= "PENDIENTE_PAGO";
+    public static final String RESERVATION_STATUS_CONFIRMED= "CONFIRMADO";
     public static final String RESERVATION_STATUS_CANCELED= "CANCELADO";
     public static final String RESERVATION_STATUS_COMPLETED= "COMPLETADO";
     public static final String RESERVATION_STATUS_NO_SHOW= "NO_PRESENTADO";
@@ -35,6 +38,14 @@ public class constant {
     public static final String RESERVATION_STATUS_CHECK_OUT= "CHECK_OUT";
     public static final String RESERVATION_STATUS_PAID= "PAGADO";
 
+    public static final String WAITLIST_STATUS_WAITING= "EN_ESPERA";
+    public static final String WAITLIST_STATUS_PROMOTED= "PROMOVIDO";
+    public static final String WAITLIST_STATUS_CANCELED= "CANCELADO";
+    public static final String WAITLIST_STATUS_EXPIRED= "VENCIDO";
+
     public static final String NOTIFICATION_STATUS_PENDING= "PENDIENTE";
     public static final String NOTIFICATION_STATUS_SENT= "ENVIADO";
+    public static final String NOTIFICATION_STATUS_FAILED= "FALLIDO";
+    // Tipos que notification-service no envía: quedan solo como registro, fuera del outbox
+    public static final String NOTIFICATION_STATUS_LOGGED= "REGISTRADO";
 }
@@ -0,0 +1,8 @@
+-- Índice parcial para el barrido de pagos online abandonados
+-- Solo contiene las reservas PENDIENTE_PAGO, así cada lote se localiza sin recorrer reserva
+
+CREATE INDEX IF NOT EXISTS ix_reserva_pendiente_creacion
+ON reserva (fecha_creacion, id_reserva)
+WHERE UPPER(estado) = 'PENDIENTE_PAGO' AND registro_activo = true;
+
+COMMIT;
@@ -0,0 +1,31 @@
+-- Migración para la lista de espera de mesas
+-- Un cliente sin mesa disponible queda en espera para la fecha/hora; al liberarse una mesa
+-- se promueve la primera solicitud que entra y se registra la reserva creada
+
+CREATE TABLE IF NOT EXISTS reserva_lista_espera (
+    id_lista_espera SERIAL PRIMARY KEY,
+    id_cliente INTEGER NOT NULL,
+    fecha_reserva DATE NOT NULL,
+    hora_reserva TIME NOT NULL,
+    cantidad_personas INTEGER NOT NULL,
+    forma_pago VARCHAR(20),
+    documento_identidad_titular VARCHAR(20),
+    telefono_titular VARCHAR(20),
+    nombre_titular VARCHAR(100),
+    email_titular VARCHAR(100),
+    observacion VARCHAR(500),
+    tyc INTEGER NOT NULL DEFAULT 0,
+    estado VARCHAR(20) NOT NULL,
+    id_reserva INTEGER REFERENCES reserva (id_reserva),
+    fecha_promocion TIMESTAMP,
+    id_usuario_creacion INTEGER NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    fecha_modificacion TIMESTAMP
+);
+
+-- Solo las solicitudes en espera se cargan en memoria al iniciar y al sincronizar
+CREATE INDEX IF NOT EXISTS ix_reserva_lista_espera_pendiente
+ON reserva_lista_espera (fecha_reserva, hora_reserva)
+WHERE estado = 'EN_ESPERA';
+
+COMMIT;
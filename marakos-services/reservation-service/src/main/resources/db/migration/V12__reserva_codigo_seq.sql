@@ -0,0 +1,12 @@
+-- Contador por fecha para los códigos RES-yyyyMMdd-NNN, compartido por todos los nodos
+-- Cada código sale de un UPDATE ... RETURNING sobre la fila de su fecha; la fila se crea con el
+-- MAX() de los códigos existentes la primera vez que se pide un código para esa fecha
+
+CREATE TABLE IF NOT EXISTS reserva_codigo_seq (
+    fecha_reserva DATE PRIMARY KEY,
+    ultimo_correlativo INTEGER NOT NULL
+);
+
+COMMENT ON COLUMN reserva_codigo_seq.ultimo_correlativo IS 'Último NNN entregado para fecha_reserva';
+
+COMMIT;
@@ -0,0 +1,10 @@
+-- Las notificaciones que el despachador no envía (UPDATE, CHECK_IN, CHECK_OUT, PAGADO,
+-- WAITLIST_PROMOTION) pasan a REGISTRADO para que no se acumulen en ix_notificacion_pendiente
+
+UPDATE notificacion
+SET estado = 'REGISTRADO',
+    fecha_modificacion = CURRENT_TIMESTAMP
+WHERE estado = 'PENDIENTE'
+  AND tipo_notificacion NOT IN ('CREATION', 'CANCELLATION');
+
+COMMIT;
@@ -0,0 +1,58 @@
+-- Migración para impedir la doble reserva de una mesa en la misma fecha y hora
+-- Se copian fecha/hora de la reserva en reserva_mesa para poder indexar la franja
+
+ALTER TABLE reserva_mesa
+ADD COLUMN fecha_reserva DATE,
+ADD COLUMN hora_reserva TIME;
+
+UPDATE reserva_mesa rm
+SET fecha_reserva = r.fecha_reserva,
+    hora_reserva = r.hora_reserva
+FROM reserva r
+WHERE r.id_reserva = rm.id_reserva;
+
+-- Las reservas canceladas ya no ocupan sus mesas
+UPDATE reserva_mesa rm
+SET registro_activo = false
+FROM reserva r
+WHERE r.id_reserva = rm.id_reserva
+  AND UPPER(r.estado) = 'CANCELADO'
+  AND rm.registro_activo = true;
+
+-- Las dobles reservas previas no se resuelven aquí: si las hay, la migración se detiene y las
+-- lista para que se decida a mano cuál se conserva. Para revisarlas:
+--   SELECT rm.id_mesa, rm.fecha_reserva, rm.hora_reserva, rm.id_reserva, r.codigo_reserva, r.estado
+--   FROM reserva_mesa rm JOIN reserva r ON r.id_reserva = rm.id_reserva
+--   WHERE rm.registro_activo = true AND rm.hora_reserva IS NOT NULL
+--     AND (rm.id_mesa, rm.fecha_reserva, rm.hora_reserva) IN (
+--         SELECT id_mesa, fecha_reserva, hora_reserva FROM reserva_mesa
+--         WHERE registro_activo = true AND hora_reserva IS NOT NULL
+--         GROUP BY id_mesa, fecha_reserva, hora_reserva HAVING COUNT(*) > 1)
+--   ORDER BY rm.fecha_reserva, rm.hora_reserva, rm.id_mesa, rm.id_reserva;
+DO $$
+DECLARE
+    conflictos TEXT;
+BEGIN
+    SELECT STRING_AGG(FORMAT('mesa %s el %s %s: reservas %s', id_mesa, fecha_reserva, hora_reserva, reservas), '; ')
+    INTO conflictos
+    FROM (
+        SELECT id_mesa, fecha_reserva, hora_reserva, STRING_AGG(CAST(id_reserva AS VARCHAR), ', ' ORDER BY id_reserva) AS reservas
+        FROM reserva_mesa
+        WHERE registro_activo = true AND hora_reserva IS NOT NULL
+        GROUP BY id_mesa, fecha_reserva, hora_reserva
+        HAVING COUNT(*) > 1
+    ) duplicadas;
+
+    IF conflictos IS NOT NULL THEN
+        RAISE EXCEPTION 'Mesas con más de una reserva activa en la misma franja, resolver antes de migrar: %', conflictos;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX ux_reserva_mesa_franja_activa
+ON reserva_mesa (id_mesa, fecha_reserva, hora_reserva)
+WHERE registro_activo = true AND hora_reserva IS NOT NULL;
+
+COMMENT ON COLUMN reserva_mesa.fecha_reserva IS 'Copia de reserva.fecha_reserva para el índice único de mesas ocupadas';
+COMMENT ON COLUMN reserva_mesa.hora_reserva IS 'Copia de reserva.hora_reserva para el índice único de mesas ocupadas';
+
+COMMIT;
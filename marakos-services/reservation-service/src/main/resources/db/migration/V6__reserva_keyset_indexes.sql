@@ -0,0 +1,10 @@
+-- Índices para la paginación por cursor (fecha_reserva, id_reserva) de los listados
+-- El historial de un cliente se recorre de la reserva más reciente a la más antigua
+
+CREATE INDEX IF NOT EXISTS ix_reserva_cliente_fecha_id
+ON reserva (id_cliente, fecha_reserva DESC, id_reserva DESC);
+
+CREATE INDEX IF NOT EXISTS ix_reserva_fecha_estado_id
+ON reserva (fecha_reserva, estado, id_reserva);
+
+COMMIT;
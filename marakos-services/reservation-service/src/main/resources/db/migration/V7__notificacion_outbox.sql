@@ -0,0 +1,25 @@
+-- Migración para usar notificacion como outbox: el despachador de reservation-service
+-- toma las filas PENDIENTE, las envía a notification-service y registra los reintentos
+
+ALTER TABLE notificacion
+ADD COLUMN intentos INTEGER DEFAULT 0 NOT NULL,
+ADD COLUMN proximo_intento TIMESTAMP,
+ADD COLUMN ultimo_error VARCHAR(500);
+
+COMMENT ON COLUMN notificacion.intentos IS 'Cantidad de envíos fallidos a notification-service';
+COMMENT ON COLUMN notificacion.proximo_intento IS 'No se reintenta antes de esta fecha (también sirve de lease del nodo que la tomó)';
+
+-- Hasta ahora nadie cambiaba el estado de estas filas y el cliente ya recibió esas notificaciones
+-- desde el frontend: se cierran todas las existentes para que el despachador no las reenvíe
+UPDATE notificacion
+SET estado = 'ENVIADO',
+    fecha_envio = COALESCE(fecha_envio, fecha_creacion),
+    fecha_modificacion = CURRENT_TIMESTAMP
+WHERE estado = 'PENDIENTE';
+
+-- Índice parcial para que la búsqueda de pendientes no recorra el histórico enviado
+CREATE INDEX IF NOT EXISTS ix_notificacion_pendiente
+ON notificacion (proximo_intento, id_notificacion)
+WHERE estado = 'PENDIENTE' AND registro_activo = true;
+
+COMMIT;
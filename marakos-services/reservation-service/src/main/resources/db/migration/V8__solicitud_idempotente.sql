@@ -0,0 +1,19 @@
+-- Migración para las claves Idempotency-Key de POST /api/reservation
+-- Guarda la respuesta de la primera ejecución para devolverla en los reintentos desde cualquier nodo
+
+CREATE TABLE IF NOT EXISTS solicitud_idempotente (
+    clave VARCHAR(100) PRIMARY KEY,
+    huella VARCHAR(64) NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    respuesta TEXT,
+    fecha_creacion TIMESTAMP NOT NULL,
+    fecha_expiracion TIMESTAMP NOT NULL
+);
+
+COMMENT ON COLUMN solicitud_idempotente.huella IS 'SHA-256 del cuerpo de la solicitud, para rechazar una clave reutilizada con otros datos';
+COMMENT ON COLUMN solicitud_idempotente.estado IS 'EN_PROCESO mientras se crea la reserva, COMPLETADO con la respuesta guardada';
+
+CREATE INDEX IF NOT EXISTS ix_solicitud_idempotente_expiracion
+ON solicitud_idempotente (fecha_expiracion);
+
+COMMIT;
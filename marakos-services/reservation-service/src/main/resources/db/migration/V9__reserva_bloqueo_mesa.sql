@@ -0,0 +1,17 @@
+-- Migración para los bloqueos temporales de mesas durante el pago
+-- Una fila por mesa/fecha/hora; un bloqueo vencido puede ser tomado por otro cliente
+
+CREATE TABLE IF NOT EXISTS reserva_bloqueo_mesa (
+    id_mesa INTEGER NOT NULL,
+    fecha_reserva DATE NOT NULL,
+    hora_reserva TIME NOT NULL,
+    token VARCHAR(36) NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    fecha_expiracion TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_mesa, fecha_reserva, hora_reserva)
+);
+
+CREATE INDEX IF NOT EXISTS ix_reserva_bloqueo_mesa_token ON reserva_bloqueo_mesa (token);
+CREATE INDEX IF NOT EXISTS ix_reserva_bloqueo_mesa_expiracion ON reserva_bloqueo_mesa (fecha_expiracion);
+
+COMMIT;
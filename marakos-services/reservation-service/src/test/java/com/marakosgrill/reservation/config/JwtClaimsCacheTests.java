@@ -0,0 +1,106 @@
+package com.marakosgrill.reservation.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtClaimsCacheTests {
+	private static final String SECRET = "miClaveSuperSecreta1234567890abcdefg123456";
+
+	@Test
+	void evictsTheLeastRecentlyUsedTokenWhenFull() {
+		JwtClaimsCache cache = new JwtClaimsCache(2, 60_000);
+		cache.put("a", principal("a", null), 0);
+		cache.put("b", principal("b", null), 0);
+		cache.get("a", 1);
+		cache.put("c", principal("c", null), 1);
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get("a", 2));
+		assertNull(cache.get("b", 2));
+		assertNotNull(cache.get("c", 2));
+	}
+
+	@Test
+	void entriesExpireWithTheTokenOrTheTtl() {
+		JwtClaimsCache cache = new JwtClaimsCache(10, 60_000);
+		cache.put("short", principal("short", new Date(1_000)), 0);
+		cache.put("long", principal("long", null), 0);
+
+		assertNotNull(cache.get("short", 999));
+		assertNull(cache.get("short", 1_000));
+		assertNotNull(cache.get("long", 59_999));
+		assertNull(cache.get("long", 60_000));
+	}
+
+	@Test
+	void providerRejectsTokensSignedWithAnotherKey() {
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 100, 300, new TokenRevocationList("http://localhost:0"));
+		String valid = Jwts.builder().setSubject("cliente@marakos.pe").claim("userId", 7).setExpiration(inOneHour())
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+		String forged = Jwts.builder().setSubject("cliente@marakos.pe").setExpiration(inOneHour())
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor("otraClaveSecretaDistinta1234567890abcdefgh".getBytes())).compact();
+
+		assertEquals("cliente@marakos.pe", provider.parseClaims(valid).getSubject());
+		// La segunda vez sale del caché
+		assertEquals(7L, provider.getUserId(valid));
+		assertNull(provider.parseClaims(forged));
+		assertNull(provider.parseClaims("no-es-un-jwt"));
+	}
+
+	@Test
+	void providerOnlyAcceptsExpiringAccessTokens() {
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 100, 300, new TokenRevocationList("http://localhost:0"));
+		String withoutExpiration = Jwts.builder().setSubject("cliente@marakos.pe").claim("userId", 7)
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+		String refresh = Jwts.builder().setSubject("cliente@marakos.pe").claim("typ", "refresh").setExpiration(inOneHour())
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+		String expired = Jwts.builder().setSubject("cliente@marakos.pe").setExpiration(new Date(System.currentTimeMillis() - 1_000))
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+
+		assertNull(provider.authenticate(withoutExpiration));
+		assertNull(provider.authenticate(refresh));
+		assertNull(provider.authenticate(expired));
+	}
+
+	@Test
+	void authenticationCarriesUserIdAndRolesFromTheToken() {
+		JwtTokenProvider provider = new JwtTokenProvider(SECRET, 100, 300, new TokenRevocationList("http://localhost:0"));
+		String token = Jwts.builder().setSubject("admin@marakos.pe").claim("userId", 3).claim("sid", "s-1")
+				.claim("roles", List.of("Administrador")).setExpiration(inOneHour())
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+		String legacy = Jwts.builder().setSubject("cliente@marakos.pe").claim("userId", 7).setExpiration(inOneHour())
+				.signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+
+		JwtAuthentication auth = provider.authenticate(token);
+		JwtPrincipal principal = (JwtPrincipal) auth.getPrincipal();
+		assertTrue(auth.isAuthenticated());
+		assertEquals("admin@marakos.pe", auth.getName());
+		assertEquals(3L, principal.userId());
+		assertEquals("s-1", principal.sessionId());
+		assertEquals(List.of("ROLE_ADMINISTRADOR"), auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+		assertEquals(3, JwtPrincipal.auditUserId(principal, 99));
+		assertEquals(99, JwtPrincipal.auditUserId(null, 99));
+		// Tokens emitidos antes de incluir roles
+		assertEquals(List.of("USER"), provider.authenticate(legacy).getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+		assertNull(provider.authenticate("no-es-un-jwt"));
+	}
+
+	private static Date inOneHour() {
+		return new Date(System.currentTimeMillis() + 3_600_000);
+	}
+
+	private static JwtPrincipal principal(String subject, Date expiration) {
+		Claims claims = Jwts.claims().setSubject(subject).setExpiration(expiration);
+		return JwtPrincipal.from(claims);
+	}
+}
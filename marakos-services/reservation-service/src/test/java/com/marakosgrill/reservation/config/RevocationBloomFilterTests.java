@@ -0,0 +1,57 @@
+package com.marakosgrill.reservation.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationBloomFilterTests {
+
+	@Test
+	void decodedFilterFindsEveryRevokedSession() {
+		List<String> revoked = sessionIds(5_000);
+		RevocationBloomFilter built = RevocationBloomFilter.of(revoked, 0.001);
+
+		// Lo que arma auth-service y lo que lee este servicio
+		RevocationBloomFilter decoded = RevocationBloomFilter.decode(built.encode(), built.hashFunctions());
+
+		assertEquals(built.encode(), decoded.encode());
+		assertTrue(revoked.stream().allMatch(decoded::mightContain));
+	}
+
+	@Test
+	void keepsFalsePositivesNearTheTargetRate() {
+		RevocationBloomFilter filter = RevocationBloomFilter.of(sessionIds(5_000), 0.001);
+
+		int probes = 200_000;
+		int falsePositives = 0;
+		for (String id : sessionIds(probes)) {
+			if (filter.mightContain(id)) falsePositives++;
+		}
+		double rate = (double) falsePositives / probes;
+
+		System.out.printf("Filtro de revocados (5000 sesiones): %.4f%% de falsos positivos%n", rate * 100);
+		assertTrue(rate < 0.002, "La tasa de falsos positivos debe quedar cerca del 0.1%");
+	}
+
+	@Test
+	void emptyFilterStillHasRoomAndRejectsGarbage() {
+		RevocationBloomFilter filter = RevocationBloomFilter.of(List.of(), 0.001);
+
+		assertFalse(filter.mightContain(UUID.randomUUID().toString()));
+		assertThrows(IllegalArgumentException.class, () -> RevocationBloomFilter.decode("AAAA", 3));
+		assertThrows(IllegalArgumentException.class, () -> RevocationBloomFilter.decode("", 3));
+	}
+
+	private static List<String> sessionIds(int count) {
+		List<String> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) ids.add(UUID.randomUUID().toString());
+		return ids;
+	}
+}
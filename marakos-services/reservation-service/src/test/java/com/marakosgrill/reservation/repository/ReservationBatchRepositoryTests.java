@@ -0,0 +1,110 @@
+package com.marakosgrill.reservation.repository;
+
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Una reserva con 2 mesas, 15 platos, 2 servicios y 1 pago se escribe con un executeBatch
+// por colección y ningún INSERT fila por fila. Se verifican las idas y vueltas, no el tiempo:
+// la ganancia depende de la latencia contra PostgreSQL, que un benchmark sin base no refleja.
+class ReservationBatchRepositoryTests {
+
+	private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+	private final AtomicInteger singleRowUpdates = new AtomicInteger();
+	private final AtomicInteger nextId = new AtomicInteger(100);
+
+	@Test
+	void writesEachChildCollectionInOneRoundTrip() throws Exception {
+		ReservationBatchRepository repository = new ReservationBatchRepository(new JdbcTemplate(countingDataSource()));
+		Reservation reservation = Reservation.builder().id(1).build();
+		LocalDateTime now = LocalDateTime.now();
+
+		List<ReservationTable> tables = IntStream.range(0, 2).mapToObj(i -> ReservationTable.builder()
+				.reservation(reservation).tableId(i + 1).createdBy(1).createdAt(now).active(true).build())
+				.collect(Collectors.toList());
+		List<ReservationProduct> products = IntStream.range(0, 15).mapToObj(i -> ReservationProduct.builder()
+				.reservation(reservation).productId(i + 1).quantity(1).subtotal(BigDecimal.TEN)
+				.createdBy(1).createdAt(now).active(true).build())
+				.collect(Collectors.toList());
+		List<ReservationEvent> events = IntStream.range(0, 2).mapToObj(i -> ReservationEvent.builder()
+				.reservation(reservation).serviceId(i + 1).quantity(1).subtotal(BigDecimal.ONE)
+				.createdBy(1).createdAt(now).active(true).build())
+				.collect(Collectors.toList());
+		List<Transaction> transactions = List.of(Transaction.builder()
+				.reservation(reservation).paymentDate(now).amount(BigDecimal.TEN).status("PAGADO")
+				.createdBy(1).createdAt(now).active(true).build());
+
+		repository.insertTables(tables);
+		repository.insertProducts(products);
+		repository.insertEvents(events);
+		repository.insertTransactions(transactions);
+
+		assertEquals(List.of(2, 15, 2, 1), batchSizes);
+		assertEquals(0, singleRowUpdates.get());
+		assertEquals(102, tables.get(1).getId());
+		assertEquals(117, products.get(14).getId());
+	}
+
+	private DataSource countingDataSource() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(metaData.supportsBatchUpdates()).thenReturn(true);
+		when(connection.prepareStatement(anyString(), any(String[].class))).thenAnswer(inv -> statement(connection, inv.getArgument(1, String[].class)[0]));
+		return dataSource;
+	}
+
+	private PreparedStatement statement(Connection connection, String idColumn) throws Exception {
+		PreparedStatement ps = mock(PreparedStatement.class);
+		when(ps.getConnection()).thenReturn(connection);
+		AtomicInteger batched = new AtomicInteger();
+		doAnswer(inv -> { batched.incrementAndGet(); return null; }).when(ps).addBatch();
+		when(ps.executeBatch()).thenAnswer(inv -> {
+			batchSizes.add(batched.get());
+			return new int[batched.get()];
+		});
+		when(ps.executeUpdate()).thenAnswer(inv -> { singleRowUpdates.incrementAndGet(); return 1; });
+		when(ps.getGeneratedKeys()).thenAnswer(inv -> generatedKeys(idColumn, batched.get()));
+		return ps;
+	}
+
+	private ResultSet generatedKeys(String idColumn, int rows) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+		AtomicInteger remaining = new AtomicInteger(rows);
+		when(rs.next()).thenAnswer(inv -> remaining.getAndDecrement() > 0);
+		when(rs.getMetaData()).thenReturn(metaData);
+		when(metaData.getColumnCount()).thenReturn(1);
+		when(metaData.getColumnLabel(1)).thenReturn(idColumn);
+		when(rs.getObject(anyInt())).thenAnswer(inv -> nextId.incrementAndGet());
+		return rs;
+	}
+}
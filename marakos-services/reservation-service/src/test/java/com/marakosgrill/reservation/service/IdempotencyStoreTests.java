@@ -0,0 +1,108 @@
+package com.marakosgrill.reservation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marakosgrill.reservation.dto.ReservationResponse;
+import com.marakosgrill.reservation.repository.IdempotencyKeyRepository;
+import com.marakosgrill.reservation.repository.projection.StoredIdempotentRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTests {
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final Map<String, String> request = Map.of("holderName", "Ana", "reservationDate", "2099-05-01");
+
+	@Test
+	void inFlightDuplicatesWaitForTheFirstExecution() throws Exception {
+		IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+		when(repository.tryClaim(anyString(), anyString(), any(), any(), any())).thenReturn(true);
+		IdempotencyStore store = new IdempotencyStore(repository, objectMapper);
+
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		List<Future<ReservationResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			futures.add(executor.submit(() -> store.execute("clave-1", request, ReservationResponse.class, () -> {
+				executions.incrementAndGet();
+				await(release);
+				return ReservationResponse.builder().id(10).code("RES-20990501-001").build();
+			})));
+		}
+		Thread.sleep(200);
+		release.countDown();
+		for (Future<ReservationResponse> future : futures) {
+			assertEquals("RES-20990501-001", future.get(10, TimeUnit.SECONDS).getCode());
+		}
+		executor.shutdown();
+
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void replayFromAnotherNodeReturnsStoredResponse() throws Exception {
+		IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+		IdempotencyStore seed = new IdempotencyStore(repository, objectMapper);
+		when(repository.tryClaim(anyString(), anyString(), any(), any(), any())).thenReturn(true);
+		seed.execute("clave-2", request, ReservationResponse.class, () -> ReservationResponse.builder().id(7).build());
+
+		// Otro nodo: la clave ya existe en la tabla con la respuesta guardada
+		IdempotencyStore otherNode = new IdempotencyStore(repository, objectMapper);
+		when(repository.tryClaim(anyString(), anyString(), any(), any(), any())).thenReturn(false);
+		String fingerprint = fingerprintOf();
+		when(repository.find(eq("clave-2"))).thenReturn(Optional.of(new StoredIdempotentRequest(fingerprint,
+				IdempotencyKeyRepository.STATUS_COMPLETED, objectMapper.writeValueAsString(ReservationResponse.builder().id(7).build()))));
+
+		ReservationResponse replay = otherNode.execute("clave-2", request, ReservationResponse.class, () -> {
+			throw new AssertionError("No debe volver a crear la reserva");
+		});
+		assertEquals(7, replay.getId());
+	}
+
+	@Test
+	void reusedKeyWithDifferentBodyIsRejected() {
+		IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+		when(repository.tryClaim(anyString(), anyString(), any(), any(), any())).thenReturn(true);
+		IdempotencyStore store = new IdempotencyStore(repository, objectMapper);
+		store.execute("clave-3", request, ReservationResponse.class, () -> ReservationResponse.builder().id(1).build());
+
+		assertThrows(RuntimeException.class, () -> store.execute("clave-3", Map.of("holderName", "Otro"),
+				ReservationResponse.class, () -> ReservationResponse.builder().id(2).build()));
+	}
+
+	// La huella se calcula igual en todos los nodos: se obtiene de la clave reclamada
+	private String fingerprintOf() {
+		IdempotencyKeyRepository probe = mock(IdempotencyKeyRepository.class);
+		org.mockito.ArgumentCaptor<String> captor = org.mockito.ArgumentCaptor.forClass(String.class);
+		when(probe.tryClaim(anyString(), captor.capture(), any(), any(), any())).thenReturn(true);
+		new IdempotencyStore(probe, objectMapper).execute("probe", request, ReservationResponse.class,
+				() -> ReservationResponse.builder().build());
+		return captor.getValue();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.config.ReservationScheduleConfig;
+import com.marakosgrill.reservation.dto.KitchenForecastResponse;
+import com.marakosgrill.reservation.dto.KitchenSlotForecastResponse;
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.KitchenForecastRepository;
+import com.marakosgrill.reservation.repository.projection.ProductPreorder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KitchenForecastTests {
+	private static final LocalDate DATE = LocalDate.of(2099, 2, 14);
+	private static final LocalTime TIME = LocalTime.of(20, 0);
+
+	@Test
+	void rebuildsFromTheGroupedQueryAndAppliesChangesAsDeltas() {
+		KitchenForecast forecast = forecast(List.of(
+				new ProductPreorder(1, DATE, TIME, "MESA", null, 10, "Parrilla", 2),
+				new ProductPreorder(2, DATE, TIME, "MESA", null, 10, "Parrilla", 3),
+				new ProductPreorder(3, DATE, null, "EVENTO", 1, 11, "Torta", 1)));
+
+		KitchenForecastResponse view = forecast.forecast(DATE);
+		assertEquals(2, view.getSlots().size());
+		KitchenSlotForecastResponse dinner = view.getSlots().get(0);
+		assertEquals("Noche", dinner.getShift());
+		assertEquals(2, dinner.getReservationCount());
+		assertEquals(5, dinner.getProducts().get(0).getQuantity());
+		assertEquals("Mañana", view.getSlots().get(1).getShift());
+		// Sin cambios se devuelve la misma respuesta ya armada
+		assertSame(view, forecast.forecast(DATE));
+
+		// La reserva 1 cambia su pedido; la 2 se cancela
+		forecast.onReservationChanged(event(1, "CONFIRMADO", Map.of(10, 1, 11, 4)));
+		forecast.onReservationChanged(event(2, "CANCELADO", null));
+
+		dinner = forecast.forecast(DATE).getSlots().get(0);
+		assertEquals(1, dinner.getReservationCount());
+		assertEquals(11, dinner.getProducts().get(0).getProductId());
+		assertEquals(4, dinner.getProducts().get(0).getQuantity());
+		assertEquals(1, dinner.getProducts().get(1).getQuantity());
+	}
+
+	@Test
+	void statusChangesKeepThePreviousProducts() {
+		KitchenForecast forecast = forecast(List.of(new ProductPreorder(1, DATE, TIME, "MESA", null, 10, "Parrilla", 2)));
+		forecast.forecast(DATE);
+
+		forecast.onReservationChanged(event(1, "CHECK_IN", null));
+
+		assertEquals(2, forecast.forecast(DATE).getSlots().get(0).getProducts().get(0).getQuantity());
+		forecast.onReservationChanged(event(1, "CANCELADO", null));
+		assertTrue(forecast.forecast(DATE).getSlots().isEmpty());
+	}
+
+	private static KitchenForecast forecast(List<ProductPreorder> rows) {
+		KitchenForecastRepository repository = mock(KitchenForecastRepository.class);
+		when(repository.findPreordersFrom(any())).thenReturn(rows);
+		when(repository.findProductNames(any())).thenReturn(Map.of(11, "Torta"));
+		KitchenForecast forecast = new KitchenForecast(repository, new ReservationSchedule(new ReservationScheduleConfig()));
+		forecast.rebuild();
+		return forecast;
+	}
+
+	private static ReservationChangedEvent event(int reservationId, String status, Map<Integer, Integer> products) {
+		return ReservationChangedEvent.builder()
+				.reservationId(reservationId)
+				.reservationDate(DATE)
+				.reservationTime(TIME)
+				.reservationType("MESA")
+				.status(status)
+				.active(true)
+				.productQuantities(products)
+				.build();
+	}
+}
@@ -0,0 +1,132 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.ReservationNotificationData;
+import com.marakosgrill.reservation.model.EventType;
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.model.ReservationEvent;
+import com.marakosgrill.reservation.model.ReservationProduct;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.model.TableEntity;
+import com.marakosgrill.reservation.repository.EventTypeRepository;
+import com.marakosgrill.reservation.repository.NotificationOutboxRepository;
+import com.marakosgrill.reservation.repository.ReservationDetailRepository;
+import com.marakosgrill.reservation.repository.ReservationRepository;
+import com.marakosgrill.reservation.repository.TableRepository;
+import com.marakosgrill.reservation.repository.projection.PendingNotification;
+import com.marakosgrill.reservation.repository.projection.ReservationChildren;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxDispatcherTests {
+	private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+	private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+	private final ReservationDetailRepository detailRepository = mock(ReservationDetailRepository.class);
+	private final TableRepository tableRepository = mock(TableRepository.class);
+	private final EventTypeRepository eventTypeRepository = mock(EventTypeRepository.class);
+	private final RestTemplate restTemplate = mock(RestTemplate.class);
+	private final NotificationOutboxDispatcher dispatcher = new NotificationOutboxDispatcher(outboxRepository,
+			reservationRepository, detailRepository, tableRepository, eventTypeRepository, restTemplate,
+			"http://notification", 50, 5);
+
+	@Test
+	void sendsTheFullEventPayloadBuiltFromTheStoredChildren() {
+		Reservation reservation = Reservation.builder()
+				.id(7)
+				.code("RES-20990214-001")
+				.reservationDate(LocalDate.of(2099, 2, 14))
+				.peopleCount(40)
+				.status("CONFIRMADO")
+				.paymentMethod("Digital")
+				.reservationType("EVENTO")
+				.eventType(EventType.builder().id(3).build())
+				.eventShift(3)
+				.tableDistributionType(3)
+				.tableClothColor(2)
+				.holderName("Ana")
+				.build();
+		ReservationChildren children = new ReservationChildren(
+				new ArrayList<>(List.of(ReservationTable.builder().tableId(5).active(true).build())),
+				new ArrayList<>(List.of(
+						ReservationProduct.builder().productId(10).quantity(4).subtotal(new BigDecimal("100.00")).active(true).build(),
+						ReservationProduct.builder().productId(11).quantity(1).subtotal(new BigDecimal("999.00")).active(false).build())),
+				new ArrayList<>(List.of(
+						ReservationEvent.builder().serviceId(20).quantity(1).subtotal(new BigDecimal("300.00")).observation("Rosas").active(true).build())),
+				new ArrayList<>());
+		when(outboxRepository.claim(any(), anyInt(), any(), any()))
+				.thenReturn(List.of(new PendingNotification(1, 7, "CREATION", 0)));
+		when(reservationRepository.findAllById(any())).thenReturn(List.of(reservation));
+		when(detailRepository.findChildren(any())).thenReturn(Map.of(7, children));
+		when(detailRepository.findProductNames(any())).thenReturn(Map.of(10, "Parrilla"));
+		when(detailRepository.findServiceNames(any())).thenReturn(Map.of(20, "Decoración floral"));
+		when(tableRepository.findAllById(any())).thenReturn(List.of(TableEntity.builder().id(5).code("M05").build()));
+		when(eventTypeRepository.findAllById(any())).thenReturn(List.of(EventType.builder().id(3).name("Boda").build()));
+
+		dispatcher.dispatchBatch();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<HttpEntity<ReservationNotificationData>> body = ArgumentCaptor.forClass(HttpEntity.class);
+		verify(restTemplate).postForEntity(eq("http://notification/api/notification/reservation/confirmed"),
+				body.capture(), eq(String.class));
+		ReservationNotificationData data = body.getValue().getBody();
+		assertEquals("notificacion-1", body.getValue().getHeaders().getFirst("Idempotency-Key"));
+		assertEquals("M05", data.getTableInfo());
+		assertEquals(400.0, data.getTotalAmount());
+		assertTrue(data.getHasPreOrder());
+		assertEquals(1, data.getOrderItems().size());
+		ReservationNotificationData.OrderItem item = data.getOrderItems().get(0);
+		assertEquals("Parrilla", item.getProductName());
+		assertEquals(4, item.getQuantity());
+		assertEquals(25.0, item.getUnitPrice());
+		assertEquals(100.0, item.getSubtotal());
+		assertEquals("Boda", data.getEventType());
+		assertEquals("Noche (20:00 - 00:00) S/ 450", data.getEventShift());
+		assertEquals("Banquete S/ 0", data.getTableDistribution());
+		assertEquals("Champagne S/ 0", data.getLinenColor());
+		assertEquals(1, data.getAdditionalServices().size());
+		assertEquals("Decoración floral", data.getAdditionalServices().get(0).getServiceName());
+		assertEquals(300.0, data.getAdditionalServices().get(0).getSubtotal());
+		assertEquals("Rosas", data.getAdditionalServices().get(0).getObservation());
+		verify(outboxRepository).markSent(eq(1), any());
+	}
+
+	@Test
+	void tableReservationWithoutChildrenHasNoPreOrderNorEventFields() {
+		Reservation reservation = Reservation.builder().id(8).code("RES-20990214-002").reservationType("MESA").build();
+		when(outboxRepository.claim(any(), anyInt(), any(), any()))
+				.thenReturn(List.of(new PendingNotification(2, 8, "CANCELLATION", 0)));
+		when(reservationRepository.findAllById(any())).thenReturn(List.of(reservation));
+		when(detailRepository.findChildren(any())).thenReturn(Map.of());
+
+		dispatcher.dispatchBatch();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<HttpEntity<ReservationNotificationData>> body = ArgumentCaptor.forClass(HttpEntity.class);
+		verify(restTemplate).postForEntity(eq("http://notification/api/notification/reservation/cancelled"),
+				body.capture(), eq(String.class));
+		ReservationNotificationData data = body.getValue().getBody();
+		assertEquals(0.0, data.getTotalAmount());
+		assertEquals(false, data.getHasPreOrder());
+		assertTrue(data.getOrderItems().isEmpty());
+		assertNull(data.getEventType());
+		assertNull(data.getEventShift());
+		assertNull(data.getAdditionalServices());
+	}
+}
@@ -0,0 +1,24 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.repository.ReservationCodeSequenceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationCodeGeneratorTests {
+
+	@Test
+	void formatsTheCorrelativeFromTheSharedCounter() {
+		ReservationCodeSequenceRepository repository = mock(ReservationCodeSequenceRepository.class);
+		when(repository.next(LocalDate.of(2099, 12, 31), "RES-20991231-")).thenReturn(42, 43, 1000);
+		ReservationCodeGenerator generator = new ReservationCodeGenerator(repository);
+
+		assertEquals("RES-20991231-042", generator.nextCode(LocalDate.of(2099, 12, 31)));
+		assertEquals("RES-20991231-043", generator.nextCode(LocalDate.of(2099, 12, 31)));
+		assertEquals("RES-20991231-1000", generator.nextCode(LocalDate.of(2099, 12, 31)));
+	}
+}
@@ -0,0 +1,54 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marakosgrill.reservation.dto.ReservationExportFormat;
+import com.marakosgrill.reservation.repository.projection.ReservationExportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationExportWriterTests {
+	private static final ReservationExportRow ROW = new ReservationExportRow(7, "RES-20990101-001",
+			LocalDate.of(2099, 1, 1), LocalTime.of(20, 0), "CONFIRMADO", "MESA", 4, 15,
+			"Peña, \"Lucho\"", "=987654321", "lucho@mail.com", "EFECTIVO", "M1, M2", 3, new BigDecimal("120.50"));
+
+	@Test
+	void writesQuotedCsvRows() throws Exception {
+		String[] lines = export(ReservationExportFormat.CSV).split("\r\n");
+
+		assertEquals(2, lines.length);
+		assertEquals("﻿codigo,fecha,hora,estado,tipo,personas,id_cliente,titular,telefono,email,forma_pago,mesas,cantidad_productos,total_productos", lines[0]);
+		assertEquals("RES-20990101-001,2099-01-01,20:00,CONFIRMADO,MESA,4,15,\"Peña, \"\"Lucho\"\"\",'=987654321,"
+				+ "lucho@mail.com,EFECTIVO,\"M1, M2\",3,120.50", lines[1]);
+	}
+
+	@Test
+	void writesOneJsonObjectPerLine() throws Exception {
+		String[] lines = export(ReservationExportFormat.NDJSON, ROW, ROW).split("\n");
+
+		assertEquals(2, lines.length);
+		JsonNode second = new ObjectMapper().readTree(lines[1]);
+		assertEquals("RES-20990101-001", second.get("code").asText());
+		assertEquals("M1, M2", second.get("tables").asText());
+		assertTrue(lines[1].endsWith("\"productTotal\":120.50}"));
+	}
+
+	private static String export(ReservationExportFormat format, ReservationExportRow... rows) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ReservationExportWriter writer = ReservationExportWriter.create(format, out, new ObjectMapper())) {
+			writer.start();
+			for (ReservationExportRow row : rows.length > 0 ? rows : new ReservationExportRow[]{ROW}) {
+				writer.write(row);
+			}
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
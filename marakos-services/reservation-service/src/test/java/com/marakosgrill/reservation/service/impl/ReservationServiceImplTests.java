@@ -0,0 +1,74 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.ReservationRequest;
+import com.marakosgrill.reservation.dto.ReservationTableRequest;
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.repository.ReservationBatchRepository;
+import com.marakosgrill.reservation.repository.ReservationRepository;
+import com.marakosgrill.reservation.repository.ReservationTableRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTests {
+	private static final LocalDate DATE = LocalDate.of(2099, 5, 1);
+
+	@Mock
+	private ReservationRepository reservationRepository;
+	@Mock
+	private ReservationTableRepository reservationTableRepository;
+	@Mock
+	private ReservationBatchRepository reservationBatchRepository;
+	@InjectMocks
+	private ReservationServiceImpl service;
+
+	@Test
+	void rejectsUpdatingACancelledReservation() {
+		when(reservationRepository.findById(1)).thenReturn(Optional.of(reservation("CANCELADO")));
+
+		assertThrows(RuntimeException.class, () -> service.updateReservation(1, tableRequest()));
+
+		// Las mesas liberadas al cancelar no vuelven a ocupar la franja
+		verifyNoInteractions(reservationTableRepository, reservationBatchRepository);
+		verify(reservationRepository, never()).save(any());
+	}
+
+	@Test
+	void rejectsUpdatingACheckedOutReservation() {
+		when(reservationRepository.findById(1)).thenReturn(Optional.of(reservation("CHECK_OUT")));
+
+		assertThrows(RuntimeException.class, () -> service.updateReservation(1, tableRequest()));
+
+		verifyNoInteractions(reservationTableRepository, reservationBatchRepository);
+		verify(reservationRepository, never()).save(any());
+	}
+
+	private static Reservation reservation(String status) {
+		return Reservation.builder().id(1).code("RES-20990501-001").reservationDate(DATE)
+				.reservationTime(LocalTime.of(20, 0)).status(status).reservationType("MESA").active(true).build();
+	}
+
+	private static ReservationRequest tableRequest() {
+		return ReservationRequest.builder()
+				.reservationDate(DATE)
+				.reservationTime(LocalTime.of(21, 0))
+				.reservationType("MESA")
+				.tables(List.of(ReservationTableRequest.builder().tableId(7).build()))
+				.build();
+	}
+}
@@ -0,0 +1,75 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.model.TableEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableAssignmentEngineTests {
+
+	@Test
+	void picksTheSmallestFreeTableThatFits() {
+		TableAssignmentEngine.Floor floor = TableAssignmentEngine.Floor.of(List.of(
+				table(1, 2, "Salón"), table(2, 4, "Salón"), table(3, 4, "Terraza"), table(4, 8, "Salón")));
+
+		assertEquals(List.of(2), ids(floor.suggest(3, id -> true, 3)));
+		assertEquals(List.of(3), ids(floor.suggest(3, id -> id != 2, 3)));
+		assertEquals(List.of(4), ids(floor.suggest(5, id -> true, 3)));
+	}
+
+	@Test
+	void joinsTablesOfTheSameLocationWithTheLeastWaste() {
+		TableAssignmentEngine.Floor floor = TableAssignmentEngine.Floor.of(List.of(
+				table(1, 4, "Salón"), table(2, 4, "Salón"), table(3, 2, "Salón"),
+				table(4, 6, "Terraza"), table(5, 6, "Terraza")));
+
+		// 10 personas: ninguna mesa alcanza; Salón suma 10 exactos con tres mesas, Terraza 12 con dos
+		assertEquals(Set.of(1, 2, 3), Set.copyOf(ids(floor.suggest(10, id -> true, 3))));
+		// Con dos mesas como máximo solo queda la Terraza
+		assertEquals(Set.of(4, 5), Set.copyOf(ids(floor.suggest(10, id -> true, 2))));
+		// Nunca se juntan mesas de ubicaciones distintas
+		assertTrue(floor.suggest(10, id -> id != 2 && id != 5, 3).isEmpty());
+	}
+
+	@Test
+	void answersQuicklyForAHundredTableFloor() {
+		List<TableEntity> tables = new ArrayList<>();
+		String[] locations = {"Salón", "Terraza", "Patio", "VIP"};
+		int[] capacities = {2, 2, 4, 4, 4, 6, 6, 8};
+		for (int id = 1; id <= 100; id++) {
+			tables.add(table(id, capacities[id % capacities.length], locations[id % locations.length]));
+		}
+		TableAssignmentEngine.Floor floor = TableAssignmentEngine.Floor.of(tables);
+		// Solo quedan libres las mesas de 2 y 4: los grupos grandes obligan a buscar combinaciones
+		BitSet free = new BitSet();
+		tables.stream().filter(t -> t.getCapacity() <= 4).forEach(t -> free.set(t.getId()));
+
+		int runs = 20_000;
+		for (int i = 0; i < runs; i++) floor.suggest(1 + i % 12, free::get, 3);
+		long start = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < runs; i++) {
+			if (!floor.suggest(1 + i % 12, free::get, 3).isEmpty()) found++;
+		}
+		double micros = (System.nanoTime() - start) / 1e3 / runs;
+
+		System.out.printf("Sugerencia de mesas (100 mesas): %.2f µs por consulta%n", micros);
+		assertEquals(runs, found);
+		assertTrue(micros < 1_000, "Cada sugerencia debe tomar menos de un milisegundo");
+	}
+
+	private static List<Integer> ids(List<TableEntity> tables) {
+		return tables.stream().map(TableEntity::getId).collect(Collectors.toList());
+	}
+
+	private static TableEntity table(int id, int capacity, String location) {
+		return TableEntity.builder().id(id).code("M" + id).capacity(capacity).location(location).active(true).build();
+	}
+}
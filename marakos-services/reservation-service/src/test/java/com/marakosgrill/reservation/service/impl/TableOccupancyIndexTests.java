@@ -0,0 +1,121 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.model.Reservation;
+import com.marakosgrill.reservation.model.ReservationTable;
+import com.marakosgrill.reservation.repository.ReservationTableRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Ocupación por intervalos: una reserva de las 20:00 con duración de 120 minutos
+// bloquea la mesa desde las 18:01 hasta las 21:59 para otra reserva.
+class TableOccupancyIndexTests {
+	private static final LocalDate DATE = LocalDate.of(2099, 5, 1);
+
+	@Test
+	void blocksOverlappingTimesOnTheSameTable() {
+		TableOccupancyIndex index = emptyIndex();
+		book(index, 1, 7, LocalTime.of(20, 0));
+
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(20, 0)));
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(20, 30)));
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(21, 59)));
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(18, 30)));
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(22, 0)));
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(18, 0)));
+		assertFalse(index.isOccupied(8, DATE, LocalTime.of(20, 0)));
+	}
+
+	@Test
+	void ignoresTheReservationBeingModifiedAndFreesOnCancel() {
+		TableOccupancyIndex index = emptyIndex();
+		book(index, 1, 7, LocalTime.of(20, 0));
+		book(index, 2, 7, LocalTime.of(13, 0));
+
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(20, 30), 2));
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(20, 30), 1));
+
+		index.onReservationChanged(ReservationChangedEvent.builder()
+				.reservationId(1).reservationDate(DATE).reservationTime(LocalTime.of(20, 0))
+				.status("CANCELADO").active(true).tableIds(List.of()).build());
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(20, 30)));
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(14, 0)));
+	}
+
+	@Test
+	void snapshotMarksEverySlotCoveredByAReservation() {
+		TableOccupancyIndex index = emptyIndex();
+		book(index, 1, 3, LocalTime.of(20, 0));
+		book(index, 2, 4, LocalTime.of(12, 30));
+
+		List<LocalTime> slots = List.of(LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(14, 0),
+				LocalTime.of(19, 0), LocalTime.of(20, 0), LocalTime.of(21, 0), LocalTime.of(22, 0));
+		Map<LocalTime, BitSet> occupied = index.snapshot(DATE, slots);
+
+		assertEquals(bits(4), occupied.get(LocalTime.of(12, 0)));
+		assertEquals(bits(4), occupied.get(LocalTime.of(13, 0)));
+		assertEquals(bits(4), occupied.get(LocalTime.of(14, 0)));
+		assertEquals(bits(3), occupied.get(LocalTime.of(19, 0)));
+		assertEquals(bits(3), occupied.get(LocalTime.of(20, 0)));
+		assertEquals(bits(3), occupied.get(LocalTime.of(21, 0)));
+		assertFalse(occupied.containsKey(LocalTime.of(22, 0)));
+	}
+
+	@Test
+	void reloadsTheDayToSeeReservationsMadeOnOtherNodes() {
+		ReservationTableRepository repository = mock(ReservationTableRepository.class);
+		Reservation otherNode = Reservation.builder().id(9).reservationDate(DATE).reservationTime(LocalTime.of(20, 0))
+				.status("PENDIENTE").active(true).build();
+		when(repository.findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(any(), anyString()))
+				.thenReturn(List.of())
+				.thenReturn(List.of(ReservationTable.builder().reservation(otherNode).tableId(7).active(true).build()))
+				.thenReturn(List.of());
+		// Intervalo 0: cada consulta vuelve a leer el día
+		TableOccupancyIndex index = new TableOccupancyIndex(repository, new ReservationDuration(120), 0);
+
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(20, 0)));
+		// Otro nodo reservó la mesa 7 sin que este nodo recibiera el evento
+		assertTrue(index.isOccupied(7, DATE, LocalTime.of(20, 30)));
+		// ...y luego la canceló
+		assertFalse(index.isOccupied(7, DATE, LocalTime.of(20, 30)));
+	}
+
+	private static void book(TableOccupancyIndex index, int reservationId, int tableId, LocalTime time) {
+		index.onReservationChanged(ReservationChangedEvent.builder()
+				.reservationId(reservationId)
+				.reservationDate(DATE)
+				.reservationTime(time)
+				.status("PENDIENTE")
+				.active(true)
+				.tableIds(List.of(tableId))
+				.build());
+	}
+
+	private static BitSet bits(int... ids) {
+		BitSet bits = new BitSet();
+		for (int id : ids) bits.set(id);
+		return bits;
+	}
+
+	private static TableOccupancyIndex emptyIndex() {
+		ReservationTableRepository repository = mock(ReservationTableRepository.class);
+		when(repository.findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(any(), anyString()))
+				.thenReturn(List.of());
+		TableOccupancyIndex index = new TableOccupancyIndex(repository, new ReservationDuration(120), 60_000);
+		index.isOccupied(1, DATE, LocalTime.NOON); // Carga el día antes de aplicar eventos
+		return index;
+	}
+}
@@ -0,0 +1,100 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.event.ReservationChangedEvent;
+import com.marakosgrill.reservation.repository.ReservationTableRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Prueba de estrés: cientos de reservas simultáneas por la misma mesa/fecha/hora
+// siguen el flujo bloquear -> validar en el índice -> registrar, y solo una debe ganar.
+class TableSlotLocksTests {
+	private static final LocalDate DATE = LocalDate.of(2099, 2, 14);
+	private static final LocalTime TIME = LocalTime.of(20, 0);
+
+	private final TableSlotLocks locks = new TableSlotLocks();
+	private final AtomicInteger reservationIds = new AtomicInteger();
+
+	@Test
+	void onlyOneConcurrentBookingWinsTheSameSlot() throws Exception {
+		TableOccupancyIndex index = emptyIndex();
+		int attempts = 500;
+
+		long start = System.nanoTime();
+		int winners = book(index, attempts, i -> 7);
+		long elapsed = System.nanoTime() - start;
+
+		System.out.printf("Misma franja: %d intentos, %d ganador(es), %.0f reservas/s%n",
+				attempts, winners, attempts / (elapsed / 1e9));
+		assertEquals(1, winners);
+	}
+
+	@Test
+	void bookingsForDifferentTablesDoNotBlockEachOther() throws Exception {
+		TableOccupancyIndex index = emptyIndex();
+		int attempts = 500;
+
+		long start = System.nanoTime();
+		int winners = book(index, attempts, i -> i + 1);
+		long elapsed = System.nanoTime() - start;
+
+		System.out.printf("Franjas distintas: %d intentos, %d ganador(es), %.0f reservas/s%n",
+				attempts, winners, attempts / (elapsed / 1e9));
+		assertEquals(attempts, winners);
+	}
+
+	private int book(TableOccupancyIndex index, int attempts, java.util.function.IntUnaryOperator tableFor) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch go = new CountDownLatch(1);
+		AtomicInteger winners = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < attempts; i++) {
+			int tableId = tableFor.applyAsInt(i);
+			futures.add(executor.submit(() -> {
+				go.await();
+				try (TableSlotLocks.SlotLock ignored = locks.lock(List.of(tableId), DATE)) {
+					if (!index.isOccupied(tableId, DATE, TIME)) {
+						index.onReservationChanged(ReservationChangedEvent.builder()
+								.reservationId(reservationIds.incrementAndGet())
+								.reservationDate(DATE)
+								.reservationTime(TIME)
+								.status("PENDIENTE")
+								.active(true)
+								.tableIds(List.of(tableId))
+								.build());
+						winners.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		go.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		return winners.get();
+	}
+
+	private TableOccupancyIndex emptyIndex() {
+		ReservationTableRepository repository = mock(ReservationTableRepository.class);
+		when(repository.findByReservation_ReservationDateAndActiveTrueAndReservation_StatusNot(any(), anyString()))
+				.thenReturn(List.of());
+		return new TableOccupancyIndex(repository, new ReservationDuration(120), 60_000);
+	}
+}
@@ -0,0 +1,86 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.repository.projection.WaitlistEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitlistIndexTests {
+	private static final LocalDate SATURDAY = LocalDate.of(2099, 2, 14);
+
+	private final WaitlistIndex index = new WaitlistIndex(new ReservationDuration(120));
+
+	@Test
+	void offersTheOldestEntryOfEachPartySizeInOverlappingSlots() {
+		index.add(entry(1, "20:00", 4));
+		index.add(entry(2, "20:00", 2));
+		index.add(entry(3, "20:00", 4));
+		index.add(entry(4, "21:00", 6));
+		index.add(entry(5, "23:00", 2));
+		index.add(entry(6, "20:00", 2, SATURDAY.plusDays(1)));
+
+		// A las 20:00 se solapan 20:00 y 21:00; 23:00 queda fuera de las dos horas
+		assertEquals(List.of(1, 2, 4), ids(index.candidates(SATURDAY, LocalTime.of(20, 0))));
+
+		index.remove(1);
+		assertEquals(List.of(2, 3, 4), ids(index.candidates(SATURDAY, LocalTime.of(20, 0))));
+		assertEquals(List.of(4, 5), ids(index.candidates(SATURDAY, LocalTime.of(22, 30))));
+	}
+
+	@Test
+	void keepsArrivalOrderWhenEntriesComeFromAnotherNode() {
+		index.add(entry(7, "20:00", 4));
+		index.add(entry(3, "20:00", 4));
+
+		assertEquals(List.of(3), ids(index.candidates(SATURDAY, LocalTime.of(20, 0))));
+
+		index.replaceAll(List.of(entry(9, "20:00", 4), entry(8, "20:00", 4)));
+		assertEquals(List.of(8), ids(index.candidates(SATURDAY, LocalTime.of(20, 0))));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	void looksUpAFullSaturdayWithoutScanningIt() {
+		int id = 0;
+		for (int hour = 12; hour <= 23; hour++) {
+			for (int i = 0; i < 50; i++) {
+				index.add(entry(++id, String.format("%02d:00", hour), 1 + i % 10));
+			}
+		}
+		assertEquals(600, index.size());
+
+		int runs = 100_000;
+		for (int i = 0; i < runs; i++) index.candidates(SATURDAY, LocalTime.of(12 + i % 12, 0));
+		long start = System.nanoTime();
+		int offered = 0;
+		for (int i = 0; i < runs; i++) {
+			offered += index.candidates(SATURDAY, LocalTime.of(12 + i % 12, 0)).size();
+		}
+		double micros = (System.nanoTime() - start) / 1e3 / runs;
+
+		System.out.printf("Lista de espera (600 solicitudes): %.2f µs por liberación%n", micros);
+		// Como máximo tres franjas que se solapan x diez tamaños de grupo
+		assertTrue(offered <= runs * 30);
+		assertTrue(micros < 100, "Cada búsqueda debe tomar menos de 100 µs");
+	}
+
+	private static List<Integer> ids(List<WaitlistEntry> entries) {
+		return entries.stream().map(WaitlistEntry::id).collect(Collectors.toList());
+	}
+
+	private static WaitlistEntry entry(int id, String time, int people) {
+		return entry(id, time, people, SATURDAY);
+	}
+
+	private static WaitlistEntry entry(int id, String time, int people, LocalDate date) {
+		return new WaitlistEntry(id, 1, date, LocalTime.parse(time), people, "EFECTIVO", null, null,
+				"Cliente " + id, null, null, 1, "EN_ESPERA", null, 1, LocalDateTime.now());
+	}
+}
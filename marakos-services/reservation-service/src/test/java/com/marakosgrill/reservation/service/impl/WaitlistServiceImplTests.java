@@ -0,0 +1,71 @@
+package com.marakosgrill.reservation.service.impl;
+
+import com.marakosgrill.reservation.dto.ReservationResponse;
+import com.marakosgrill.reservation.dto.SuggestedTableResponse;
+import com.marakosgrill.reservation.dto.TableSuggestionResponse;
+import com.marakosgrill.reservation.repository.WaitlistRepository;
+import com.marakosgrill.reservation.repository.projection.WaitlistEntry;
+import com.marakosgrill.reservation.service.NotificationService;
+import com.marakosgrill.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceImplTests {
+	private static final LocalDate DATE = LocalDate.of(2099, 2, 14);
+	private static final LocalTime TIME = LocalTime.of(20, 0);
+
+	private final WaitlistRepository waitlistRepository = mock(WaitlistRepository.class);
+	private final WaitlistIndex waitlistIndex = new WaitlistIndex(new ReservationDuration(120));
+	private final ReservationService reservationService = mock(ReservationService.class);
+	private final NotificationService notificationService = mock(NotificationService.class);
+	private final WaitlistServiceImpl service = new WaitlistServiceImpl(waitlistRepository, waitlistIndex,
+			reservationService, notificationService, mock(PlatformTransactionManager.class));
+
+	@Test
+	void doesNotCountAnEntryPromotedElsewhere() {
+		waitlistIndex.add(entry(1));
+		when(reservationService.suggestTables(DATE, TIME, 4)).thenReturn(freeTable());
+		// Otro nodo la promovió o el cliente la retiró
+		when(waitlistRepository.markPromoted(eq(1), any())).thenReturn(false);
+
+		assertEquals(0, service.promote(DATE, TIME));
+		assertEquals(0, waitlistIndex.size());
+		verify(reservationService, never()).createReservation(any());
+	}
+
+	@Test
+	void countsTheEntryItPromoted() {
+		waitlistIndex.add(entry(1));
+		when(reservationService.suggestTables(DATE, TIME, 4)).thenReturn(freeTable());
+		when(waitlistRepository.markPromoted(eq(1), any())).thenReturn(true);
+		when(reservationService.createReservation(any()))
+				.thenReturn(ReservationResponse.builder().id(50).code("RES-20990214-001").build());
+
+		assertEquals(1, service.promote(DATE, TIME));
+		assertEquals(0, waitlistIndex.size());
+		verify(waitlistRepository).attachReservation(1, 50);
+	}
+
+	private static TableSuggestionResponse freeTable() {
+		return TableSuggestionResponse.builder().tables(List.of(SuggestedTableResponse.builder().build())).build();
+	}
+
+	private static WaitlistEntry entry(int id) {
+		return new WaitlistEntry(id, 9, DATE, TIME, 4, "Presencial", null, null, "Ana", null, null, 1,
+				"EN_ESPERA", null, 1, LocalDateTime.of(2099, 1, 1, 12, 0));
+	}
+}
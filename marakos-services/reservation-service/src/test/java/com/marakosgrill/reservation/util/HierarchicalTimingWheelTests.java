@@ -0,0 +1,63 @@
+package com.marakosgrill.reservation.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTests {
+	private static final long START = 1_000_000_000L;
+
+	@Test
+	void expiresEntriesAcrossLevelsNeverEarly() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+		wheel.schedule("segundos", START + 1_500);
+		wheel.schedule("minutos", START + 90_000);
+		wheel.schedule("horas", START + 3_700_000);
+		wheel.schedule("cancelada", START + 5_000);
+		wheel.cancel("cancelada");
+
+		assertEquals(List.of(), wheel.advance(START + 1_000));
+		assertEquals(List.of("segundos"), wheel.advance(START + 2_000));
+		assertEquals(List.of(), wheel.advance(START + 89_999));
+		assertEquals(List.of("minutos"), wheel.advance(START + 90_000));
+		assertEquals(List.of(), wheel.advance(START + 3_699_000));
+		assertEquals(List.of("horas"), wheel.advance(START + 3_700_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void rescheduleReplacesThePreviousExpiration() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+		wheel.schedule("bloqueo", START + 10_000);
+		wheel.schedule("bloqueo", START + 20_000);
+
+		assertEquals(List.of(), wheel.advance(START + 15_000));
+		assertEquals(List.of("bloqueo"), wheel.advance(START + 20_000));
+	}
+
+	@Test
+	void randomExpirationsFireWithinOneTick() {
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+		Random random = new Random(7);
+		long[] expirations = new long[2_000];
+		for (int i = 0; i < expirations.length; i++) {
+			expirations[i] = START + 1 + random.nextInt(7_200_000);
+			wheel.schedule(i, expirations[i]);
+		}
+
+		List<Integer> fired = new ArrayList<>();
+		for (long now = START; now <= START + 7_300_000; now += 1000) {
+			for (Integer key : wheel.advance(now)) {
+				assertTrue(expirations[key] <= now, "vencida antes de tiempo");
+				assertTrue(now - expirations[key] < 2000, "vencida con demasiado retraso");
+				fired.add(key);
+			}
+		}
+		assertEquals(expirations.length, fired.size());
+	}
+}
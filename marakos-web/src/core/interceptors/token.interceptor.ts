@@ -1,21 +1,52 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service';
 
+// Endpoints de auth que no llevan token ni se reintentan tras un 401
+const AUTH_ENDPOINTS = ['/auth/login', '/auth/refresh', '/auth/logout', '/auth/register'];
+
 export const tokenInterceptor: HttpInterceptorFn = (req, next) => {
   const authService = inject(AuthService);
   const token = authService.getToken();
 
   // Temporalmente excluir rutas de admin para desarrollo
   const isAdminRoute = req.url.includes('/api/admin/');
-  
-  if (token && !isAdminRoute) {
-    req = req.clone({
-      setHeaders: {
-        Authorization: `Bearer ${token}`
-      }
-    });
+  const isAuthEndpoint = AUTH_ENDPOINTS.some(endpoint => req.url.includes(endpoint));
+
+  if (!token || isAdminRoute || isAuthEndpoint) {
+    return next(req);
   }
 
-  return next(req);
-};
\ No newline at end of file
+  return next(withToken(req, token)).pipe(
+    catchError((error: HttpErrorResponse) => {
+      if (error.status !== 401 || !authService.getRefreshToken()) {
+        return throwError(() => error);
+      }
+
+      // Otra pestaña ya renovó el token: basta con reintentar con el actual
+      const currentToken = authService.getToken();
+      if (currentToken && currentToken !== token) {
+        return next(withToken(req, currentToken));
+      }
+
+      // El token de acceso venció: se renueva una vez y se reintenta la petición original
+      return authService.refreshAccessToken().pipe(
+        catchError(refreshError => {
+          console.warn('⚠️ Sesión expirada, se requiere iniciar sesión de nuevo:', refreshError);
+          authService.expireSession();
+          return throwError(() => error);
+        }),
+        switchMap(newToken => next(withToken(req, newToken)))
+      );
+    })
+  );
+};
+
+function withToken(req: HttpRequest<unknown>, token: string): HttpRequest<unknown> {
+  return req.clone({
+    setHeaders: {
+      Authorization: `Bearer ${token}`
+    }
+  });
+}
@@ -2,7 +2,7 @@ import { Injectable, signal, inject } from '@angular/core';
 import { Router } from '@angular/router';
 import { HttpClient } from '@angular/common/http';
 import { environment } from '../../environments/environment';
-import { tap, catchError } from 'rxjs/operators';
+import { tap, catchError, map, finalize, shareReplay } from 'rxjs/operators';
 import { Observable, of, throwError } from 'rxjs';
 import { User } from '../models/user.model';
 
@@ -13,8 +13,13 @@ export class AuthService {
   private http = inject(HttpClient);
   private router = inject(Router);
   private readonly TOKEN_KEY = 'marakos_token';
+  private readonly REFRESH_TOKEN_KEY = 'marakos_refresh_token';
   private readonly USER_KEY = 'marakos_user';
 
+  // Refresh en curso: las peticiones que reciben 401 a la vez comparten una sola rotación,
+  // porque auth-service revoca la sesión si el mismo refresh token se usa dos veces
+  private refreshInFlight: Observable<string> | null = null;
+
   currentUser = signal<any | null>(this.getUser());
 
   private users = signal<User[]>([
@@ -46,8 +51,9 @@ export class AuthService {
   login(credentials: { email: string, password: string }): Observable<any> {
     return this.http.post<any>(`${environment.apiUrl}/auth/login`, credentials).pipe(
       tap(response => {
-        localStorage.setItem(this.TOKEN_KEY, response.token);
-        localStorage.setItem(this.USER_KEY, JSON.stringify(response));
+        this.storeTokens(response.token, response.refreshToken);
+        const { token, refreshToken, ...user } = response;
+        localStorage.setItem(this.USER_KEY, JSON.stringify(user));
         this.currentUser.set(response);
         if (response.tipoUsuario === 'Empleado') {
           this.router.navigate(['/admin']);
@@ -151,9 +157,42 @@ export class AuthService {
   }
 
   logout() {
-    localStorage.removeItem(this.TOKEN_KEY);
-    localStorage.removeItem(this.USER_KEY);
-    this.currentUser.set(null);
+    const refreshToken = this.getRefreshToken();
+    if (refreshToken) {
+      // Revoca la sesión en auth-service; la sesión local se cierra aunque falle
+      this.http.post(`${environment.apiUrl}/auth/logout`, { refreshToken }).subscribe({
+        error: (error) => console.warn('No se pudo revocar la sesión en el servidor:', error)
+      });
+    }
+    this.clearSession();
+    this.router.navigate(['/login']);
+  }
+
+  /**
+   * Cambia el refresh token por un token de acceso nuevo (y un refresh token rotado).
+   * Si ya hay una renovación en curso se reutiliza en vez de enviar otra.
+   */
+  refreshAccessToken(): Observable<string> {
+    const refreshToken = this.getRefreshToken();
+    if (!refreshToken) {
+      return throwError(() => new Error('No hay refresh token'));
+    }
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.http.post<any>(`${environment.apiUrl}/auth/refresh`, { refreshToken }).pipe(
+        tap(response => this.storeTokens(response.token, response.refreshToken)),
+        map(response => response.token as string),
+        finalize(() => this.refreshInFlight = null),
+        shareReplay(1)
+      );
+    }
+    return this.refreshInFlight;
+  }
+
+  /**
+   * Cierra la sesión local sin llamar a auth-service (por ejemplo, cuando el refresh token ya no es válido)
+   */
+  expireSession() {
+    this.clearSession();
     this.router.navigate(['/login']);
   }
 
@@ -161,6 +200,24 @@ export class AuthService {
     return localStorage.getItem(this.TOKEN_KEY);
   }
 
+  getRefreshToken(): string | null {
+    return localStorage.getItem(this.REFRESH_TOKEN_KEY);
+  }
+
+  private storeTokens(token: string, refreshToken?: string) {
+    localStorage.setItem(this.TOKEN_KEY, token);
+    if (refreshToken) {
+      localStorage.setItem(this.REFRESH_TOKEN_KEY, refreshToken);
+    }
+  }
+
+  private clearSession() {
+    localStorage.removeItem(this.TOKEN_KEY);
+    localStorage.removeItem(this.REFRESH_TOKEN_KEY);
+    localStorage.removeItem(this.USER_KEY);
+    this.currentUser.set(null);
+  }
+
   getUser(): any | null {
     const user = localStorage.getItem(this.USER_KEY);
     return user ? JSON.parse(user) : null;
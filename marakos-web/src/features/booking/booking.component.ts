@@ -8,7 +8,7 @@ import { RestaurantDataService } from '../../core/services/restaurant-data.servi
 import { TableService } from '../../core/services/table.service';
 import { AuthService } from '../../core/services/auth.service';
 import { PaymentService, PaymentRequest, PaymentResponse } from '../../core/services/payment.service';
-import { NotificationService, WhatsAppNotificationRequest } from '../../core/services/notification.service';
+import { NotificationService } from '../../core/services/notification.service';
 import { MenuService } from '../../core/services/menu.service';
 import { Table, MenuItem } from '../../core/models/restaurant.model';
 import { ModalComponent } from '../../shared/components/modal/modal.component';
@@ -608,8 +608,7 @@ export class BookingComponent implements CanComponentDeactivate {
                 console.log('✅ Estado de reserva actualizado a PAGADO');
                 this.paymentProcessing.set(false);
                 
-                // Enviar notificación WhatsApp + Email con estado PAGADO
-                this.sendWhatsAppNotification(reservationResponse, 'Digital');
+                // La notificación WhatsApp + Email la envía reservation-service desde su outbox
                 
                 // Marcar reserva como completada
                 this.reservationCompleted.set(true);
@@ -628,7 +627,6 @@ export class BookingComponent implements CanComponentDeactivate {
                 console.error('⚠️ Error actualizando estado a PAGADO:', updateError);
                 // Continuar con el flujo aunque falle la actualización
                 this.paymentProcessing.set(false);
-                this.sendWhatsAppNotification(reservationResponse, 'Digital');
                 this.reservationCompleted.set(true);
                 this.router.navigate(['/confirmation', reservationResponse.id], {
                   queryParams: {
@@ -645,9 +643,6 @@ export class BookingComponent implements CanComponentDeactivate {
             console.error('❌ Pago fallido pero reserva creada:', error);
             this.paymentProcessing.set(false);
             
-            // Enviar notificación WhatsApp + Email con estado PENDIENTE (pago fallido)
-            this.sendPendingPaymentNotification(reservationResponse);
-            
             this.paymentError.set('No se pudo procesar el pago con tu tarjeta. Comunicate con tu entidad bancaria.');
             // Don't navigate yet - show error modal with option to view reservation
           }
@@ -735,9 +730,6 @@ export class BookingComponent implements CanComponentDeactivate {
         console.log('✅ FRONTEND: Respuesta de confirmación de reserva recibida:', reservationResponse);
         console.log('📱 FRONTEND: Verificando si se activó notificación WhatsApp para reserva ID:', reservationResponse.id);
         
-        // Enviar notificación WhatsApp
-        this.sendWhatsAppNotification(reservationResponse, 'Digital');
-        
         // Update payment request with reservation ID
         paymentRequest.reservationId = reservationResponse.id;
         
@@ -875,9 +867,6 @@ export class BookingComponent implements CanComponentDeactivate {
           console.log('📱 FRONTEND finalizeReservation: Verificando notificación WhatsApp enviada para reserva ID:', response.id);
           console.log('📱 FRONTEND finalizeReservation: Código de reserva para WhatsApp:', response.code || response.reservationCode || 'NO_CODE');
           
-          // Enviar notificación WhatsApp
-          this.sendWhatsAppNotification(response, 'Presencial');
-          
           // Desactivar indicador de procesamiento
           this.paymentProcessing.set(false);
           
@@ -950,9 +939,6 @@ export class BookingComponent implements CanComponentDeactivate {
           console.log('📱 FRONTEND finalizeReservacionPresencial: Verificando notificación WhatsApp para reserva presencial ID:', response.id);
           console.log('📱 FRONTEND finalizeReservationPresencial: Código de reserva:', response.code || response.reservationCode || 'NO_CODE');
           
-          // Enviar notificación WhatsApp para pago presencial
-          this.sendWhatsAppNotification(response, 'Presencial');
-          
           // Desactivar indicador de procesamiento
           this.paymentProcessing.set(false);
           
@@ -1149,144 +1135,6 @@ export class BookingComponent implements CanComponentDeactivate {
     return icons[location] || '📍';
   }
 
-  /**
-   * Envía notificación de pago pendiente cuando falla el pago online
-   */
-  private sendPendingPaymentNotification(reservationResponse: any): void {
-    try {
-      console.log('📱 FRONTEND: Enviando notificación de pago pendiente');
-      
-      // Detectar si tiene pre-orden de comida
-      const hasPreOrder = this.currentReservation().menuItems.length > 0 && this.menuTotal() > 0;
-      
-      // Preparar items de la orden
-      const orderItems = this.currentReservation().menuItems.map(item => ({
-        productName: item.item.name,
-        quantity: item.quantity,
-        unitPrice: item.item.price,
-        subtotal: item.item.price * item.quantity
-      }));
-      
-      // Preparar datos para la notificación con estado PENDIENTE_PAGO_ONLINE
-      const notificationData: WhatsAppNotificationRequest = {
-        customerName: this.customerName(),
-        customerPhone: this.notificationService.formatPhoneNumber(this.customerPhone()),
-        customerEmail: this.customerEmail() || 'no-disponible@marakos.pe',
-        reservationCode: reservationResponse.code || reservationResponse.reservationCode || `RES-${reservationResponse.id}`,
-        reservationDate: this.selectedDate(),
-        reservationTime: this.selectedTime(),
-        guestCount: this.guests(),
-        tableInfo: `Mesa ${this.selectedTable()?.number || 'por asignar'}`,
-        specialRequests: 'Sin observaciones especiales',
-        paymentType: 'online_failed',  // Nuevo tipo para identificar pago online fallido
-        paymentStatus: 'PENDIENTE_PAGO_ONLINE',  // Estado específico para pago online fallido
-        totalAmount: this.totalConIGV(),
-        reservationStatus: 'CONFIRMADA',
-        reservationType: this.reservationType(),
-        reservationId: reservationResponse.id,
-        hasPreOrder: hasPreOrder,
-        orderItems: hasPreOrder ? orderItems : []
-      };
-
-      console.log('📱 FRONTEND: Enviando notificación de pago pendiente:', notificationData);
-
-      // Enviar notificación
-      this.notificationService.sendReservationConfirmation(notificationData).subscribe({
-        next: (response) => {
-          console.log('✅ FRONTEND: Notificación de pago pendiente enviada exitosamente:', response);
-        },
-        error: (error) => {
-          console.error('❌ FRONTEND: Error enviando notificación de pago pendiente:', error);
-        }
-      });
-    } catch (error) {
-      console.error('❌ FRONTEND: Error preparando notificación de pago pendiente:', error);
-    }
-  }
-
-  /**
-   * Envía notificación WhatsApp después de una reserva exitosa
-   */
-  private sendWhatsAppNotification(reservationResponse: any, paymentType: string = 'Digital'): void {
-    try {
-      console.log('╔══════════════════════════════════════════════════════════════╗');
-      console.log('║  📱 FRONTEND: Iniciando envío de notificación WhatsApp      ║');
-      console.log('╚══════════════════════════════════════════════════════════════╝');
-      
-      // Detectar si tiene pre-orden de comida
-      const hasPreOrder = this.currentReservation().menuItems.length > 0 && this.menuTotal() > 0;
-      
-      console.log('🔍 DEBUG - Datos de reserva:');
-      console.log('   - Menu Items Count:', this.currentReservation().menuItems.length);
-      console.log('   - Menu Total:', this.menuTotal());
-      console.log('   - Has Pre-Order:', hasPreOrder);
-      console.log('   - Payment Type:', paymentType);
-      console.log('   - Reservation Type:', this.reservationType());
-      
-      // Preparar items de la orden
-      const orderItems = this.currentReservation().menuItems.map(item => ({
-        productName: item.item.name,
-        quantity: item.quantity,
-        unitPrice: item.item.price,
-        subtotal: item.item.price * item.quantity
-      }));
-      
-      // Determinar el estado de pago correcto
-      let paymentStatus = 'PAGADO';
-      if (paymentType.toLowerCase() === 'presencial' && hasPreOrder) {
-        // Pago presencial con pre-orden: hay pago pendiente
-        paymentStatus = 'PENDIENTE_PAGO_ONLINE';
-      } else if (!hasPreOrder) {
-        // Sin pre-orden: no hay pago
-        paymentStatus = 'CONFIRMADA';
-      }
-      
-      // Preparar datos para la notificación
-      const notificationData: WhatsAppNotificationRequest = {
-        customerName: this.customerName(),
-        customerPhone: this.notificationService.formatPhoneNumber(this.customerPhone()),
-        customerEmail: this.customerEmail() || 'no-disponible@marakos.pe',
-        reservationCode: reservationResponse.code || reservationResponse.reservationCode || `RES-${reservationResponse.id}`,
-        reservationDate: this.selectedDate(),
-        reservationTime: this.selectedTime(),
-        guestCount: this.guests(),
-        tableInfo: `Mesa ${this.selectedTable()?.number || 'por asignar'}`,
-        specialRequests: 'Sin observaciones especiales',
-        paymentType: paymentType,
-        paymentStatus: paymentStatus,
-        totalAmount: this.totalConIGV(),
-        reservationStatus: 'CONFIRMADA',
-        // Nuevos campos para email mejorado con QR y monto condicional
-        reservationType: this.reservationType(), // "MESA" o "EVENTO"
-        reservationId: reservationResponse.id, // ID para generar QR
-        hasPreOrder: hasPreOrder, // Si tiene comida pre-ordenada
-        orderItems: hasPreOrder ? orderItems : [] // Detalle de productos
-      };
-
-      console.log('📦 PAYLOAD COMPLETO para notificación:');
-      console.log(JSON.stringify(notificationData, null, 2));
-      console.log(`📧 Email incluirá: QR=${!!reservationResponse.id}, Monto=${hasPreOrder || this.reservationType() === 'EVENTO'}, Tipo=${this.reservationType()}`);
-      console.log('🚀 Llamando a notification service...');
-
-      // Enviar notificación
-      this.notificationService.sendReservationConfirmation(notificationData).subscribe({
-        next: (response) => {
-          console.log('✅ FRONTEND: Notificación WhatsApp + Email enviada exitosamente');
-          console.log('📨 Respuesta del servidor:', response);
-        },
-        error: (error) => {
-          console.error('❌ FRONTEND: Error enviando notificación WhatsApp + Email');
-          console.error('💥 Detalles del error:', error);
-          console.error('💥 Status:', error.status);
-          console.error('💥 Message:', error.message);
-          // La notificación falla pero no afecta el flujo principal de la reserva
-        }
-      });
-    } catch (error) {
-      console.error('❌ FRONTEND: Error preparando notificación WhatsApp:', error);
-    }
-  }
-
   /**
    * Verifica la disponibilidad del servicio de notificaciones al inicializar
    */
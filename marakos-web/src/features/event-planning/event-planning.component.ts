@@ -9,7 +9,6 @@ import { EventTypeService, EventType } from '../../core/services/event-type.serv
 import { MenuService } from '../../core/services/menu.service';
 import { BookingService } from '../../core/services/booking.service';
 import { PaymentService } from '../../core/services/payment.service';
-import { NotificationService, WhatsAppNotificationRequest } from '../../core/services/notification.service';
 import { MenuItem, AdditionalService } from '../../core/models/restaurant.model';
 import { ModalComponent } from '../../shared/components/modal/modal.component';
 import { CanComponentDeactivate } from '../../core/guards/can-deactivate.guard';
@@ -105,7 +104,6 @@ export class EventPlanningComponent implements CanComponentDeactivate {
   private menuService = inject(MenuService);
   private bookingService = inject(BookingService);
   private paymentService = inject(PaymentService);
-  private notificationService = inject(NotificationService);
 
   // Component state
   step = signal(1);
@@ -553,12 +551,7 @@ export class EventPlanningComponent implements CanComponentDeactivate {
                 console.log('✅ Estado de reserva de evento actualizado a PAGADO_PARCIAL');
                 this.paymentProcessing.set(false);
                 
-                console.log('📧 EVENTO: Preparando para enviar notificación...');
-                console.log('📧 EVENTO: reservationResponse.id =', reservationResponse.id);
-                console.log('📧 EVENTO: reservationResponse.code =', reservationResponse.code);
-                
-                // Enviar notificación WhatsApp + Email
-                this.sendEventNotification(reservationResponse, 'Digital');
+                // La notificación WhatsApp + Email la envía reservation-service desde su outbox
                 
                 // Marcar como completada para evitar warning de navegación
                 this.eventReservationCompleted.set(true);
@@ -579,11 +572,6 @@ export class EventPlanningComponent implements CanComponentDeactivate {
                 // Continuar con el flujo aunque falle la actualización
                 this.paymentProcessing.set(false);
                 
-                console.log('📧 EVENTO: (Error path) Preparando para enviar notificación...');
-                
-                // Enviar notificación aunque falle la actualización de estado
-                this.sendEventNotification(reservationResponse, 'Digital');
-                
                 this.eventReservationCompleted.set(true);
                 this.router.navigate(['/confirmation', reservationResponse.id], {
                   queryParams: {
@@ -603,11 +591,6 @@ export class EventPlanningComponent implements CanComponentDeactivate {
             
             this.paymentError.set('No se pudo procesar el pago con tu tarjeta. Comunicate con tu entidad bancaria.');
             
-            console.log('📧 EVENTO: (Pago fallido) Preparando para enviar notificación...');
-            
-            // Enviar notificación indicando que el pago está pendiente
-            this.sendEventNotification(reservationResponse, 'online_failed');
-            
             // La reserva se queda con estado CONFIRMADO (no se cambia a PENDIENTE)
             // Navegar a confirmación con estado CONFIRMADO
             this.eventReservationCompleted.set(true);
@@ -728,12 +711,6 @@ export class EventPlanningComponent implements CanComponentDeactivate {
         console.log('✅ FRONTEND: Reserva de evento creada (presencial):', reservationResponse);
         this.paymentProcessing.set(false);
         
-        console.log('📧 EVENTO: (Presencial) Preparando para enviar notificación...');
-        console.log('📧 EVENTO: reservationResponse =', reservationResponse);
-        
-        // Enviar notificación WhatsApp + Email
-        this.sendEventNotification(reservationResponse, 'Presencial');
-        
         this.eventReservationCompleted.set(true);
         
         // Navegar a confirmación con estado presencial
@@ -1325,103 +1302,6 @@ export class EventPlanningComponent implements CanComponentDeactivate {
     }, 1000);
   }
 
-  /**
-   * Envía notificación de WhatsApp y Email para reserva de evento
-   * Reutiliza la lógica de reserva de mesa adaptándola para eventos
-   */
-  private sendEventNotification(reservationResponse: any, paymentType: string = 'Digital'): void {
-    try {
-      console.log('╔══════════════════════════════════════════════════════════════╗');
-      console.log('║  📱 EVENTO: Iniciando envío de notificación WhatsApp + Email║');
-      console.log('╚══════════════════════════════════════════════════════════════╝');
-      
-      const reservation = this.eventReservation();
-      
-      // Detectar si tiene pre-orden de comida
-      const hasPreOrder = reservation.menuItems.length > 0 && this.menuTotal() > 0;
-      
-      console.log('🔍 DEBUG - Datos de reserva de evento:');
-      console.log('   - Menu Items Count:', reservation.menuItems.length);
-      console.log('   - Menu Total:', this.menuTotal());
-      console.log('   - Has Pre-Order:', hasPreOrder);
-      console.log('   - Payment Type:', paymentType);
-      console.log('   - Event Type:', reservation.eventType?.nombre);
-      console.log('   - Shift:', reservation.selectedShift?.name);
-      
-      // Preparar items de la orden si existen
-      const orderItems = reservation.menuItems.map(item => ({
-        productName: item.item.name,
-        quantity: item.quantity,
-        unitPrice: item.item.price,
-        subtotal: item.item.price * item.quantity
-      }));
-      
-      // Preparar servicios adicionales
-      const additionalServices = reservation.additionalServices.map(service => ({
-        serviceId: service.id,
-        serviceName: service.name,
-        quantity: 1,
-        subtotal: service.price,
-        observation: null
-      }));
-      
-      // Determinar el estado de pago correcto para eventos
-      let paymentStatus = 'PAGADO';
-      if (paymentType.toLowerCase() === 'presencial') {
-        // Pago presencial en eventos siempre requiere adelanto (50%)
-        paymentStatus = 'PENDIENTE_PAGO_ONLINE';
-      }
-      
-      // Preparar datos para la notificación
-      const notificationData: WhatsAppNotificationRequest = {
-        customerName: reservation.customerName,
-        customerPhone: this.notificationService.formatPhoneNumber(reservation.customerPhone),
-        customerEmail: reservation.customerEmail || 'no-disponible@marakos.pe',
-        reservationCode: reservationResponse.code || reservationResponse.reservationCode || `EVENTO-${reservationResponse.id}`,
-        reservationDate: reservation.selectedDate,
-        reservationTime: reservation.selectedShift?.startTime || '00:00',
-        guestCount: reservation.numberOfGuests,
-        tableInfo: `Evento - ${reservation.eventType?.nombre || 'Evento Especial'}`,
-        specialRequests: reservation.specialRequests || 'Sin observaciones especiales',
-        paymentType: paymentType,
-        paymentStatus: paymentStatus,
-        totalAmount: this.calculateTotal(),
-        reservationStatus: 'CONFIRMADA',
-        reservationType: 'EVENTO',
-        reservationId: reservationResponse.id,
-        hasPreOrder: hasPreOrder,
-        orderItems: hasPreOrder ? orderItems : [],
-        // Campos específicos de eventos
-        eventType: reservation.eventType?.nombre,
-        eventShift: reservation.selectedShift ? `${reservation.selectedShift.name} (${reservation.selectedShift.timeRange}) S/ ${reservation.selectedShift.price}` : undefined,
-        tableDistribution: reservation.tableDistribution ? `${reservation.tableDistribution.name} S/ 0` : undefined,
-        linenColor: reservation.linenColor ? `${reservation.linenColor.name} S/ ${reservation.linenColor.price}` : undefined,
-        additionalServices: additionalServices.length > 0 ? additionalServices : undefined
-      };
-
-      console.log('📦 PAYLOAD COMPLETO para notificación de evento:');
-      console.log(JSON.stringify(notificationData, null, 2));
-      console.log('🚀 Llamando a notification service...');
-
-      // Enviar notificación
-      this.notificationService.sendReservationConfirmation(notificationData).subscribe({
-        next: (response) => {
-          console.log('✅ EVENTO: Notificación WhatsApp + Email enviada exitosamente');
-          console.log('📨 Respuesta del servidor:', response);
-        },
-        error: (error) => {
-          console.error('❌ EVENTO: Error enviando notificación WhatsApp + Email');
-          console.error('💥 Detalles del error:', error);
-          console.error('💥 Status:', error.status);
-          console.error('💥 Message:', error.message);
-          // La notificación falla pero no afecta el flujo principal de la reserva
-        }
-      });
-    } catch (error) {
-      console.error('❌ EVENTO: Error preparando notificación WhatsApp:', error);
-    }
-  }
-
   /**
    * Guard de navegación - previene que el usuario salga accidentalmente del proceso de reserva de evento
    * Implementa CanComponentDeactivate